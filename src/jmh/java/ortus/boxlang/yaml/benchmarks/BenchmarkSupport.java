@@ -0,0 +1,168 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import ortus.boxlang.runtime.BoxRuntime;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.context.ScriptingRequestBoxContext;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.scopes.VariablesScope;
+
+/**
+ * Shared fixtures for the YAML benchmarks
+ */
+public final class BenchmarkSupport {
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * Get a new request context on top of a started runtime
+	 *
+	 * @return The context
+	 */
+	public static IBoxContext newContext() {
+		return new ScriptingRequestBoxContext( BoxRuntime.getInstance( true ).getRuntimeContext() );
+	}
+
+	/**
+	 * Run a BoxLang script and return the {@code payload} variable it sets.
+	 *
+	 * @param context The context to run the script in
+	 * @param script  The script source
+	 *
+	 * @return The value of the {@code payload} variable
+	 */
+	public static Object evaluate( IBoxContext context, String script ) {
+		BoxRuntime.getInstance().executeSource( script, context );
+		return context.getScopeNearby( VariablesScope.name ).get( Key.of( "payload" ) );
+	}
+
+	/**
+	 * Get the number of records a named document size holds
+	 *
+	 * @param size small, medium or huge
+	 *
+	 * @return The number of records
+	 */
+	public static int recordsFor( String size ) {
+		return switch ( size ) {
+			case "small" -> 1;
+			case "medium" -> 500;
+			case "huge" -> 20_000;
+			default -> throw new IllegalArgumentException( "Unknown document size: " + size );
+		};
+	}
+
+	/**
+	 * Build a YAML document with the given number of records, mixing scalars, nested mappings, sequences and timestamps.
+	 *
+	 * @param records The number of records
+	 *
+	 * @return The YAML document
+	 */
+	public static String document( int records ) {
+		StringBuilder yaml = new StringBuilder( records * 160 );
+		appendHeader( yaml );
+		for ( int i = 0; i < records; i++ ) {
+			appendRecord( yaml, i );
+		}
+		return yaml.toString();
+	}
+
+	/**
+	 * Build a stream of {@code ---} separated YAML documents, one record per document.
+	 *
+	 * @param documents The number of documents
+	 *
+	 * @return The YAML stream
+	 */
+	public static String documentStream( int documents ) {
+		StringBuilder yaml = new StringBuilder( documents * 170 );
+		for ( int i = 0; i < documents; i++ ) {
+			yaml.append( "---\n" );
+			appendRecord( yaml, i );
+		}
+		return yaml.toString();
+	}
+
+	/**
+	 * Write a YAML document of roughly the given size to a file, record by record, so even huge files never need to be
+	 * held in memory.
+	 *
+	 * @param path  The file to write
+	 * @param bytes The target file size in bytes
+	 *
+	 * @throws IOException If the file cannot be written
+	 */
+	public static void writeDocument( Path path, long bytes ) throws IOException {
+		try ( Writer writer = Files.newBufferedWriter( path, StandardCharsets.UTF_8 ) ) {
+			StringBuilder	chunk	= new StringBuilder( 512 );
+			long			written	= 0;
+			appendHeader( chunk );
+			for ( int i = 0; written < bytes; i++ ) {
+				appendRecord( chunk, i );
+				writer.append( chunk );
+				written += chunk.length();
+				chunk.setLength( 0 );
+			}
+		}
+	}
+
+	/**
+	 * Parse a human readable size such as {@code 1KB}, {@code 1MB} or {@code 500MB}
+	 *
+	 * @param size The size
+	 *
+	 * @return The size in bytes
+	 */
+	public static long bytesFor( String size ) {
+		long value = Long.parseLong( size.substring( 0, size.length() - 2 ) );
+		return switch ( size.substring( size.length() - 2 ) ) {
+			case "KB" -> value * 1024;
+			case "MB" -> value * 1024 * 1024;
+			case "GB" -> value * 1024 * 1024 * 1024;
+			default -> throw new IllegalArgumentException( "Unknown file size: " + size );
+		};
+	}
+
+	private static void appendHeader( StringBuilder yaml ) {
+		yaml.append( "version: 1\n" )
+		    .append( "generated: 2024-01-01T10:00:00Z\n" )
+		    .append( "records:\n" );
+	}
+
+	private static void appendRecord( StringBuilder yaml, int i ) {
+		yaml.append( "  - id: " ).append( i ).append( '\n' )
+		    .append( "    name: Record number " ).append( i ).append( '\n' )
+		    .append( "    active: " ).append( i % 2 == 0 ).append( '\n' )
+		    .append( "    score: " ).append( i * 1.5 ).append( '\n' )
+		    .append( "    created: 2024-01-" ).append( String.format( "%02d", i % 28 + 1 ) ).append( '\n' )
+		    .append( "    tags: [ alpha, beta, gamma ]\n" )
+		    .append( "    owner:\n" )
+		    .append( "      type: user\n" )
+		    .append( "      email: owner" ).append( i ).append( "@boxlang.io\n" );
+	}
+
+}
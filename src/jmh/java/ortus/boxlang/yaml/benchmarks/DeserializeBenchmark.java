@@ -0,0 +1,63 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.yaml.YamlParser;
+
+/**
+ * Measures {@link YamlParser#deserialize(IBoxContext, String)} for small, medium and huge documents, on a single
+ * thread and with every core hammering the shared parser.
+ */
+@State( Scope.Benchmark )
+public class DeserializeBenchmark {
+
+	@Param( { "small", "medium", "huge" } )
+	public String		size;
+
+	private YamlParser	parser;
+	private IBoxContext	context;
+	private String		yaml;
+
+	@Setup
+	public void setup() {
+		this.context	= BenchmarkSupport.newContext();
+		this.parser		= YamlParser.getInstance();
+		this.yaml		= BenchmarkSupport.document( BenchmarkSupport.recordsFor( this.size ) );
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public Object deserializeSingleThread() {
+		return this.parser.deserialize( this.context, this.yaml );
+	}
+
+	@Benchmark
+	@Threads( Threads.MAX )
+	public Object deserializeMultiThread() {
+		return this.parser.deserialize( this.context, this.yaml );
+	}
+
+}
@@ -0,0 +1,86 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.benchmarks;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.yaml.DeserializeOptions;
+import ortus.boxlang.yaml.YamlDocumentIterator;
+import ortus.boxlang.yaml.YamlParser;
+
+/**
+ * Measures deserializing a multi-document stream one document at a time against
+ * {@link YamlParser#deserializeAllParallel(IBoxContext, String, DeserializeOptions)} on 1 to 8 fork-join threads, to
+ * show how throughput scales with the cores.
+ */
+@State( Scope.Benchmark )
+public class MultiDocumentBenchmark {
+
+	@Param( { "1000", "20000" } )
+	public int					documents;
+
+	@Param( { "1", "2", "4", "8" } )
+	public int					parallelism;
+
+	private YamlParser			parser;
+	private IBoxContext			context;
+	private DeserializeOptions	options;
+	private ForkJoinPool		forkJoinPool;
+	private String				yaml;
+
+	@Setup
+	public void setup() {
+		this.context		= BenchmarkSupport.newContext();
+		this.parser			= YamlParser.getInstance();
+		this.options		= this.parser.getDeserializeOptions();
+		this.forkJoinPool	= new ForkJoinPool( this.parallelism );
+		this.yaml			= BenchmarkSupport.documentStream( this.documents );
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.forkJoinPool.shutdown();
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public void deserializeSequential( Blackhole blackhole ) {
+		try ( YamlDocumentIterator iterator = this.parser.deserializeAll( this.context, this.yaml, this.options ) ) {
+			iterator.forEachRemaining( blackhole::consume );
+		}
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public Object deserializeParallel() throws InterruptedException, ExecutionException {
+		// Parallel streams run on the fork-join pool they are started from
+		return this.forkJoinPool.submit( () -> this.parser.deserializeAllParallel( this.context, this.yaml, this.options ) ).get();
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.yaml.BoxLangResolver;
+import ortus.boxlang.yaml.util.YamlKeyInterner;
+
+/**
+ * Measures implicit type resolution and key creation for the scalars making up most documents, against the stock
+ * SnakeYAML {@link Resolver} and plain {@link Key#of(String)}.
+ */
+@State( Scope.Benchmark )
+public class ScalarBenchmark {
+
+	private static final String[]	SCALARS		= { "name", "id", "type", "description", "status", "true", "null", "42", "3.14",
+	    "2024-01-15T10:30:00Z", "off", "created" };
+
+	private final Resolver			resolver	= new Resolver();
+	private final Resolver			fastPath	= new BoxLangResolver();
+
+	@Benchmark
+	public void resolveStock( Blackhole blackhole ) {
+		for ( String scalar : SCALARS ) {
+			blackhole.consume( this.resolver.resolve( NodeId.scalar, scalar, true ) );
+		}
+	}
+
+	@Benchmark
+	public void resolveFastPath( Blackhole blackhole ) {
+		for ( String scalar : SCALARS ) {
+			blackhole.consume( this.fastPath.resolve( NodeId.scalar, scalar, true ) );
+		}
+	}
+
+	@Benchmark
+	public void keyOf( Blackhole blackhole ) {
+		for ( String scalar : SCALARS ) {
+			blackhole.consume( Key.of( scalar ) );
+		}
+	}
+
+	@Benchmark
+	public void keyInterned( Blackhole blackhole ) {
+		for ( String scalar : SCALARS ) {
+			blackhole.consume( YamlKeyInterner.intern( scalar ) );
+		}
+	}
+
+}
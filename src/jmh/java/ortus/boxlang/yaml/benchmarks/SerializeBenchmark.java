@@ -0,0 +1,106 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.yaml.YamlParser;
+
+/**
+ * Measures {@link YamlParser#serialize(IBoxContext, Object)} for the BoxLang types we care about, on a single thread
+ * and with every core hammering the shared parser.
+ */
+@State( Scope.Benchmark )
+public class SerializeBenchmark {
+
+	@Param( { "struct", "query", "classes", "dates" } )
+	public String		payloadType;
+
+	private YamlParser	parser;
+	private IBoxContext	context;
+	private Object		payload;
+
+	@Setup
+	public void setup() {
+		this.context	= BenchmarkSupport.newContext();
+		this.parser		= YamlParser.getInstance();
+		this.payload	= BenchmarkSupport.evaluate( this.context, scriptFor( this.payloadType ) );
+	}
+
+	/**
+	 * Get the BoxLang script that builds the payload for a given type
+	 *
+	 * @param type The payload type
+	 *
+	 * @return The script source
+	 */
+	private static String scriptFor( String type ) {
+		return switch ( type ) {
+			case "struct" -> """
+			    payload = {};
+			    for( i = 1; i <= 500; i++ ){
+			        payload[ "key#i#" ] = {
+			            id     : i,
+			            name   : "Name #i#",
+			            tags   : [ "alpha", "beta", "gamma" ],
+			            nested : { level : 2, flags : { active : true, score : i * 1.5 } }
+			        };
+			    }
+			    """;
+			case "query" -> """
+			    payload = queryNew( "id,name,amount,active", "integer,varchar,double,bit" );
+			    for( i = 1; i <= 10000; i++ ){
+			        queryAddRow( payload, [ i, "Row #i#", i * 1.25, i % 2 == 0 ] );
+			    }
+			    """;
+			case "classes" -> """
+			    payload = [];
+			    for( i = 1; i <= 1000; i++ ){
+			        payload.append( new src.jmh.bx.Person( i ) );
+			    }
+			    """;
+			case "dates" -> """
+			    payload = [];
+			    start = createDateTime( 2024, 1, 1, 0, 0, 0 );
+			    for( i = 1; i <= 10000; i++ ){
+			        payload.append( dateAdd( "n", i, start ) );
+			    }
+			    """;
+			default -> throw new IllegalArgumentException( "Unknown payload type: " + type );
+		};
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public String serializeSingleThread() {
+		return this.parser.serialize( this.context, this.payload );
+	}
+
+	@Benchmark
+	@Threads( Threads.MAX )
+	public String serializeMultiThread() {
+		return this.parser.serialize( this.context, this.payload );
+	}
+
+}
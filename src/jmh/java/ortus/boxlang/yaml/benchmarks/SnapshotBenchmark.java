@@ -0,0 +1,85 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.YamlSnapshot;
+
+/**
+ * Compares parsing a YAML file with {@link YamlParser#deserializeFromFile(IBoxContext, String, String)} to loading the
+ * same values from its binary snapshot, hash check of the source included.
+ */
+@State( Scope.Benchmark )
+@Fork( value = 1, jvmArgsAppend = { "-Xmx4g" } )
+public class SnapshotBenchmark {
+
+	@Param( { "1MB", "50MB" } )
+	public String		fileSize;
+
+	private YamlParser	parser;
+	private IBoxContext	context;
+	private Path		directory;
+	private Path		source;
+	private Path		snapshot;
+
+	@Setup
+	public void setup() throws IOException {
+		this.context	= BenchmarkSupport.newContext();
+		this.parser		= YamlParser.getInstance();
+		this.directory	= Files.createTempDirectory( "bx-yaml-bench" );
+		this.source		= this.directory.resolve( "source.yml" );
+		BenchmarkSupport.writeDocument( this.source, BenchmarkSupport.bytesFor( this.fileSize ) );
+		this.snapshot = Path.of( this.parser.compileFile( this.context, this.source.toString(), "UTF-8" ) );
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try ( Stream<Path> files = Files.walk( this.directory ) ) {
+			files.sorted( Comparator.reverseOrder() ).forEach( path -> path.toFile().delete() );
+		}
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public Object parseFile() {
+		return this.parser.deserializeFromFile( this.context, this.source.toString(), "UTF-8" );
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public Object loadSnapshot() throws IOException {
+		return YamlSnapshot.read( this.snapshot, "UTF-8", false, YamlSnapshot.hash( this.source ) ).value();
+	}
+
+}
@@ -17,47 +17,341 @@
  */
 package ortus.boxlang.yaml;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.constructor.Construct;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
 import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.nodes.Tag;
 
-import ortus.boxlang.runtime.dynamic.casters.DateTimeCaster;
+import ortus.boxlang.runtime.runnables.IClassRunnable;
+import ortus.boxlang.runtime.scopes.IScope;
+import ortus.boxlang.runtime.scopes.Key;
 import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
 import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.unmodifiable.IUnmodifiable;
+import ortus.boxlang.yaml.util.YamlKeyInterner;
+import ortus.boxlang.yaml.util.YamlTimestampParser;
 
 public class BoxLangConstructor extends Constructor {
 
+	/**
+	 * The tag of the mappings bound to a class, see {@link ClassBinding}
+	 */
+	private static final Tag			BIND_TAG		= new Tag( "tag:boxlang.io,2024:bind" );
+
+	/**
+	 * The limits and alias handling of the current call
+	 */
+	private DeserializeOptions			options			= new DeserializeOptions();
+
+	/**
+	 * The number of values constructed from the current document
+	 */
+	private int							valueCount		= 0;
+
+	/**
+	 * The read-only values of the anchored collections of the current document, when aliases are shared
+	 */
+	private final Map<Node, Object>		sharedValues	= new IdentityHashMap<>();
+
 	public BoxLangConstructor( Class<?> theRoot, LoaderOptions options ) {
 		super( theRoot, options );
+		// Build mappings and sequences straight into BoxLang types
+		this.yamlConstructors.put( Tag.MAP, new ConstructStruct() );
+		this.yamlConstructors.put( Tag.SEQ, new ConstructArray() );
+		this.yamlConstructors.put( BIND_TAG, new ConstructBoxClass() );
+	}
+
+	/**
+	 * Set the limits and alias handling used from now on
+	 *
+	 * @param options The deserialization options
+	 */
+	public void setOptions( DeserializeOptions options ) {
+		this.options = options;
+	}
+
+	/**
+	 * Get the number of values constructed from the last document
+	 *
+	 * @return The value count
+	 */
+	public int getValueCount() {
+		return this.valueCount;
+	}
+
+	@Override
+	public Object getData() {
+		resetDocument();
+		return super.getData();
+	}
+
+	@Override
+	public Object getSingleData( Class<?> type ) {
+		resetDocument();
+		if ( this.options.getBinding() == null ) {
+			return super.getSingleData( type );
+		}
+
+		Node node = this.composer.getSingleNode();
+		if ( node == null || Tag.NULL.equals( node.getTag() ) ) {
+			return null;
+		}
+		bindRoot( node );
+		return constructDocument( node );
+	}
+
+	/**
+	 * Tag the mappings of a document that are bound to the class of the options: the root mapping, or every mapping
+	 * of a root sequence.
+	 *
+	 * @param root The root node of the document
+	 */
+	private static void bindRoot( Node root ) {
+		if ( root instanceof SequenceNode sequence && root.getTag().equals( Tag.SEQ ) ) {
+			for ( Node child : sequence.getValue() ) {
+				bindRoot( child );
+			}
+		} else if ( root instanceof MappingNode && root.getTag().equals( Tag.MAP ) ) {
+			root.setTag( BIND_TAG );
+		}
+	}
+
+	/**
+	 * Reset the per-document state before constructing a new document
+	 */
+	private void resetDocument() {
+		this.valueCount = 0;
+		this.sharedValues.clear();
 	}
 
-	@SuppressWarnings( "unchecked" )
 	@Override
 	protected Object constructObject( Node node ) {
-		// Is this a map, map to a Struct
-		if ( node.getTag().equals( Tag.MAP ) ) {
-			// Use the custom Struct class
-			Map<Object, Object> map = ( Map<Object, Object> ) super.constructObject( node );
-			return Struct.fromMap( map );
+		if ( ++this.valueCount > this.options.getMaxValues() ) {
+			throw new YAMLException( "The document expands to more than the max of [" + this.options.getMaxValues() + "] values" );
 		}
-		// Is this a sequence? Map to an Array
-		else if ( node.getTag().equals( Tag.SEQ ) ) {
-			// Use the custom Array class
-			List<Object> list = ( List<Object> ) super.constructObject( node );
-			return Array.of( list );
+
+		// Recursive collections must keep their single instance, only plain trees are copied or shared
+		if ( !node.isTwoStepsConstruction() && isCollection( node ) ) {
+			if ( !this.options.isSharedAliases() ) {
+				// Bypass the constructed objects cache, so every alias gets its own modifiable copy
+				return getConstructor( node ).construct( node );
+			}
+			if ( node.getAnchor() != null ) {
+				Object shared = this.sharedValues.get( node );
+				if ( shared == null ) {
+					shared = readOnly( super.constructObject( node ) );
+					this.sharedValues.put( node, shared );
+				}
+				return shared;
+			}
 		}
-		// If this is a date/time use a BoxLang date/time object
-		else if ( node.getTag().equals( Tag.TIMESTAMP ) ) {
-			// Handle date/time objects
-			String dateString = ( String ) super.constructScalar( ( ScalarNode ) node );
-			return DateTimeCaster.cast( dateString );
+
+		// If this is a date/time use a BoxLang date/time object, unless raw timestamps are requested
+		if ( node.getTag().equals( Tag.TIMESTAMP ) ) {
+			String timestamp = ( ( ScalarNode ) node ).getValue();
+			return this.options.isRawTimestamps() ? timestamp : YamlTimestampParser.parse( timestamp );
 		}
 
 		return super.constructObject( node );
 	}
+
+	/**
+	 * Construct a standalone node, for example one composed by the {@link YamlNodeComposer}, into a BoxLang value.
+	 *
+	 * @param node The node to construct
+	 *
+	 * @return The BoxLang value
+	 */
+	public Object constructNode( Node node ) {
+		resetDocument();
+		return constructDocument( node );
+	}
+
+	/**
+	 * Construct the value of a standalone plain scalar of a core tag, such as an int, float or bool, without going
+	 * through a document.
+	 *
+	 * @param tag   The resolved tag
+	 * @param value The scalar value
+	 *
+	 * @return The Java value
+	 */
+	public Object constructScalar( Tag tag, String value ) {
+		return this.yamlConstructors.get( tag ).construct( new ScalarNode( tag, value, null, null, DumperOptions.ScalarStyle.PLAIN ) );
+	}
+
+	/**
+	 * Whether a node is a plain mapping or sequence, built into a struct or an array
+	 *
+	 * @param node The node
+	 *
+	 * @return True for mappings and sequences
+	 */
+	private static boolean isCollection( Node node ) {
+		return node.getTag().equals( Tag.MAP ) || node.getTag().equals( Tag.SEQ );
+	}
+
+	/**
+	 * Turn a constructed struct or array, and everything nested in it, into its unmodifiable counterpart
+	 *
+	 * @param value The constructed value
+	 *
+	 * @return The read-only value
+	 */
+	static Object readOnly( Object value ) {
+		if ( value instanceof IUnmodifiable ) {
+			return value;
+		}
+		if ( value instanceof Struct struct ) {
+			for ( Key key : struct.keySet().toArray( new Key[ 0 ] ) ) {
+				struct.put( key, readOnly( struct.get( key ) ) );
+			}
+			return struct.toUnmodifiable();
+		}
+		if ( value instanceof Array array ) {
+			for ( int i = 0; i < array.size(); i++ ) {
+				array.set( i, readOnly( array.get( i ) ) );
+			}
+			return array.toUnmodifiable();
+		}
+		return value;
+	}
+
+	/**
+	 * Populate a BoxLang struct from a mapping node, converting every key into an interned {@link Key} as it is read.
+	 *
+	 * @param node   The mapping node
+	 * @param struct The struct to populate
+	 */
+	protected void constructStruct2ndStep( MappingNode node, IStruct struct ) {
+		// Resolve merge keys (<<) and check for duplicates
+		flattenMapping( node );
+
+		for ( NodeTuple tuple : node.getValue() ) {
+			Node keyNode = tuple.getKeyNode();
+			if ( keyNode.isTwoStepsConstruction() && !this.loadingConfig.getAllowRecursiveKeys() ) {
+				throw new YAMLException( "Recursive key for mapping is detected but it is not configured to be allowed." );
+			}
+			Object key = constructObject( keyNode );
+			struct.put( YamlKeyInterner.intern( String.valueOf( key ) ), constructObject( tuple.getValueNode() ) );
+		}
+	}
+
+	/**
+	 * Populate a BoxLang array from a sequence node.
+	 *
+	 * @param node  The sequence node
+	 * @param array The array to populate
+	 */
+	protected void constructArray2ndStep( SequenceNode node, Array array ) {
+		for ( Node child : node.getValue() ) {
+			array.add( constructObject( child ) );
+		}
+	}
+
+	/**
+	 * Bind a mapping node onto the properties of a class instance. Keys that are not bound to a property are skipped
+	 * and their values are never built.
+	 *
+	 * @param node     The mapping node
+	 * @param instance The instance to populate
+	 */
+	protected void constructClass2ndStep( MappingNode node, IClassRunnable instance ) {
+		// Resolve merge keys (<<) and check for duplicates
+		flattenMapping( node );
+
+		ClassBinding	binding		= this.options.getBinding();
+		IScope			variables	= instance.getVariablesScope();
+		for ( NodeTuple tuple : node.getValue() ) {
+			Key property = binding.getProperty( YamlKeyInterner.intern( String.valueOf( constructObject( tuple.getKeyNode() ) ) ) );
+			if ( property != null ) {
+				variables.put( property, constructObject( tuple.getValueNode() ) );
+			}
+		}
+	}
+
+	/**
+	 * Constructs a YAML mapping directly into a new instance of the bound class, see {@link ClassBinding}.
+	 */
+	private class ConstructBoxClass implements Construct {
+
+		@Override
+		public Object construct( Node node ) {
+			IClassRunnable instance = options.getBinding().newInstance();
+			// Recursive structures are populated in the second step
+			if ( !node.isTwoStepsConstruction() ) {
+				constructClass2ndStep( ( MappingNode ) node, instance );
+			}
+			return instance;
+		}
+
+		@Override
+		public void construct2ndStep( Node node, Object object ) {
+			if ( !node.isTwoStepsConstruction() ) {
+				throw new YAMLException( "Unexpected recursive mapping structure. Node: " + node );
+			}
+			constructClass2ndStep( ( MappingNode ) node, ( IClassRunnable ) object );
+		}
+	}
+
+	/**
+	 * Constructs a YAML mapping directly into a BoxLang {@link Struct}, skipping the intermediate {@code LinkedHashMap}.
+	 */
+	private class ConstructStruct implements Construct {
+
+		@Override
+		public Object construct( Node node ) {
+			IStruct struct = new Struct();
+			// Recursive structures are populated in the second step
+			if ( !node.isTwoStepsConstruction() ) {
+				constructStruct2ndStep( ( MappingNode ) node, struct );
+			}
+			return struct;
+		}
+
+		@Override
+		public void construct2ndStep( Node node, Object object ) {
+			if ( !node.isTwoStepsConstruction() ) {
+				throw new YAMLException( "Unexpected recursive mapping structure. Node: " + node );
+			}
+			constructStruct2ndStep( ( MappingNode ) node, ( IStruct ) object );
+		}
+	}
+
+	/**
+	 * Constructs a YAML sequence directly into a pre-sized BoxLang {@link Array}, skipping the intermediate {@code ArrayList}.
+	 */
+	private class ConstructArray implements Construct {
+
+		@Override
+		public Object construct( Node node ) {
+			List<Node>	children	= ( ( SequenceNode ) node ).getValue();
+			Array		array		= new Array( children.size() );
+			// Recursive structures are populated in the second step
+			if ( !node.isTwoStepsConstruction() ) {
+				constructArray2ndStep( ( SequenceNode ) node, array );
+			}
+			return array;
+		}
+
+		@Override
+		public void construct2ndStep( Node node, Object object ) {
+			if ( !node.isTwoStepsConstruction() ) {
+				throw new YAMLException( "Unexpected recursive sequence structure. Node: " + node );
+			}
+			constructArray2ndStep( ( SequenceNode ) node, ( Array ) object );
+		}
+	}
 }
@@ -18,36 +18,60 @@
 package ortus.boxlang.yaml;
 
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Represent;
 import org.yaml.snakeyaml.representer.Representer;
 
 import ortus.boxlang.runtime.BoxRuntime;
 import ortus.boxlang.runtime.context.IBoxContext;
-import ortus.boxlang.runtime.dynamic.casters.BooleanCaster;
-import ortus.boxlang.runtime.dynamic.casters.StringCaster;
 import ortus.boxlang.runtime.interop.DynamicObject;
 import ortus.boxlang.runtime.runnables.IClassRunnable;
 import ortus.boxlang.runtime.scopes.Key;
 import ortus.boxlang.runtime.scopes.VariablesScope;
-import ortus.boxlang.runtime.types.Array;
 import ortus.boxlang.runtime.types.DateTime;
 import ortus.boxlang.runtime.types.Function;
 import ortus.boxlang.runtime.types.IStruct;
-import ortus.boxlang.runtime.types.Property;
 import ortus.boxlang.runtime.types.Query;
 import ortus.boxlang.runtime.types.Struct;
-import ortus.boxlang.runtime.types.util.BLCollector;
 import ortus.boxlang.yaml.util.KeyDictionary;
 
 public class BoxLangRepresenter extends Representer {
 
+	/**
+	 * The mapping key of the column names in the columns query format
+	 */
+	static final String						COLUMNS_KEY		= "columns";
+
+	/**
+	 * The mapping key of the rows in the columns query format
+	 */
+	static final String						DATA_KEY		= "data";
+
+	/**
+	 * How queries are represented
+	 */
+	private SerializeOptions.QueryFormat	queryFormat		= SerializeOptions.QueryFormat.ROWS;
+
+	/**
+	 * The classes being represented by the current call, tracked by identity to cut recursive references
+	 */
+	private final Set<IClassRunnable>		visitedClasses	= Collections.newSetFromMap( new IdentityHashMap<>() );
+
 	/**
 	 * Constructor
 	 */
@@ -56,106 +80,190 @@ public class BoxLangRepresenter extends Representer {
 		this.representers.put( Query.class, new RepresentQuery() );
 		this.representers.put( Key.class, new RepesentKey() );
 		this.representers.put( DateTime.class, new RepresentDateTime() );
-		this.representers.put( Function.class, new RepresentFunction() );
 		this.representers.put( DynamicObject.class, new RepresentDynamicObject() );
-		this.representers.put( IClassRunnable.class, new RepresetClassRunnable() );
+		// Classes and functions are only known by their interface or base class, so they are matched by type. Classes
+		// are also structs, so they must come before SnakeYAML's map representer.
+		Map<Class<?>, Represent> defaults = new LinkedHashMap<>( this.multiRepresenters );
+		this.multiRepresenters.clear();
+		this.multiRepresenters.put( IClassRunnable.class, new RepresetClassRunnable() );
+		this.multiRepresenters.putAll( defaults );
+		this.multiRepresenters.put( Function.class, new RepresentFunction() );
 	}
 
 	/**
-	 * Inflate an annotation value into an Array
+	 * Represent a value as a node graph, then forget the objects and classes seen while doing it
 	 *
-	 * @param value The value to inflate
+	 * @param data The value to represent
 	 *
-	 * @return The inflated array
+	 * @return The root node
 	 */
-	private static Array inflateArray( Object value ) {
-		// If the value is already an array, then cast it
-		if ( value instanceof Array castedArray ) {
-			return castedArray;
+	@Override
+	public Node represent( Object data ) {
+		try {
+			return super.represent( data );
+		} finally {
+			this.visitedClasses.clear();
 		}
+	}
+
+	/**
+	 * Get the representer of BoxLang classes, handed to their {@code toYaml()} method along with the context
+	 *
+	 * @return The class representer
+	 */
+	Represent getClassRepresent() {
+		return this.multiRepresenters.get( IClassRunnable.class );
+	}
+
+	/**
+	 * Set how queries are represented
+	 *
+	 * @param queryFormat The query format
+	 */
+	public void setQueryFormat( SerializeOptions.QueryFormat queryFormat ) {
+		this.queryFormat = queryFormat;
+	}
 
-		// Split the string by comma and trim the values
-		return Arrays.stream( StringCaster.cast( value ).split( "," ) )
-		    .map( String::trim )
-		    .collect( BLCollector.toArray() );
+	/**
+	 * Get how queries are represented
+	 *
+	 * @return The query format
+	 */
+	public SerializeOptions.QueryFormat getQueryFormat() {
+		return this.queryFormat;
 	}
 
 	/**
-	 * This class is used to represent a BoxClass object as a yaml string
+	 * Get the column names of a query, in column order
+	 *
+	 * @param query The query
+	 *
+	 * @return The column names
 	 */
-	private class RepresetClassRunnable extends RepresentString {
+	public static Key[] queryColumns( Query query ) {
+		return query.getColumns().keySet().toArray( new Key[ 0 ] );
+	}
 
-		// ThreadLocal to keep track of seen structs in the current thread
-		private static final ThreadLocal<Set<IClassRunnable>> visitedClasses = ThreadLocal.withInitial( HashSet::new );
+	/**
+	 * Represent the column names of a query as a flow sequence
+	 *
+	 * @param columns The column names
+	 *
+	 * @return The column names sequence node
+	 */
+	private Node representQueryColumns( Key[] columns ) {
+		List<Node> names = new ArrayList<>( columns.length );
+		for ( Key column : columns ) {
+			names.add( representScalar( Tag.STR, column.getName() ) );
+		}
+		return new SequenceNode( Tag.SEQ, names, FlowStyle.FLOW );
+	}
+
+	/**
+	 * Build a row mapping of column names to values
+	 *
+	 * @param columns The column names
+	 * @param row     The row values, in column order
+	 *
+	 * @return The mapping node
+	 */
+	private Node rowMapping( Key[] columns, Object[] row ) {
+		List<NodeTuple> tuples = new ArrayList<>( columns.length );
+		for ( int i = 0; i < columns.length; i++ ) {
+			tuples.add( new NodeTuple( representScalar( Tag.STR, columns[ i ].getName() ), representData( row[ i ] ) ) );
+		}
+		MappingNode node = new MappingNode( Tag.MAP, tuples, FlowStyle.AUTO );
+		node.setFlowStyle( bestFlowStyle( tuples.stream().map( NodeTuple::getValueNode ).toList() ) );
+		return node;
+	}
+
+	/**
+	 * Build a row flow sequence of values
+	 *
+	 * @param row The row values, in column order
+	 *
+	 * @return The sequence node
+	 */
+	private Node rowSequence( Object[] row ) {
+		List<Node> values = new ArrayList<>( row.length );
+		for ( Object value : row ) {
+			values.add( representData( value ) );
+		}
+		return new SequenceNode( Tag.SEQ, values, FlowStyle.FLOW );
+	}
+
+	/**
+	 * Pick the flow style of a collection the same way SnakeYAML does: the default flow style, unless it is
+	 * {@link FlowStyle#AUTO}, in which case collections of plain scalars are written in flow style.
+	 *
+	 * @param children The child nodes of the collection
+	 *
+	 * @return The flow style
+	 */
+	private FlowStyle bestFlowStyle( List<Node> children ) {
+		if ( this.defaultFlowStyle != FlowStyle.AUTO ) {
+			return this.defaultFlowStyle;
+		}
+		for ( Node child : children ) {
+			if ( ! ( child instanceof ScalarNode scalar && scalar.isPlain() ) ) {
+				return FlowStyle.BLOCK;
+			}
+		}
+		return FlowStyle.FLOW;
+	}
+
+	/**
+	 * This class is used to represent a BoxClass object as a mapping of its serializable properties, following the
+	 * cached {@link ClassSerializationPlan} of its class.
+	 */
+	private class RepresetClassRunnable implements Represent {
 
 		@Override
 		public Node representData( Object data ) {
-			if ( data instanceof IClassRunnable bxClass ) {
-				Map<Key, Property>	properties			= bxClass.getProperties();
-				IStruct				classAnnotations	= bxClass.getAnnotations();
-				VariablesScope		variablesScope		= bxClass.getVariablesScope();
-				IBoxContext			boxContext			= BoxRuntime.getInstance().getRuntimeContext();
+			IClassRunnable			bxClass			= ( IClassRunnable ) data;
+			VariablesScope			variablesScope	= bxClass.getVariablesScope();
+			IBoxContext				boxContext		= BoxRuntime.getInstance().getRuntimeContext();
 
-				// Get the current thread's set of visted classes
-				Set<IClassRunnable>	visited				= visitedClasses.get();
+			// A class that refers back to itself, directly or through its properties, is cut short
+			if ( visitedClasses.contains( bxClass ) ) {
+				return representScalar( Tag.STR, "recursive-class-skipping" );
+			}
 
-				if ( visited.contains( bxClass ) ) {
-					return super.representData( "recursive-class-skipping" );
-				}
+			// Verify if the class is NOT serializable via the "serializable" annotation and it's false, return {}
+			ClassSerializationPlan	plan			= ClassSerializationPlan.of( bxClass );
+			if ( !plan.isSerializable() ) {
+				return BoxLangRepresenter.this.representData( new Struct() );
+			}
 
-				// Verify if the class is NOT serializable via the "serializable" annotation and it's false, return {}
-				if ( BooleanCaster.cast( classAnnotations.getOrDefault( Key.serializable, true ) ) == false ) {
-					return super.representData( new Struct() );
-				}
+			// If there is a "toYaml" method in the class, then call it
+			// The user wants control over the serialization
+			if ( variablesScope.containsKey( KeyDictionary.toYaml ) ) {
+				return BoxLangRepresenter.this.representData(
+				    variablesScope.dereferenceAndInvoke( boxContext, KeyDictionary.toYaml, new Object[] { boxContext, this }, false )
+				);
+			}
 
-				// Seed the class annotations needed
-				Array classYamlExcludes = inflateArray( classAnnotations.getOrDefault( KeyDictionary.yamlExclude, "" ) );
-				// If there is a "toYaml" method in the class, then call it
-				// The user wants control over the serialization
-				if ( variablesScope.containsKey( KeyDictionary.toYaml ) ) {
-					return super.representData(
-					    variablesScope.dereferenceAndInvoke( boxContext, KeyDictionary.toYaml, new Object[] { boxContext, this }, false )
-					);
+			// Write the properties of the plan, null properties are written as an empty string
+			Key[]					properties		= plan.getProperties();
+			List<NodeTuple>			tuples			= new ArrayList<>( properties.length );
+			List<Node>				values			= new ArrayList<>( properties.length );
+			MappingNode				node			= new MappingNode( Tag.MAP, tuples, FlowStyle.AUTO );
+			visitedClasses.add( bxClass );
+			for ( Key property : properties ) {
+				if ( !variablesScope.containsKey( property ) ) {
+					continue;
 				}
-
-				// Filter the variables scope with the properties
-				IStruct	memento		= variablesScope.entrySet().stream()
-				    // Filter only the properties for the class
-				    .filter( entry -> properties.containsKey( entry.getKey() ) )
-				    // Filter out any properties that have the yamlEclude annotation
-				    .filter( entry -> {
-					    Property prop = properties.get( entry.getKey() );
-					    // Does the property name exist in the yamlExclude list?
-					    return !prop.annotations().containsKey( KeyDictionary.yamlExclude ) && classYamlExcludes.findIndex( prop.name(), false ) == 0;
-				    } )
-				    // Filter out any properties that have the serialiable = false annotation
-				    .filter( entry -> {
-					    Property prop = properties.get( entry.getKey() );
-					    return BooleanCaster.cast( prop.annotations().getOrDefault( Key.serializable, true ) );
-				    } )
-				    // If the property is null, then set it to an empty string
-				    .map( entry -> {
-					    if ( entry.getValue() == null ) {
-						    entry.setValue( "" );
-					    }
-					    return entry;
-				    } )
-				    // Collect to a struct object
-				    .collect(
-				        BLCollector.toStruct()
-				    );
-
-				// logger.debug( "BoxClassSerializer.writeValue: {}", memento.asString() );
-
-				// Iterate and output each name using the entry set
-				Node	nodeReturn	= super.representData( memento );
-
-				// Cleanup Recursion
-				visited.remove( bxClass );
-
-				return nodeReturn;
+				Object	value		= variablesScope.get( property );
+				Node	valueNode	= BoxLangRepresenter.this.representData( value == null ? "" : value );
+				values.add( valueNode );
+				tuples.add( new NodeTuple( representScalar( Tag.STR, property.getName() ), valueNode ) );
 			}
-			return super.representData( data );
+			node.setFlowStyle( bestFlowStyle( values ) );
+
+			// Cleanup Recursion
+			visitedClasses.remove( bxClass );
+
+			return node;
 		}
 	}
 
@@ -169,17 +277,17 @@ public class BoxLangRepresenter extends Representer {
 			if ( data instanceof DynamicObject castedDynamicObject ) {
 				// If the object is a BoxClass, then serialize it as a BoxClass
 				if ( castedDynamicObject.unWrap() instanceof IClassRunnable bxClass ) {
-					return super.representData( bxClass );
+					return BoxLangRepresenter.this.representData( bxClass );
 				}
 
 				// If it's a list, then serialize it as a list
 				if ( castedDynamicObject.unWrap() instanceof List<?> castedList ) {
-					return super.representData( castedList );
+					return BoxLangRepresenter.this.representData( castedList );
 				}
 
 				// If it's a map, then serialize it as a map
 				if ( castedDynamicObject.unWrap() instanceof Map<?, ?> castedMap ) {
-					return super.representData( castedMap );
+					return BoxLangRepresenter.this.representData( castedMap );
 				}
 
 				IStruct result = new Struct();
@@ -191,7 +299,7 @@ public class BoxLangRepresenter extends Representer {
 				        field.getName(),
 				        castedDynamicObject.getField( field.getName() ).orElse( "" ).toString()
 				    ) );
-				return super.representData( result );
+				return BoxLangRepresenter.this.representData( result );
 			}
 			return super.representData( data );
 		}
@@ -209,7 +317,7 @@ public class BoxLangRepresenter extends Representer {
 				IStruct result = Struct.of(
 				    "function", castedFunction.getBoxMeta().getMeta()
 				);
-				return super.representData( result );
+				return BoxLangRepresenter.this.representData( result );
 			}
 			return super.representData( data );
 		}
@@ -217,16 +325,39 @@ public class BoxLangRepresenter extends Representer {
 	}
 
 	/**
-	 * This class is used to represent a Query object as a yaml string
+	 * This class is used to represent a Query object straight from its row data, without building intermediate structs.
+	 * Depending on the query format it is either a sequence of row mappings, or a mapping of the {@code columns} and
+	 * the {@code data} rows as flow sequences.
 	 */
-	private class RepresentQuery extends RepresentString {
+	private class RepresentQuery implements Represent {
 
 		@Override
 		public Node representData( Object data ) {
-			if ( data instanceof Query castedQuery ) {
-				return super.representData( castedQuery.asArrayOfStructs() );
+			Query	query	= ( Query ) data;
+			Key[]	columns	= queryColumns( query );
+			int		size	= query.size();
+
+			if ( queryFormat == SerializeOptions.QueryFormat.COLUMNS ) {
+				List<Node>		rows	= new ArrayList<>( size );
+				List<NodeTuple>	tuples	= new ArrayList<>( 2 );
+				MappingNode		node	= new MappingNode( Tag.MAP, tuples, FlowStyle.BLOCK );
+				representedObjects.put( query, node );
+				for ( int i = 0; i < size; i++ ) {
+					rows.add( rowSequence( query.getRow( i ) ) );
+				}
+				tuples.add( new NodeTuple( representScalar( Tag.STR, COLUMNS_KEY ), representQueryColumns( columns ) ) );
+				tuples.add( new NodeTuple( representScalar( Tag.STR, DATA_KEY ), new SequenceNode( Tag.SEQ, rows, FlowStyle.BLOCK ) ) );
+				return node;
 			}
-			return super.representData( data );
+
+			List<Node>		rows	= new ArrayList<>( size );
+			SequenceNode	node	= new SequenceNode( Tag.SEQ, rows, FlowStyle.AUTO );
+			representedObjects.put( query, node );
+			for ( int i = 0; i < size; i++ ) {
+				rows.add( rowMapping( columns, query.getRow( i ) ) );
+			}
+			node.setFlowStyle( bestFlowStyle( rows ) );
+			return node;
 		}
 
 	}
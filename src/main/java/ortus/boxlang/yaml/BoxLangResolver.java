@@ -0,0 +1,59 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * A {@link Resolver} with a fast path for the scalars making up most documents: keys and plain words.
+ * <p>
+ * The implicit resolvers only ever match scalars starting with a digit, a sign, a dot or one of a few symbols, plus the
+ * booleans and nulls spelled out as words. A scalar starting with a letter is therefore either one of those words or a
+ * plain string, which is decided by a string switch instead of running the boolean and null regular expressions on
+ * every {@code name}, {@code note} or {@code type}. Everything else goes through the regular resolvers.
+ */
+public class BoxLangResolver extends Resolver {
+
+	@Override
+	public Tag resolve( NodeId kind, String value, boolean implicit ) {
+		if ( kind == NodeId.scalar && implicit && !value.isEmpty() && Character.isLetter( value.charAt( 0 ) ) ) {
+			return resolveWord( value );
+		}
+		return super.resolve( kind, value, implicit );
+	}
+
+	/**
+	 * Resolve a scalar starting with a letter, matching the {@link Resolver#BOOL} and {@link Resolver#NULL} patterns
+	 *
+	 * @param value The scalar value
+	 *
+	 * @return The boolean, null or string tag
+	 */
+	private static Tag resolveWord( String value ) {
+		if ( value.length() > 5 ) {
+			return Tag.STR;
+		}
+		return switch ( value ) {
+			case "yes", "Yes", "YES", "no", "No", "NO", "true", "True", "TRUE", "false", "False", "FALSE", "on", "On", "ON", "off", "Off", "OFF" -> Tag.BOOL;
+			case "null", "Null", "NULL" -> Tag.NULL;
+			default -> Tag.STR;
+		};
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import ortus.boxlang.runtime.BoxRuntime;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.interop.DynamicInteropService;
+import ortus.boxlang.runtime.interop.DynamicObject;
+import ortus.boxlang.runtime.loader.ClassLocator;
+import ortus.boxlang.runtime.runnables.IClassRunnable;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+
+/**
+ * Binds YAML mappings straight onto the properties of a BoxLang class, see {@link BoxLangConstructor}.
+ * <p>
+ * The class is looked up once per call. Every bound mapping creates a new instance without calling its
+ * {@code init()}, so property defaults apply, and its keys are written to the properties that the
+ * {@link ClassSerializationPlan} of the class would serialize. Other keys are skipped without being built.
+ */
+public class ClassBinding {
+
+	/**
+	 * The arguments that create an instance without calling its init()
+	 */
+	private static final Object[]	NO_INIT	= new Object[] { Key.noInit };
+
+	/**
+	 * The context the instances are created in
+	 */
+	private final IBoxContext		context;
+
+	/**
+	 * The name of the class, for error messages
+	 */
+	private final String			className;
+
+	/**
+	 * The generated Java class of the BoxLang class
+	 */
+	private final Class<?>			targetClass;
+
+	/**
+	 * The plan of the class, known once the first instance is created
+	 */
+	private ClassSerializationPlan	plan;
+
+	/**
+	 * Constructor
+	 *
+	 * @param context     The context the instances are created in
+	 * @param className   The name of the class
+	 * @param targetClass The generated Java class of the BoxLang class
+	 */
+	private ClassBinding( IBoxContext context, String className, Class<?> targetClass ) {
+		this.context		= context;
+		this.className		= className;
+		this.targetClass	= targetClass;
+	}
+
+	/**
+	 * Look up a BoxLang class by name, using the imports of the context
+	 *
+	 * @param context   The context of execution
+	 * @param className The name of the class, such as {@code models.Order}
+	 *
+	 * @return The binding
+	 */
+	public static ClassBinding of( IBoxContext context, String className ) {
+		DynamicObject boxClass = BoxRuntime.getInstance()
+		    .getClassLocator()
+		    .load( context, className, ClassLocator.BX_PREFIX, true, context.getCurrentImports() );
+		if ( !IClassRunnable.class.isAssignableFrom( boxClass.getTargetClass() ) ) {
+			throw new BoxRuntimeException( "Cannot bind yaml to [" + className + "], it is not a BoxLang class" );
+		}
+		return new ClassBinding( context, className, boxClass.getTargetClass() );
+	}
+
+	/**
+	 * Get the name of the bound class
+	 *
+	 * @return The class name
+	 */
+	public String getClassName() {
+		return this.className;
+	}
+
+	/**
+	 * Create a new instance of the class, without calling its init()
+	 *
+	 * @return The instance
+	 */
+	public IClassRunnable newInstance() {
+		IClassRunnable instance = ( IClassRunnable ) DynamicInteropService.invokeConstructor( this.context, this.targetClass, NO_INIT );
+		if ( this.plan == null ) {
+			this.plan = ClassSerializationPlan.of( instance );
+		}
+		return instance;
+	}
+
+	/**
+	 * Get the property a YAML key binds to
+	 *
+	 * @param name The YAML key
+	 *
+	 * @return The property name as declared, or null if the key is not bound
+	 */
+	public Key getProperty( Key name ) {
+		return this.plan.getProperty( name );
+	}
+
+}
@@ -0,0 +1,199 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ortus.boxlang.runtime.dynamic.casters.BooleanCaster;
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.runnables.IClassRunnable;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Property;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+/**
+ * The compiled serialization rules of a BoxLang class: whether it is serializable at all and which of its properties
+ * are written, in property order.
+ * <p>
+ * The rules only depend on the class and property annotations, so they are worked out once per class and cached
+ * against the generated Java class. Reloading a BoxLang class generates a new Java class, which gets a new plan, and
+ * the old plan goes away with the old class.
+ */
+public class ClassSerializationPlan {
+
+	/**
+	 * The plans, per generated class. A plan is compiled from the first instance that is serialized.
+	 */
+	private static final PlanCache	PLANS	= new PlanCache();
+
+	/**
+	 * Whether the class can be serialized
+	 */
+	private final boolean			serializable;
+
+	/**
+	 * The properties to write, in property order
+	 */
+	private final Key[]				properties;
+
+	/**
+	 * The properties to write, by name, for binding YAML keys back onto them
+	 */
+	private final Map<Key, Key>		byName;
+
+	/**
+	 * Constructor
+	 *
+	 * @param serializable Whether the class can be serialized
+	 * @param properties   The properties to write, in property order
+	 */
+	private ClassSerializationPlan( boolean serializable, Key[] properties ) {
+		this.serializable	= serializable;
+		this.properties		= properties;
+		this.byName			= new HashMap<>( properties.length * 2 );
+		for ( Key property : properties ) {
+			this.byName.put( property, property );
+		}
+	}
+
+	/**
+	 * Get the plan of the class of an instance, compiling it the first time the class is seen
+	 *
+	 * @param bxClass The class instance
+	 *
+	 * @return The serialization plan
+	 */
+	public static ClassSerializationPlan of( IClassRunnable bxClass ) {
+		AtomicReference<ClassSerializationPlan>	holder	= PLANS.get( bxClass.getClass() );
+		ClassSerializationPlan					plan	= holder.get();
+		if ( plan == null ) {
+			// Compiling twice on a race is harmless, both plans are the same
+			plan = compile( bxClass );
+			holder.set( plan );
+		}
+		return plan;
+	}
+
+	/**
+	 * Whether the class can be serialized. If not, it is written as an empty mapping.
+	 *
+	 * @return True if the class can be serialized
+	 */
+	public boolean isSerializable() {
+		return this.serializable;
+	}
+
+	/**
+	 * Get the properties to write, in property order
+	 *
+	 * @return The property names
+	 */
+	public Key[] getProperties() {
+		return this.properties;
+	}
+
+	/**
+	 * Get a property to write by name. Names are matched case-insensitively.
+	 *
+	 * @param name The name to look up
+	 *
+	 * @return The property name as declared, or null if the class does not write such a property
+	 */
+	public Key getProperty( Key name ) {
+		return this.byName.get( name );
+	}
+
+	/**
+	 * Work out the serialization rules of a class from its annotations. A property is written unless it has a
+	 * {@code yamlExclude} annotation, is listed in the {@code yamlExclude} annotation of the class or one of its parents,
+	 * or has a {@code serializable = false} annotation.
+	 *
+	 * @param bxClass A class instance
+	 *
+	 * @return The serialization plan
+	 */
+	private static ClassSerializationPlan compile( IClassRunnable bxClass ) {
+		IStruct classAnnotations = bxClass.getAnnotations();
+		if ( !BooleanCaster.cast( classAnnotations.getOrDefault( Key.serializable, true ) ) ) {
+			return new ClassSerializationPlan( false, new Key[ 0 ] );
+		}
+
+		Set<Key> excludes = new HashSet<>();
+		for ( IClassRunnable current = bxClass; current != null; current = current.getSuper() ) {
+			for ( Object name : inflateArray( current.getAnnotations().getOrDefault( KeyDictionary.yamlExclude, "" ) ) ) {
+				excludes.add( Key.of( StringCaster.cast( name ) ) );
+			}
+		}
+
+		List<Key> properties = new ArrayList<>();
+		for ( Map.Entry<Key, Property> entry : bxClass.getProperties().entrySet() ) {
+			IStruct annotations = entry.getValue().annotations();
+			if ( annotations.containsKey( KeyDictionary.yamlExclude )
+			    || excludes.contains( entry.getValue().name() )
+			    || !BooleanCaster.cast( annotations.getOrDefault( Key.serializable, true ) ) ) {
+				continue;
+			}
+			properties.add( entry.getKey() );
+		}
+		return new ClassSerializationPlan( true, properties.toArray( new Key[ 0 ] ) );
+	}
+
+	/**
+	 * Inflate an annotation value into an Array
+	 *
+	 * @param value The value to inflate
+	 *
+	 * @return The inflated array
+	 */
+	private static Array inflateArray( Object value ) {
+		// If the value is already an array, then cast it
+		if ( value instanceof Array castedArray ) {
+			return castedArray;
+		}
+
+		// Split the string by comma and trim the values, skipping empty entries
+		Array result = new Array();
+		for ( String name : StringCaster.cast( value ).split( "," ) ) {
+			if ( !name.isBlank() ) {
+				result.add( name.trim() );
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Holds the plan of each generated class
+	 */
+	private static class PlanCache extends ClassValue<AtomicReference<ClassSerializationPlan>> {
+
+		@Override
+		protected AtomicReference<ClassSerializationPlan> computeValue( Class<?> type ) {
+			return new AtomicReference<>();
+		}
+
+	}
+
+}
@@ -0,0 +1,404 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.Map;
+import java.util.Objects;
+
+import ortus.boxlang.runtime.dynamic.casters.BooleanCaster;
+import ortus.boxlang.runtime.dynamic.casters.IntegerCaster;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+/**
+ * The options of a deserialization call: the limits a document must stay within, and how aliases are resolved.
+ * <p>
+ * The limits guard against hostile input such as "billion laughs" documents, where a handful of nested aliases
+ * expands into billions of values. The defaults come from the {@code limits}, {@code sharedAliases} and
+ * {@code rawTimestamps} module settings and can be overridden per call.
+ */
+public class DeserializeOptions {
+
+	/**
+	 * The default max number of aliases to collections in a document
+	 */
+	public static final int	DEFAULT_MAX_ALIASES		= 50;
+
+	/**
+	 * The default max nesting depth of collections
+	 */
+	public static final int	DEFAULT_MAX_DEPTH		= 50;
+
+	/**
+	 * The default max number of values constructed from a document
+	 */
+	public static final int	DEFAULT_MAX_VALUES		= 5_000_000;
+
+	/**
+	 * The default max size of a document, in code points
+	 */
+	public static final int	DEFAULT_MAX_INPUT_SIZE	= 3 * 1024 * 1024;
+
+	/**
+	 * The max number of aliases to collections in a document
+	 */
+	private int				maxAliases				= DEFAULT_MAX_ALIASES;
+
+	/**
+	 * The max nesting depth of collections
+	 */
+	private int				maxDepth				= DEFAULT_MAX_DEPTH;
+
+	/**
+	 * The max number of values (scalars, structs and arrays) constructed from a document, counting every alias
+	 */
+	private int				maxValues				= DEFAULT_MAX_VALUES;
+
+	/**
+	 * The max size of a document, in code points
+	 */
+	private int				maxInputSize			= DEFAULT_MAX_INPUT_SIZE;
+
+	/**
+	 * Whether every alias of an anchored collection resolves to the same read-only value instead of its own copy
+	 */
+	private boolean			sharedAliases			= false;
+
+	/**
+	 * Whether timestamps are kept as their raw strings instead of being parsed into date times
+	 */
+	private boolean			rawTimestamps			= false;
+
+	/**
+	 * Whether structs are built lazily, each value on first access
+	 */
+	private boolean			lazy					= false;
+
+	/**
+	 * The class the document is bound to, or null to build structs and arrays
+	 */
+	private ClassBinding	binding					= null;
+
+	/**
+	 * Build the options from the module settings
+	 *
+	 * @param settings The module settings
+	 *
+	 * @return The options
+	 */
+	public static DeserializeOptions fromSettings( IStruct settings ) {
+		DeserializeOptions options = new DeserializeOptions();
+		if ( settings.get( KeyDictionary.limits ) instanceof IStruct limits ) {
+			options.applyLimits( limits );
+		}
+		Object sharedAliases = settings.get( KeyDictionary.sharedAliases );
+		if ( sharedAliases != null ) {
+			options.setSharedAliases( BooleanCaster.cast( sharedAliases ) );
+		}
+		Object rawTimestamps = settings.get( KeyDictionary.rawTimestamps );
+		if ( rawTimestamps != null ) {
+			options.setRawTimestamps( BooleanCaster.cast( rawTimestamps ) );
+		}
+		return options;
+	}
+
+	/**
+	 * Get these options with per-call overrides applied. The options themselves are never modified.
+	 *
+	 * @param limits        The limits to override, or null
+	 * @param sharedAliases Whether aliases are shared, or null to keep the current value
+	 * @param lazy          Whether structs are built lazily, or null to keep the current value
+	 *
+	 * @return These options if there is nothing to override, otherwise a modified copy
+	 */
+	public DeserializeOptions with( IStruct limits, Boolean sharedAliases, Boolean lazy ) {
+		if ( ( limits == null || limits.isEmpty() ) && sharedAliases == null && lazy == null ) {
+			return this;
+		}
+		DeserializeOptions options = copy();
+		if ( limits != null ) {
+			options.applyLimits( limits );
+		}
+		if ( sharedAliases != null ) {
+			options.setSharedAliases( sharedAliases );
+		}
+		if ( lazy != null ) {
+			options.setLazy( lazy );
+		}
+		return options;
+	}
+
+	/**
+	 * Copy these options
+	 *
+	 * @return A new options instance with the same values
+	 */
+	public DeserializeOptions copy() {
+		return new DeserializeOptions()
+		    .setMaxAliases( this.maxAliases )
+		    .setMaxDepth( this.maxDepth )
+		    .setMaxValues( this.maxValues )
+		    .setMaxInputSize( this.maxInputSize )
+		    .setSharedAliases( this.sharedAliases )
+		    .setRawTimestamps( this.rawTimestamps )
+		    .setLazy( this.lazy )
+		    .setBinding( this.binding );
+	}
+
+	/**
+	 * Apply a struct of limits: {@code maxAliases}, {@code maxDepth}, {@code maxValues} and {@code maxInputSize}
+	 *
+	 * @param limits The limits to apply
+	 */
+	private void applyLimits( IStruct limits ) {
+		for ( Map.Entry<Key, Object> entry : limits.entrySet() ) {
+			Key		name	= entry.getKey();
+			int		value	= IntegerCaster.cast( entry.getValue() );
+			if ( name.equals( KeyDictionary.maxAliases ) ) {
+				setMaxAliases( value );
+			} else if ( name.equals( KeyDictionary.maxDepth ) ) {
+				setMaxDepth( value );
+			} else if ( name.equals( KeyDictionary.maxValues ) ) {
+				setMaxValues( value );
+			} else if ( name.equals( KeyDictionary.maxInputSize ) ) {
+				setMaxInputSize( value );
+			} else {
+				throw new BoxRuntimeException(
+				    "Invalid YAML limit [" + name.getName() + "], valid limits are: maxAliases, maxDepth, maxValues, maxInputSize"
+				);
+			}
+		}
+	}
+
+	/**
+	 * Get the max number of aliases to collections in a document
+	 *
+	 * @return The max aliases
+	 */
+	public int getMaxAliases() {
+		return this.maxAliases;
+	}
+
+	/**
+	 * Set the max number of aliases to collections in a document
+	 *
+	 * @param maxAliases The max aliases, which must not be negative
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setMaxAliases( int maxAliases ) {
+		if ( maxAliases < 0 ) {
+			throw new BoxRuntimeException( "The max aliases must not be negative but was [" + maxAliases + "]" );
+		}
+		this.maxAliases = maxAliases;
+		return this;
+	}
+
+	/**
+	 * Get the max nesting depth of collections
+	 *
+	 * @return The max depth
+	 */
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	/**
+	 * Set the max nesting depth of collections
+	 *
+	 * @param maxDepth The max depth, which must be positive
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setMaxDepth( int maxDepth ) {
+		if ( maxDepth < 1 ) {
+			throw new BoxRuntimeException( "The max depth must be greater than zero but was [" + maxDepth + "]" );
+		}
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+	/**
+	 * Get the max number of values constructed from a document
+	 *
+	 * @return The max values
+	 */
+	public int getMaxValues() {
+		return this.maxValues;
+	}
+
+	/**
+	 * Set the max number of values (scalars, structs and arrays) constructed from a document. Every alias counts
+	 * the values it expands to, unless aliases are shared.
+	 *
+	 * @param maxValues The max values, which must be positive
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setMaxValues( int maxValues ) {
+		if ( maxValues < 1 ) {
+			throw new BoxRuntimeException( "The max values must be greater than zero but was [" + maxValues + "]" );
+		}
+		this.maxValues = maxValues;
+		return this;
+	}
+
+	/**
+	 * Get the max size of a document, in code points
+	 *
+	 * @return The max input size
+	 */
+	public int getMaxInputSize() {
+		return this.maxInputSize;
+	}
+
+	/**
+	 * Set the max size of a document, in code points
+	 *
+	 * @param maxInputSize The max input size, which must be positive
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setMaxInputSize( int maxInputSize ) {
+		if ( maxInputSize < 1 ) {
+			throw new BoxRuntimeException( "The max input size must be greater than zero but was [" + maxInputSize + "]" );
+		}
+		this.maxInputSize = maxInputSize;
+		return this;
+	}
+
+	/**
+	 * Whether every alias of an anchored collection resolves to the same read-only value. Otherwise every alias
+	 * gets its own copy that can be freely modified.
+	 *
+	 * @return True if aliases are shared
+	 */
+	public boolean isSharedAliases() {
+		return this.sharedAliases;
+	}
+
+	/**
+	 * Set whether every alias of an anchored collection resolves to the same read-only value
+	 *
+	 * @param sharedAliases True to share aliased values
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setSharedAliases( boolean sharedAliases ) {
+		this.sharedAliases = sharedAliases;
+		return this;
+	}
+
+	/**
+	 * Whether timestamps are kept as their raw strings instead of being parsed into date times
+	 *
+	 * @return True to keep raw strings
+	 */
+	public boolean isRawTimestamps() {
+		return this.rawTimestamps;
+	}
+
+	/**
+	 * Set whether timestamps are kept as their raw strings instead of being parsed into date times
+	 *
+	 * @param rawTimestamps True to keep raw strings
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setRawTimestamps( boolean rawTimestamps ) {
+		this.rawTimestamps = rawTimestamps;
+		return this;
+	}
+
+	/**
+	 * Whether structs are built lazily: their values are kept as parsed nodes and built on first access. Aliases are
+	 * then always built as copies, whatever {@link #isSharedAliases()} says.
+	 *
+	 * @return True for lazy structs
+	 */
+	public boolean isLazy() {
+		return this.lazy;
+	}
+
+	/**
+	 * Set whether structs are built lazily
+	 *
+	 * @param lazy True for lazy structs
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setLazy( boolean lazy ) {
+		this.lazy = lazy;
+		return this;
+	}
+
+	/**
+	 * Get the class the document is bound to. A root mapping is bound to one instance, and every mapping of a root
+	 * sequence to an instance each, see {@link ClassBinding}.
+	 *
+	 * @return The binding, or null to build structs and arrays
+	 */
+	public ClassBinding getBinding() {
+		return this.binding;
+	}
+
+	/**
+	 * Set the class the document is bound to. Bound documents are never built lazily.
+	 *
+	 * @param binding The binding, or null to build structs and arrays
+	 *
+	 * @return This options instance
+	 */
+	public DeserializeOptions setBinding( ClassBinding binding ) {
+		this.binding = binding;
+		return this;
+	}
+
+	/**
+	 * Whether other options have the same values
+	 *
+	 * @param obj The other options
+	 *
+	 * @return True if every value is the same
+	 */
+	@Override
+	public boolean equals( Object obj ) {
+		return obj instanceof DeserializeOptions other
+		    && this.maxAliases == other.maxAliases
+		    && this.maxDepth == other.maxDepth
+		    && this.maxValues == other.maxValues
+		    && this.maxInputSize == other.maxInputSize
+		    && this.sharedAliases == other.sharedAliases
+		    && this.rawTimestamps == other.rawTimestamps
+		    && this.lazy == other.lazy
+		    && Objects.equals( this.binding, other.binding );
+	}
+
+	/**
+	 * Get a hash code consistent with {@link #equals(Object)}
+	 *
+	 * @return The hash code
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash( this.maxAliases, this.maxDepth, this.maxValues, this.maxInputSize, this.sharedAliases, this.rawTimestamps, this.lazy, this.binding );
+	}
+
+}
@@ -0,0 +1,228 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.yaml.util.YamlKeyInterner;
+import ortus.boxlang.yaml.util.YamlTimestampParser;
+
+/**
+ * Builds a composed YAML document into BoxLang values lazily, see {@link LazyStruct}.
+ * <p>
+ * Mappings become lazy structs whose keys are read right away and whose values are built on first access. Sequences
+ * are built right away, with their mappings as lazy structs. Plain strings, nulls and timestamps are built straight
+ * from the nodes. Every other scalar, and every tagged collection, is built by a {@link BoxLangConstructor} borrowed
+ * from the pool only for that value and configured with the options of the document, as the value may be read long
+ * after the deserialization call returned.
+ * <p>
+ * Aliases are built as independent copies, except recursive ones which resolve to the same instance. The
+ * {@code maxValues} limit counts every value built, whenever it is built.
+ */
+public class LazyDocument {
+
+	/**
+	 * The pool to borrow constructors from
+	 */
+	private final YamlEnginePool		pool;
+
+	/**
+	 * The options of the deserialization call, applied to every constructor borrowed to build a value
+	 */
+	private final DeserializeOptions	options;
+
+	/**
+	 * Whether duplicate mapping keys are allowed
+	 */
+	private final boolean				allowDuplicateKeys;
+
+	/**
+	 * The values of recursive nodes, so a node referencing itself resolves to the same instance
+	 */
+	private final Map<Node, Object>		recursiveValues	= Collections.synchronizedMap( new IdentityHashMap<>() );
+
+	/**
+	 * The number of values built so far
+	 */
+	private int							valueCount		= 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param pool               The pool to borrow constructors from
+	 * @param options            The options of the deserialization call
+	 * @param allowDuplicateKeys Whether duplicate mapping keys are allowed
+	 */
+	public LazyDocument( YamlEnginePool pool, DeserializeOptions options, boolean allowDuplicateKeys ) {
+		this.pool				= pool;
+		this.options			= options;
+		this.allowDuplicateKeys	= allowDuplicateKeys;
+	}
+
+	/**
+	 * Build a node into its BoxLang value
+	 *
+	 * @param node The node, or null for an empty document
+	 *
+	 * @return The BoxLang value
+	 */
+	public Object construct( Node node ) {
+		if ( node == null ) {
+			return null;
+		}
+		count();
+
+		if ( node.isTwoStepsConstruction() ) {
+			Object value = this.recursiveValues.get( node );
+			if ( value == null ) {
+				value = constructValue( node );
+				this.recursiveValues.put( node, value );
+			}
+			return value;
+		}
+		return constructValue( node );
+	}
+
+	/**
+	 * Build a node, lazily for plain mappings and sequences
+	 *
+	 * @param node The node
+	 *
+	 * @return The BoxLang value
+	 */
+	private Object constructValue( Node node ) {
+		if ( node instanceof MappingNode mapping && node.getTag().equals( Tag.MAP ) ) {
+			return constructStruct( mapping );
+		}
+		if ( node instanceof SequenceNode sequence && node.getTag().equals( Tag.SEQ ) ) {
+			// Recursive sequences are registered before their items are built
+			List<Node>	items	= sequence.getValue();
+			Array		array	= new Array( items.size() );
+			if ( node.isTwoStepsConstruction() ) {
+				this.recursiveValues.put( node, array );
+			}
+			for ( Node item : items ) {
+				array.add( construct( item ) );
+			}
+			return array;
+		}
+		if ( node.getTag().equals( Tag.STR ) && node instanceof ScalarNode scalar ) {
+			return scalar.getValue();
+		}
+		if ( node.getTag().equals( Tag.NULL ) ) {
+			return null;
+		}
+		if ( node.getTag().equals( Tag.TIMESTAMP ) && node instanceof ScalarNode scalar ) {
+			return this.options.isRawTimestamps() ? scalar.getValue() : YamlTimestampParser.parse( scalar.getValue() );
+		}
+		return this.pool.execute( engine -> engine.configure( this.options ).constructor().constructNode( node ) );
+	}
+
+	/**
+	 * Build a lazy struct from a mapping. Explicit keys take precedence over the ones pulled in by merge keys.
+	 *
+	 * @param mapping The mapping node
+	 *
+	 * @return The lazy struct
+	 */
+	private LazyStruct constructStruct( MappingNode mapping ) {
+		LazyStruct struct = new LazyStruct();
+		addEntries( mapping, struct, false );
+		return struct;
+	}
+
+	/**
+	 * Add the entries of a mapping to a lazy struct
+	 *
+	 * @param mapping The mapping node
+	 * @param struct  The struct to populate
+	 * @param merged  Whether the mapping is pulled in by a merge key, in which case existing keys are kept
+	 */
+	private void addEntries( MappingNode mapping, LazyStruct struct, boolean merged ) {
+		for ( NodeTuple tuple : mapping.getValue() ) {
+			Node keyNode = tuple.getKeyNode();
+			if ( keyNode.getTag().equals( Tag.MERGE ) ) {
+				continue;
+			}
+			Key key = YamlKeyInterner.intern( String.valueOf( constructValue( keyNode ) ) );
+			if ( struct.containsKey( key ) ) {
+				if ( merged ) {
+					continue;
+				}
+				if ( !this.allowDuplicateKeys ) {
+					throw new YAMLException( "found duplicate key " + key.getName() + keyNode.getStartMark() );
+				}
+			}
+			addValue( struct, key, tuple.getValueNode() );
+		}
+
+		for ( NodeTuple tuple : mapping.getValue() ) {
+			if ( tuple.getKeyNode().getTag().equals( Tag.MERGE ) ) {
+				Node value = tuple.getValueNode();
+				if ( value instanceof MappingNode mergedMapping ) {
+					addEntries( mergedMapping, struct, true );
+				} else if ( value instanceof SequenceNode sequence ) {
+					for ( Node item : sequence.getValue() ) {
+						if ( item instanceof MappingNode mergedMapping ) {
+							addEntries( mergedMapping, struct, true );
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add a value to a lazy struct, deferring everything but plain strings and nulls
+	 *
+	 * @param struct The struct
+	 * @param key    The key
+	 * @param node   The value node
+	 */
+	private void addValue( LazyStruct struct, Key key, Node node ) {
+		Tag tag = node.getTag();
+		if ( node instanceof ScalarNode && ( tag.equals( Tag.STR ) || tag.equals( Tag.NULL ) ) ) {
+			struct.put( key, construct( node ) );
+		} else {
+			struct.putLazy( key, new LazyStruct.LazyValue( this, node ) );
+		}
+	}
+
+	/**
+	 * Count a built value, enforcing the max
+	 */
+	private synchronized void count() {
+		if ( ++this.valueCount > this.options.getMaxValues() ) {
+			throw new YAMLException( "The document expands to more than the max of [" + this.options.getMaxValues() + "] values" );
+		}
+	}
+
+}
@@ -0,0 +1,170 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.yaml.snakeyaml.nodes.Node;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IType;
+import ortus.boxlang.runtime.types.Struct;
+
+/**
+ * A struct deserialized in lazy mode. Its values are kept as their SnakeYAML {@link Node}s and only built into BoxLang
+ * values the first time they are read, so callers reading a few keys out of a large document only pay for those.
+ * <p>
+ * Nested mappings become lazy structs in turn. Once built, a value is kept, so every read returns the same instance
+ * and changes made to it stick. Operations that need every value, such as comparing, hashing or printing the struct,
+ * build all of them first.
+ */
+public class LazyStruct extends Struct {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * A value that is built on first access
+	 */
+	static final class LazyValue {
+
+		/**
+		 * The document the node belongs to
+		 */
+		private final LazyDocument	document;
+
+		/**
+		 * The node to build, cleared once built
+		 */
+		private Node				node;
+
+		/**
+		 * The built value
+		 */
+		private Object				value;
+
+		/**
+		 * Constructor
+		 *
+		 * @param document The document the node belongs to
+		 * @param node     The node to build
+		 */
+		LazyValue( LazyDocument document, Node node ) {
+			this.document	= document;
+			this.node		= node;
+		}
+
+		/**
+		 * Get the value, building it on first access
+		 *
+		 * @return The BoxLang value
+		 */
+		synchronized Object get() {
+			if ( this.node != null ) {
+				this.value	= this.document.construct( this.node );
+				this.node	= null;
+			}
+			return this.value;
+		}
+	}
+
+	/**
+	 * Constructor
+	 */
+	public LazyStruct() {
+		super();
+	}
+
+	/**
+	 * Add a value that is built on first access
+	 *
+	 * @param key   The key
+	 * @param value The lazy value
+	 */
+	void putLazy( Key key, LazyValue value ) {
+		this.wrapped.put( key, value );
+	}
+
+	/**
+	 * Build every value that has not been read yet
+	 */
+	public void materialize() {
+		for ( Map.Entry<Key, Object> entry : this.wrapped.entrySet() ) {
+			if ( entry.getValue() instanceof LazyValue lazy ) {
+				entry.setValue( wrapNull( lazy.get() ) );
+			}
+		}
+	}
+
+	@Override
+	protected Object unWrapNullInternal( Object value ) {
+		if ( value instanceof LazyValue lazy ) {
+			return lazy.get();
+		}
+		return super.unWrapNullInternal( value );
+	}
+
+	@Override
+	public Object getRaw( Key key ) {
+		Object value = super.getRaw( key );
+		if ( value instanceof LazyValue lazy ) {
+			return wrapNull( lazy.get() );
+		}
+		return value;
+	}
+
+	@Override
+	public boolean containsValue( Object value ) {
+		materialize();
+		return super.containsValue( value );
+	}
+
+	@Override
+	public Map<? extends Object, Object> getWrapped() {
+		materialize();
+		return super.getWrapped();
+	}
+
+	@Override
+	public boolean equals( Object obj ) {
+		materialize();
+		return super.equals( obj );
+	}
+
+	@Override
+	public int computeHashCode( Set<IType> visited ) {
+		materialize();
+		return super.computeHashCode( visited );
+	}
+
+	@Override
+	public String asString() {
+		materialize();
+		return super.asString();
+	}
+
+	/**
+	 * Serialize as a plain struct, as the pending nodes are not serializable
+	 *
+	 * @return A struct with every value built
+	 */
+	private Object writeReplace() {
+		return new Struct( getType(), getWrapped() );
+	}
+
+}
@@ -0,0 +1,146 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+
+/**
+ * The options of a single serialization call.
+ */
+public class SerializeOptions {
+
+	/**
+	 * How queries are written
+	 */
+	public enum QueryFormat {
+
+		/**
+		 * A sequence of mappings, one per row, keyed by column name
+		 */
+		ROWS,
+
+		/**
+		 * A mapping with the list of {@code columns} and the {@code data} rows as flow sequences
+		 */
+		COLUMNS;
+
+		/**
+		 * Get a query format from its name
+		 *
+		 * @param name The format name, case insensitive
+		 *
+		 * @return The query format
+		 */
+		public static QueryFormat of( String name ) {
+			for ( QueryFormat format : values() ) {
+				if ( format.name().equalsIgnoreCase( name ) ) {
+					return format;
+				}
+			}
+			throw new BoxRuntimeException( "Invalid query format [" + name + "], valid formats are: rows, columns" );
+		}
+	}
+
+	/**
+	 * The default max nesting depth of a serialized value
+	 */
+	public static final int		DEFAULT_MAX_DEPTH	= 1000;
+
+	/**
+	 * How queries are written
+	 */
+	private QueryFormat			queryFormat			= QueryFormat.ROWS;
+
+	/**
+	 * Whether values referenced more than once are written once with an anchor and then as aliases
+	 */
+	private boolean				anchors				= true;
+
+	/**
+	 * The max nesting depth of collections and classes
+	 */
+	private int					maxDepth			= DEFAULT_MAX_DEPTH;
+
+	/**
+	 * Get how queries are written
+	 *
+	 * @return The query format
+	 */
+	public QueryFormat getQueryFormat() {
+		return this.queryFormat;
+	}
+
+	/**
+	 * Set how queries are written
+	 *
+	 * @param queryFormat The query format
+	 *
+	 * @return This options instance
+	 */
+	public SerializeOptions setQueryFormat( QueryFormat queryFormat ) {
+		this.queryFormat = queryFormat;
+		return this;
+	}
+
+	/**
+	 * Whether values referenced more than once are written once with an anchor and then as aliases. Without anchors,
+	 * shared values are written again in full and a recursive reference is an error.
+	 *
+	 * @return True if anchors are written
+	 */
+	public boolean isAnchors() {
+		return this.anchors;
+	}
+
+	/**
+	 * Set whether values referenced more than once are written once with an anchor and then as aliases
+	 *
+	 * @param anchors True to write anchors
+	 *
+	 * @return This options instance
+	 */
+	public SerializeOptions setAnchors( boolean anchors ) {
+		this.anchors = anchors;
+		return this;
+	}
+
+	/**
+	 * Get the max nesting depth of collections and classes
+	 *
+	 * @return The max depth
+	 */
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	/**
+	 * Set the max nesting depth of collections and classes
+	 *
+	 * @param maxDepth The max depth, which must be positive
+	 *
+	 * @return This options instance
+	 */
+	public SerializeOptions setMaxDepth( int maxDepth ) {
+		if ( maxDepth < 1 ) {
+			throw new BoxRuntimeException( "The max depth must be greater than zero but was [" + maxDepth + "]" );
+		}
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+}
@@ -0,0 +1,197 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+/**
+ * A bounded, least recently used cache of deserialized YAML values.
+ * <p>
+ * Every entry carries a stamp describing the source it was parsed from (a file's modification time and size, the
+ * content itself, ...). A lookup only hits if the stamp still matches, so stale entries are never returned. The cache
+ * is bounded both by its number of entries and by the total weight of the entries, usually the size of their source.
+ * <p>
+ * Values are stored as is: callers are responsible for never handing out the cached instance itself.
+ *
+ * @param <K> The type of the cache keys
+ */
+public class YamlCache<K> {
+
+	/**
+	 * A cached value
+	 *
+	 * @param stamp  The stamp of the source the value was parsed from
+	 * @param value  The deserialized value
+	 * @param weight The weight of the entry
+	 */
+	private record Entry( Object stamp, Object value, long weight ) {
+	}
+
+	/**
+	 * The entries, in access order
+	 */
+	private final LinkedHashMap<K, Entry>		entries		= new LinkedHashMap<>( 16, 0.75f, true );
+
+	/**
+	 * The max number of entries
+	 */
+	private final int							maxEntries;
+
+	/**
+	 * The max total weight of the entries
+	 */
+	private final long							maxWeight;
+
+	/**
+	 * The current total weight of the entries
+	 */
+	private long								weight		= 0;
+
+	/**
+	 * The number of lookups that found a fresh entry
+	 */
+	private final LongAdder						hits		= new LongAdder();
+
+	/**
+	 * The number of lookups that found no entry or a stale one
+	 */
+	private final LongAdder						misses		= new LongAdder();
+
+	/**
+	 * The number of entries evicted to honor the bounds
+	 */
+	private final LongAdder						evictions	= new LongAdder();
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxEntries The max number of entries
+	 * @param maxWeight  The max total weight of the entries
+	 */
+	public YamlCache( int maxEntries, long maxWeight ) {
+		this.maxEntries	= maxEntries;
+		this.maxWeight	= maxWeight;
+	}
+
+	/**
+	 * Get a cached value if its stamp still matches
+	 *
+	 * @param key   The cache key
+	 * @param stamp The current stamp of the source
+	 *
+	 * @return The cached value, or null if there is no fresh entry
+	 */
+	public Object get( K key, Object stamp ) {
+		Entry entry;
+		synchronized ( this ) {
+			entry = this.entries.get( key );
+		}
+		if ( entry != null && entry.stamp().equals( stamp ) ) {
+			this.hits.increment();
+			return entry.value();
+		}
+		this.misses.increment();
+		return null;
+	}
+
+	/**
+	 * Get a cached value whatever its stamp, so a stale value can serve as the starting point of a new one. The lookup
+	 * is not counted in the statistics.
+	 *
+	 * @param key The cache key
+	 *
+	 * @return The cached value, fresh or stale, or null if there is no entry
+	 */
+	public Object peek( K key ) {
+		Entry entry;
+		synchronized ( this ) {
+			entry = this.entries.get( key );
+		}
+		return entry == null ? null : entry.value();
+	}
+
+	/**
+	 * Cache a value, evicting the least recently used entries as needed. Values heavier than the whole cache are not cached.
+	 *
+	 * @param key    The cache key
+	 * @param stamp  The stamp of the source the value was parsed from
+	 * @param value  The deserialized value
+	 * @param weight The weight of the entry
+	 */
+	public void put( K key, Object stamp, Object value, long weight ) {
+		if ( weight > this.maxWeight || this.maxEntries <= 0 ) {
+			return;
+		}
+		synchronized ( this ) {
+			Entry previous = this.entries.put( key, new Entry( stamp, value, weight ) );
+			if ( previous != null ) {
+				this.weight -= previous.weight();
+			}
+			this.weight += weight;
+
+			Iterator<Entry> eldest = this.entries.values().iterator();
+			while ( this.entries.size() > this.maxEntries || this.weight > this.maxWeight ) {
+				this.weight -= eldest.next().weight();
+				eldest.remove();
+				this.evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Remove all the entries. The counters are kept.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.weight = 0;
+	}
+
+	/**
+	 * Get the cache statistics
+	 *
+	 * @return A struct with the hits, misses, hit rate, evictions, size, weight and bounds of the cache
+	 */
+	public IStruct getStats() {
+		int		size;
+		long	currentWeight;
+		synchronized ( this ) {
+			size			= this.entries.size();
+			currentWeight	= this.weight;
+		}
+		long	hitCount	= this.hits.sum();
+		long	missCount	= this.misses.sum();
+		return Struct.of(
+		    KeyDictionary.hits, hitCount,
+		    KeyDictionary.misses, missCount,
+		    KeyDictionary.hitRate, hitCount + missCount == 0 ? 0.0 : ( double ) hitCount / ( hitCount + missCount ),
+		    KeyDictionary.evictions, this.evictions.sum(),
+		    Key.size, size,
+		    KeyDictionary.weight, currentWeight,
+		    KeyDictionary.maxEntries, this.maxEntries,
+		    KeyDictionary.maxWeight, this.maxWeight
+		);
+	}
+
+}
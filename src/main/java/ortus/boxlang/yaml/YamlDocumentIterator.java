@@ -0,0 +1,149 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+
+/**
+ * A lazy iterator over the documents of a YAML stream ({@code ---} separated documents).
+ * <p>
+ * Each call to {@link #next()} parses and constructs exactly one document, so only one document tree is ever held in
+ * memory. The iterator owns a borrowed {@link YamlEngine} and the underlying reader: both are released as soon as the
+ * stream is exhausted, and {@link #close()} must be called when iteration is abandoned early.
+ */
+public class YamlDocumentIterator implements Iterator<Object>, AutoCloseable {
+
+	/**
+	 * The pool the engine was borrowed from
+	 */
+	private final YamlEnginePool	pool;
+
+	/**
+	 * The engine exclusively used by this iterator
+	 */
+	private final YamlEngine		engine;
+
+	/**
+	 * The YAML source
+	 */
+	private final Reader			reader;
+
+	/**
+	 * SnakeYAML's lazy document iterator
+	 */
+	private final Iterator<Object>	documents;
+
+	/**
+	 * Whether the engine and reader have been released
+	 */
+	private boolean					closed	= false;
+
+	/**
+	 * Constructor
+	 *
+	 * @param pool    The pool to borrow the engine from
+	 * @param reader  The YAML source, which will be closed by this iterator
+	 * @param options The limits and alias handling applied to every document
+	 */
+	public YamlDocumentIterator( YamlEnginePool pool, Reader reader, DeserializeOptions options ) {
+		this.pool		= pool;
+		this.engine		= pool.borrow().configure( options );
+		this.reader		= reader;
+		this.documents	= this.engine.yaml().loadAll( reader ).iterator();
+	}
+
+	/**
+	 * Check if there is another document, releasing all resources once the stream is exhausted
+	 *
+	 * @return True if another document is available
+	 */
+	@Override
+	public boolean hasNext() {
+		if ( this.closed ) {
+			return false;
+		}
+		try {
+			if ( this.documents.hasNext() ) {
+				return true;
+			}
+		} catch ( RuntimeException e ) {
+			discard();
+			throw e;
+		}
+		close();
+		return false;
+	}
+
+	/**
+	 * Parse and construct the next document
+	 *
+	 * @return The deserialized BoxLang object
+	 */
+	@Override
+	public Object next() {
+		if ( !hasNext() ) {
+			throw new NoSuchElementException( "There are no more YAML documents in the stream" );
+		}
+		try {
+			return this.documents.next();
+		} catch ( RuntimeException e ) {
+			discard();
+			throw e;
+		}
+	}
+
+	/**
+	 * Close the reader and return the engine to the pool
+	 */
+	@Override
+	public void close() {
+		if ( this.closed ) {
+			return;
+		}
+		this.closed = true;
+		this.pool.release( this.engine );
+		closeReader();
+	}
+
+	/**
+	 * Close the reader after a failure. The engine may hold partial state, so it is not returned to the pool.
+	 */
+	private void discard() {
+		if ( !this.closed ) {
+			this.closed = true;
+			closeReader();
+		}
+	}
+
+	/**
+	 * Close the underlying reader
+	 */
+	private void closeReader() {
+		try {
+			this.reader.close();
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error closing yaml reader", e );
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a YAML stream into its documents without parsing it, so the documents can be parsed independently.
+ * <p>
+ * A document starts at a {@code ---} marker and ends at a {@code ...} marker or at the next {@code ---}. Markers only
+ * count at the start of a line, followed by a space, a tab or the end of the line. YAML forbids such lines inside any
+ * scalar, block scalars included, so they always are document boundaries. Comments, blank lines and directives before
+ * a {@code ---} stay with the document they precede.
+ * <p>
+ * Anchors never reach across documents, so every piece can be parsed on its own and yields the same values as
+ * parsing the whole stream.
+ */
+public final class YamlDocumentSplitter {
+
+	private YamlDocumentSplitter() {
+	}
+
+	/**
+	 * Split a YAML stream into its documents
+	 *
+	 * @param yaml The YAML stream
+	 *
+	 * @return The source of every document, in order
+	 */
+	public static List<String> split( String yaml ) {
+		List<String>	documents	= new ArrayList<>();
+		int				start		= 0;
+		int				line		= 0;
+		// Whether the current piece holds more than comments, blank lines and directives
+		boolean			content		= false;
+
+		while ( line < yaml.length() ) {
+			int	end		= yaml.indexOf( '\n', line );
+			int	next	= end < 0 ? yaml.length() : end + 1;
+
+			if ( isMarker( yaml, line, '-' ) ) {
+				if ( content ) {
+					documents.add( yaml.substring( start, line ) );
+					start = line;
+				}
+				content = true;
+			} else if ( isMarker( yaml, line, '.' ) ) {
+				if ( content ) {
+					documents.add( yaml.substring( start, next ) );
+				}
+				start	= next;
+				content	= false;
+			} else if ( !content && !isBlankCommentOrDirective( yaml, line, next ) ) {
+				content = true;
+			}
+			line = next;
+		}
+
+		if ( content ) {
+			documents.add( yaml.substring( start ) );
+		}
+		return documents;
+	}
+
+	/**
+	 * Whether a line is a {@code ---} or {@code ...} document marker
+	 *
+	 * @param yaml   The YAML stream
+	 * @param line   The start of the line
+	 * @param marker The marker character
+	 *
+	 * @return True if the line starts with the marker
+	 */
+	private static boolean isMarker( String yaml, int line, char marker ) {
+		if ( !yaml.startsWith( marker == '-' ? "---" : "...", line ) ) {
+			return false;
+		}
+		if ( line + 3 == yaml.length() ) {
+			return true;
+		}
+		char next = yaml.charAt( line + 3 );
+		return next == ' ' || next == '\t' || next == '\r' || next == '\n';
+	}
+
+	/**
+	 * Whether a line holds no document content
+	 *
+	 * @param yaml The YAML stream
+	 * @param line The start of the line
+	 * @param next The start of the next line
+	 *
+	 * @return True for blank lines, comments and directives
+	 */
+	private static boolean isBlankCommentOrDirective( String yaml, int line, int next ) {
+		if ( line < next && yaml.charAt( line ) == '%' ) {
+			return true;
+		}
+		for ( int i = line; i < next; i++ ) {
+			char c = yaml.charAt( i );
+			if ( c == '#' ) {
+				return true;
+			}
+			if ( c != ' ' && c != '\t' && c != '\r' && c != '\n' && c != '\uFEFF' ) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * A fully wired SnakeYAML engine: the {@link Yaml} facade plus the BoxLang constructor and representer it drives.
+ * <p>
+ * SnakeYAML keeps per-call mutable state in all of these objects, so an engine must only ever be used by one thread
+ * at a time. Engines are handed out and recycled by the {@link YamlEnginePool}.
+ */
+public class YamlEngine {
+
+	/**
+	 * The SnakeYAML facade
+	 */
+	private final Yaml					yaml;
+
+	/**
+	 * The constructor used to build BoxLang objects from YAML nodes
+	 */
+	private final BoxLangConstructor	constructor;
+
+	/**
+	 * The representer used to build YAML nodes from BoxLang objects
+	 */
+	private final BoxLangRepresenter	representer;
+
+	/**
+	 * The resolver used to detect implicit scalar types
+	 */
+	private final Resolver				resolver;
+
+	/**
+	 * The loader options shared by the parser and constructor
+	 */
+	private final LoaderOptions			loaderOptions;
+
+	/**
+	 * The dumper options shared by the representer and emitter
+	 */
+	private final DumperOptions			dumperOptions;
+
+	/**
+	 * The dumper options for compact output, writing flow collections on a single line
+	 */
+	private final DumperOptions			compactDumperOptions;
+
+	/**
+	 * Constructor
+	 */
+	public YamlEngine() {
+		this.dumperOptions			= newDumperOptions( true );
+		this.compactDumperOptions	= newDumperOptions( false );
+
+		this.representer = new BoxLangRepresenter( this.dumperOptions );
+		this.representer.getPropertyUtils().setSkipMissingProperties( true );
+
+		this.loaderOptions = new LoaderOptions();
+		this.loaderOptions.setAllowDuplicateKeys( false );
+		this.loaderOptions.setAllowRecursiveKeys( false );
+		this.loaderOptions.setEnumCaseSensitive( false );
+
+		this.resolver		= new BoxLangResolver();
+		this.constructor	= new BoxLangConstructor( Object.class, this.loaderOptions );
+		this.yaml			= new Yaml(
+		    this.constructor,
+		    this.representer,
+		    this.dumperOptions,
+		    this.loaderOptions,
+		    this.resolver
+		);
+	}
+
+	/**
+	 * Build the dumper options
+	 *
+	 * @param prettyFlow Whether flow collections are written over multiple lines
+	 *
+	 * @return The dumper options
+	 */
+	private static DumperOptions newDumperOptions( boolean prettyFlow ) {
+		DumperOptions options = new DumperOptions();
+		options.setDefaultFlowStyle( DumperOptions.FlowStyle.BLOCK );
+		options.setPrettyFlow( prettyFlow );
+		return options;
+	}
+
+	/**
+	 * Apply the limits and alias handling of a deserialization call. Engines are pooled, so this must be called every
+	 * time an engine is borrowed to deserialize.
+	 *
+	 * @param options The deserialization options
+	 *
+	 * @return This engine
+	 */
+	public YamlEngine configure( DeserializeOptions options ) {
+		this.loaderOptions.setMaxAliasesForCollections( options.getMaxAliases() );
+		this.loaderOptions.setNestingDepthLimit( options.getMaxDepth() );
+		this.loaderOptions.setCodePointLimit( options.getMaxInputSize() );
+		this.constructor.setOptions( options );
+		return this;
+	}
+
+	/**
+	 * Get the SnakeYAML facade
+	 *
+	 * @return The Yaml instance
+	 */
+	public Yaml yaml() {
+		return this.yaml;
+	}
+
+	/**
+	 * Get the BoxLang constructor
+	 *
+	 * @return The constructor instance
+	 */
+	public BoxLangConstructor constructor() {
+		return this.constructor;
+	}
+
+	/**
+	 * Get the BoxLang representer
+	 *
+	 * @return The representer instance
+	 */
+	public BoxLangRepresenter representer() {
+		return this.representer;
+	}
+
+	/**
+	 * Get the implicit type resolver
+	 *
+	 * @return The resolver instance
+	 */
+	public Resolver resolver() {
+		return this.resolver;
+	}
+
+	/**
+	 * Get loader options for streaming reads. They carry the same limits as {@link #loaderOptions()} except for the
+	 * code point limit, as streamed documents are never held in memory as a whole.
+	 *
+	 * @return New loader options for streaming
+	 */
+	public LoaderOptions streamingLoaderOptions() {
+		LoaderOptions options = new LoaderOptions();
+		options.setAllowDuplicateKeys( this.loaderOptions.isAllowDuplicateKeys() );
+		options.setAllowRecursiveKeys( this.loaderOptions.getAllowRecursiveKeys() );
+		options.setEnumCaseSensitive( this.loaderOptions.isEnumCaseSensitive() );
+		options.setMaxAliasesForCollections( this.loaderOptions.getMaxAliasesForCollections() );
+		options.setNestingDepthLimit( this.loaderOptions.getNestingDepthLimit() );
+		options.setCodePointLimit( Integer.MAX_VALUE );
+		return options;
+	}
+
+	/**
+	 * Get the loader options
+	 *
+	 * @return The loader options
+	 */
+	public LoaderOptions loaderOptions() {
+		return this.loaderOptions;
+	}
+
+	/**
+	 * Get the dumper options
+	 *
+	 * @return The dumper options
+	 */
+	public DumperOptions dumperOptions() {
+		return this.dumperOptions;
+	}
+
+	/**
+	 * Get the dumper options for compact output, where flow collections are written on a single line
+	 *
+	 * @return The compact dumper options
+	 */
+	public DumperOptions compactDumperOptions() {
+		return this.compactDumperOptions;
+	}
+
+}
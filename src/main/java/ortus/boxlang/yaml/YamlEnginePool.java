@@ -0,0 +1,119 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, lock-free pool of {@link YamlEngine} instances.
+ * <p>
+ * Callers never block: if no idle engine is available a new one is created, and on release only up to
+ * {@code maxIdle} engines are retained. The pool keeps no thread affinity, so it behaves the same on platform
+ * and virtual threads.
+ * <p>
+ * An engine is only returned to the pool when the work completes normally. SnakeYAML does not always clean up its
+ * internal state when an exception is thrown mid-call, so failed engines are simply discarded.
+ */
+public class YamlEnginePool {
+
+	/**
+	 * The idle engines ready to be borrowed
+	 */
+	private final Queue<YamlEngine>		idle		= new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The number of idle engines, tracked separately as {@link ConcurrentLinkedQueue#size()} is O(n)
+	 */
+	private final AtomicInteger			idleCount	= new AtomicInteger( 0 );
+
+	/**
+	 * The max number of idle engines to retain
+	 */
+	private final int					maxIdle;
+
+	/**
+	 * The factory used to create new engines
+	 */
+	private final Supplier<YamlEngine>	factory;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxIdle The max number of idle engines to retain
+	 * @param factory The factory used to create new engines
+	 */
+	public YamlEnginePool( int maxIdle, Supplier<YamlEngine> factory ) {
+		this.maxIdle	= maxIdle;
+		this.factory	= factory;
+	}
+
+	/**
+	 * Borrow an engine from the pool, creating one if none are idle.
+	 *
+	 * @return An engine for the exclusive use of the caller
+	 */
+	public YamlEngine borrow() {
+		YamlEngine engine = this.idle.poll();
+		if ( engine == null ) {
+			return this.factory.get();
+		}
+		this.idleCount.decrementAndGet();
+		return engine;
+	}
+
+	/**
+	 * Return a healthy engine to the pool. If the pool is full the engine is discarded.
+	 *
+	 * @param engine The engine to return
+	 */
+	public void release( YamlEngine engine ) {
+		if ( this.idleCount.incrementAndGet() <= this.maxIdle ) {
+			this.idle.offer( engine );
+		} else {
+			this.idleCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Run some work with a borrowed engine. The engine is only returned to the pool if the work completes normally.
+	 *
+	 * @param work The work to execute
+	 *
+	 * @return The result of the work
+	 */
+	public <T> T execute( Function<YamlEngine, T> work ) {
+		YamlEngine	engine	= borrow();
+		T			result	= work.apply( engine );
+		release( engine );
+		return result;
+	}
+
+	/**
+	 * Get the number of idle engines in the pool
+	 *
+	 * @return The idle engine count
+	 */
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+
+}
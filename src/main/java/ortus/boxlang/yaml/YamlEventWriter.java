@@ -0,0 +1,683 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.DumperOptions.FlowStyle;
+import org.yaml.snakeyaml.DumperOptions.NonPrintableStyle;
+import org.yaml.snakeyaml.DumperOptions.ScalarStyle;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.AnchorNode;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import ortus.boxlang.runtime.BoxRuntime;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.runnables.IClassRunnable;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.scopes.VariablesScope;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.types.Query;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+/**
+ * Writes BoxLang values as a YAML stream straight to a {@link Writer} through SnakeYAML's {@link Emitter}.
+ * <p>
+ * This replaces {@code Yaml.dump()}, which represents a whole document as a node graph, serializes the graph and only
+ * then emits it. Structs, arrays, queries, classes, strings, numbers, booleans, dates and keys are walked once and
+ * turned straight into emitter events, following the same rules as the {@link BoxLangRepresenter} and SnakeYAML's
+ * serializer: scalar tags and styles, implicit tags, anchors and aliases for shared collections, and the document
+ * markers of the dumper options. No node is built for them, so memory use does not grow with the size of the document.
+ * <p>
+ * Any other value, such as a function or a Java object, is represented by the {@link BoxLangRepresenter} and its node
+ * graph is written in its place.
+ * <p>
+ * A writer is the context of a single serialization call: it tracks the shared and recursive values of the current
+ * document by identity, never through their own {@code equals()} or {@code hashCode()}, and enforces the max depth of
+ * the {@link SerializeOptions}. It uses the representer of its engine, so it must only be used while the engine is
+ * borrowed.
+ */
+public class YamlEventWriter {
+
+	/**
+	 * The line breaks that make a string be written in the literal style, as SnakeYAML does
+	 */
+	private static final Pattern		MULTILINE_PATTERN	= Pattern.compile( "\n|\u0085|\u2028|\u2029" );
+
+	/**
+	 * The representer building nodes for BoxLang values
+	 */
+	private final BoxLangRepresenter	representer;
+
+	/**
+	 * The resolver used to detect implicit tags
+	 */
+	private final Resolver				resolver;
+
+	/**
+	 * The dumper options
+	 */
+	private final DumperOptions			options;
+
+	/**
+	 * The emitter writing the events
+	 */
+	private final Emitter				emitter;
+
+	/**
+	 * The serialization options
+	 */
+	private final SerializeOptions		serializeOptions;
+
+	/**
+	 * Whether values can be written without a node graph. The flow style of collections is only known upfront when
+	 * the dumper options do not pick it automatically from their contents.
+	 */
+	private final boolean				direct;
+
+	/**
+	 * The anchors of the collections referenced more than once in the current document
+	 */
+	private final Map<Object, String>	valueAnchors		= new IdentityHashMap<>();
+
+	/**
+	 * The anchored collections of the current document that were already written
+	 */
+	private final Set<Object>			writtenValues		= Collections.newSetFromMap( new IdentityHashMap<>() );
+
+	/**
+	 * The collections and classes being written, used to detect recursive references when anchors are disabled
+	 */
+	private final Set<Object>			ancestors			= Collections.newSetFromMap( new IdentityHashMap<>() );
+
+	/**
+	 * The nesting depth of the value being written
+	 */
+	private int							depth				= 0;
+
+	/**
+	 * The anchors of the nodes of the current node graph, null for nodes seen only once
+	 */
+	private final Map<Node, String>		anchors				= new IdentityHashMap<>();
+
+	/**
+	 * The nodes of the current node graph that were already written
+	 */
+	private final Set<Node>				serializedNodes		= Collections.newSetFromMap( new IdentityHashMap<>() );
+
+	/**
+	 * Constructor
+	 *
+	 * @param engine           The borrowed engine
+	 * @param writer           The destination
+	 * @param serializeOptions The serialization options
+	 */
+	public YamlEventWriter( YamlEngine engine, Writer writer, SerializeOptions serializeOptions ) {
+		this.representer		= engine.representer();
+		this.resolver			= engine.resolver();
+		// The columns query format relies on single line flow sequences for its rows
+		this.options			= serializeOptions.getQueryFormat() == SerializeOptions.QueryFormat.COLUMNS
+		    ? engine.compactDumperOptions()
+		    : engine.dumperOptions();
+		this.emitter			= new Emitter( writer, this.options );
+		this.serializeOptions	= serializeOptions;
+		this.direct				= this.options.getDefaultFlowStyle() != FlowStyle.AUTO;
+		this.representer.setQueryFormat( serializeOptions.getQueryFormat() );
+	}
+
+	/**
+	 * Start the stream
+	 *
+	 * @throws IOException If writing fails
+	 */
+	public void open() throws IOException {
+		this.emitter.emit( new StreamStartEvent( null, null ) );
+	}
+
+	/**
+	 * End the stream and flush the remaining output
+	 *
+	 * @throws IOException If writing fails
+	 */
+	public void close() throws IOException {
+		this.emitter.emit( new StreamEndEvent( null, null ) );
+	}
+
+	/**
+	 * Write a value as one document of the stream
+	 *
+	 * @param value The value to write
+	 *
+	 * @throws IOException If writing fails
+	 */
+	public void writeDocument( Object value ) throws IOException {
+		startDocument();
+		if ( this.direct ) {
+			if ( this.serializeOptions.isAnchors() ) {
+				findSharedValues( value, Collections.newSetFromMap( new IdentityHashMap<>() ) );
+			}
+			writeValue( value );
+			this.valueAnchors.clear();
+			this.writtenValues.clear();
+		} else {
+			writeNode( this.representer.represent( value ) );
+		}
+		endDocument();
+	}
+
+	/**
+	 * Start a document whose content is written event by event, such as a transcoded JSON value
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void startDocument() throws IOException {
+		this.emitter.emit( new DocumentStartEvent( null, null, this.options.isExplicitStart(), this.options.getVersion(), this.options.getTags() ) );
+	}
+
+	/**
+	 * End a document started with {@link #startDocument()}
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void endDocument() throws IOException {
+		this.emitter.emit( new DocumentEndEvent( null, null, this.options.isExplicitEnd() ) );
+	}
+
+	/**
+	 * Start a mapping whose entries are written event by event
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void startMapping() throws IOException {
+		this.emitter.emit( new MappingStartEvent( null, Tag.MAP.getValue(), true, null, null, this.options.getDefaultFlowStyle() ) );
+	}
+
+	/**
+	 * End a mapping started with {@link #startMapping()}
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void endMapping() throws IOException {
+		this.emitter.emit( new MappingEndEvent( null, null ) );
+	}
+
+	/**
+	 * Start a sequence whose items are written event by event
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void startSequence() throws IOException {
+		this.emitter.emit( new SequenceStartEvent( null, Tag.SEQ.getValue(), true, null, null, this.options.getDefaultFlowStyle() ) );
+	}
+
+	/**
+	 * End a sequence started with {@link #startSequence()}
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void endSequence() throws IOException {
+		this.emitter.emit( new SequenceEndEvent( null, null ) );
+	}
+
+	/**
+	 * Write a scalar of the given tag in the default scalar style, such as the raw text of a transcoded JSON number
+	 *
+	 * @param tag   The tag
+	 * @param value The scalar value
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void writeScalar( Tag tag, String value ) throws IOException {
+		writeScalar( tag, value, this.representer.getDefaultScalarStyle() );
+	}
+
+	/**
+	 * Find the collections and classes referenced more than once in a value and give them an anchor, in the same order
+	 * SnakeYAML's serializer would. Only collections and classes are tracked, so this is a cheap walk that builds
+	 * nothing. Classes with a {@code toYaml()} method are left out, as what they write is only known once it is called.
+	 *
+	 * @param value The value to visit
+	 * @param seen  The collections visited so far
+	 */
+	private void findSharedValues( Object value, Set<Object> seen ) {
+		if ( ! ( value instanceof Map || value instanceof List || value instanceof Query ) ) {
+			return;
+		}
+		if ( value instanceof IClassRunnable bxClass && bxClass.getVariablesScope().containsKey( KeyDictionary.toYaml ) ) {
+			return;
+		}
+		if ( !seen.add( value ) ) {
+			// The anchor generator only looks at the node for an explicit anchor, which values never have
+			this.valueAnchors.computeIfAbsent( value, shared -> this.options.getAnchorGenerator().nextAnchor( new SequenceNode( Tag.SEQ, List.of(), FlowStyle.AUTO ) ) );
+			return;
+		}
+		if ( value instanceof IClassRunnable bxClass ) {
+			ClassSerializationPlan	plan			= ClassSerializationPlan.of( bxClass );
+			VariablesScope			variablesScope	= bxClass.getVariablesScope();
+			for ( Key property : plan.isSerializable() ? plan.getProperties() : new Key[ 0 ] ) {
+				findSharedValues( variablesScope.get( property ), seen );
+			}
+		} else if ( value instanceof Map<?, ?> map ) {
+			for ( Map.Entry<?, ?> entry : map.entrySet() ) {
+				findSharedValues( entry.getKey(), seen );
+				findSharedValues( entry.getValue(), seen );
+			}
+		} else if ( value instanceof List<?> list ) {
+			for ( Object item : list ) {
+				findSharedValues( item, seen );
+			}
+		}
+	}
+
+	/**
+	 * Write a value, and all of its children, straight to the emitter
+	 *
+	 * @param value The value to write
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeValue( Object value ) throws IOException {
+		if ( value == null ) {
+			writeScalar( Tag.NULL, "null", this.representer.getDefaultScalarStyle() );
+		} else if ( value instanceof String || value instanceof Character ) {
+			writeString( value.toString() );
+		} else if ( value.getClass() == Key.class ) {
+			writeString( ( ( Key ) value ).getName() );
+		} else if ( value.getClass() == DateTime.class ) {
+			writeString( ( ( DateTime ) value ).toISOString() );
+		} else if ( value instanceof Boolean bool ) {
+			writeScalar( Tag.BOOL, bool ? "true" : "false", this.representer.getDefaultScalarStyle() );
+		} else if ( value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long
+		    || value instanceof BigInteger ) {
+			writeScalar( Tag.INT, value.toString(), this.representer.getDefaultScalarStyle() );
+		} else if ( value instanceof Number number ) {
+			writeScalar( Tag.FLOAT, floatValue( number ), this.representer.getDefaultScalarStyle() );
+		} else if ( value instanceof IClassRunnable bxClass ) {
+			// Classes are structs too, but are written by their properties
+			writeClass( bxClass );
+		} else if ( value instanceof Map<?, ?> map ) {
+			writeMap( map );
+		} else if ( value instanceof List<?> list ) {
+			writeList( list );
+		} else if ( value instanceof Query query ) {
+			writeQuery( query );
+		} else {
+			writeNode( this.representer.represent( value ) );
+		}
+	}
+
+	/**
+	 * Format a floating point number the way SnakeYAML does
+	 *
+	 * @param number The number
+	 *
+	 * @return The scalar value
+	 */
+	private static String floatValue( Number number ) {
+		if ( number.equals( Double.NaN ) ) {
+			return ".NaN";
+		}
+		if ( number.equals( Double.POSITIVE_INFINITY ) ) {
+			return ".inf";
+		}
+		if ( number.equals( Double.NEGATIVE_INFINITY ) ) {
+			return "-.inf";
+		}
+		return number.toString();
+	}
+
+	/**
+	 * Write a string scalar. Multiline strings use the literal style, and strings that cannot be written as YAML text
+	 * are handed to the representer, which encodes them as binary.
+	 *
+	 * @param value The string
+	 *
+	 * @throws IOException If writing fails
+	 */
+	void writeString( String value ) throws IOException {
+		if ( this.options.getNonPrintableStyle() == NonPrintableStyle.BINARY && !StreamReader.isPrintable( value ) ) {
+			writeNode( this.representer.represent( value ) );
+			return;
+		}
+		ScalarStyle style = this.representer.getDefaultScalarStyle();
+		if ( style == ScalarStyle.PLAIN && MULTILINE_PATTERN.matcher( value ).find() ) {
+			style = ScalarStyle.LITERAL;
+		}
+		writeScalar( Tag.STR, value, style );
+	}
+
+	/**
+	 * Write a scalar, leaving out its tag whenever the resolver would detect it on its own
+	 *
+	 * @param tag   The tag
+	 * @param value The scalar value
+	 * @param style The scalar style
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeScalar( Tag tag, String value, ScalarStyle style ) throws IOException {
+		ImplicitTuple implicit = new ImplicitTuple(
+		    tag.equals( this.resolver.resolve( NodeId.scalar, value, true ) ),
+		    tag.equals( this.resolver.resolve( NodeId.scalar, value, false ) )
+		);
+		this.emitter.emit( new ScalarEvent( null, tag.getValue(), implicit, value, null, null, style ) );
+	}
+
+	/**
+	 * Write an alias if the collection is shared and was already written
+	 *
+	 * @param value The collection
+	 *
+	 * @return True if an alias was written in place of the collection
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private boolean writeAlias( Object value ) throws IOException {
+		String anchor = this.valueAnchors.get( value );
+		if ( anchor == null || this.writtenValues.add( value ) ) {
+			return false;
+		}
+		this.emitter.emit( new AliasEvent( anchor, null, null ) );
+		return true;
+	}
+
+	/**
+	 * Write a struct or any other map as a mapping
+	 *
+	 * @param map The map
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeMap( Map<?, ?> map ) throws IOException {
+		if ( writeAlias( map ) ) {
+			return;
+		}
+		enter( map );
+		this.emitter.emit( new MappingStartEvent( this.valueAnchors.get( map ), Tag.MAP.getValue(), true, null, null, this.options.getDefaultFlowStyle() ) );
+		for ( Map.Entry<?, ?> entry : map.entrySet() ) {
+			writeValue( entry.getKey() );
+			writeValue( entry.getValue() );
+		}
+		this.emitter.emit( new MappingEndEvent( null, null ) );
+		exit( map );
+	}
+
+	/**
+	 * Write an array or any other list as a sequence
+	 *
+	 * @param list The list
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeList( List<?> list ) throws IOException {
+		if ( writeAlias( list ) ) {
+			return;
+		}
+		enter( list );
+		this.emitter.emit( new SequenceStartEvent( this.valueAnchors.get( list ), Tag.SEQ.getValue(), true, null, null, this.options.getDefaultFlowStyle() ) );
+		for ( Object item : list ) {
+			writeValue( item );
+		}
+		this.emitter.emit( new SequenceEndEvent( null, null ) );
+		exit( list );
+	}
+
+	/**
+	 * Write a query row by row in the configured query format: a sequence of row mappings, or a mapping of the
+	 * {@code columns} and the {@code data} rows as flow sequences.
+	 *
+	 * @param query The query
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeQuery( Query query ) throws IOException {
+		if ( writeAlias( query ) ) {
+			return;
+		}
+		String		anchor	= this.valueAnchors.get( query );
+		Key[]		columns	= BoxLangRepresenter.queryColumns( query );
+		int			size	= query.size();
+		ScalarStyle	style	= this.representer.getDefaultScalarStyle();
+
+		enter( query );
+		if ( this.serializeOptions.getQueryFormat() == SerializeOptions.QueryFormat.COLUMNS ) {
+			this.emitter.emit( new MappingStartEvent( anchor, Tag.MAP.getValue(), true, null, null, FlowStyle.BLOCK ) );
+			writeScalar( Tag.STR, BoxLangRepresenter.COLUMNS_KEY, style );
+			this.emitter.emit( new SequenceStartEvent( null, Tag.SEQ.getValue(), true, null, null, FlowStyle.FLOW ) );
+			for ( Key column : columns ) {
+				writeScalar( Tag.STR, column.getName(), style );
+			}
+			this.emitter.emit( new SequenceEndEvent( null, null ) );
+			writeScalar( Tag.STR, BoxLangRepresenter.DATA_KEY, style );
+			this.emitter.emit( new SequenceStartEvent( null, Tag.SEQ.getValue(), true, null, null, FlowStyle.BLOCK ) );
+			for ( int i = 0; i < size; i++ ) {
+				this.emitter.emit( new SequenceStartEvent( null, Tag.SEQ.getValue(), true, null, null, FlowStyle.FLOW ) );
+				for ( Object value : query.getRow( i ) ) {
+					writeValue( value );
+				}
+				this.emitter.emit( new SequenceEndEvent( null, null ) );
+			}
+			this.emitter.emit( new SequenceEndEvent( null, null ) );
+			this.emitter.emit( new MappingEndEvent( null, null ) );
+			exit( query );
+			return;
+		}
+
+		this.emitter.emit( new SequenceStartEvent( anchor, Tag.SEQ.getValue(), true, null, null, this.options.getDefaultFlowStyle() ) );
+		for ( int i = 0; i < size; i++ ) {
+			Object[] row = query.getRow( i );
+			this.emitter.emit( new MappingStartEvent( null, Tag.MAP.getValue(), true, null, null, this.options.getDefaultFlowStyle() ) );
+			for ( int c = 0; c < columns.length; c++ ) {
+				writeScalar( Tag.STR, columns[ c ].getName(), style );
+				writeValue( row[ c ] );
+			}
+			this.emitter.emit( new MappingEndEvent( null, null ) );
+		}
+		this.emitter.emit( new SequenceEndEvent( null, null ) );
+		exit( query );
+	}
+
+	/**
+	 * Write a class as a mapping of the properties of its {@link ClassSerializationPlan}, or as whatever its
+	 * {@code toYaml()} method returns. Classes that are not serializable are written as an empty mapping, and
+	 * {@code null} properties as an empty string.
+	 *
+	 * @param bxClass The class instance
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeClass( IClassRunnable bxClass ) throws IOException {
+		if ( writeAlias( bxClass ) ) {
+			return;
+		}
+		ClassSerializationPlan	plan			= ClassSerializationPlan.of( bxClass );
+		VariablesScope			variablesScope	= bxClass.getVariablesScope();
+
+		enter( bxClass );
+		if ( plan.isSerializable() && variablesScope.containsKey( KeyDictionary.toYaml ) ) {
+			// The user wants control over the serialization
+			// It gets the same arguments as it always did: the context and the class representer
+			IBoxContext	boxContext	= BoxRuntime.getInstance().getRuntimeContext();
+			Object[]	arguments	= new Object[] { boxContext, this.representer.getClassRepresent() };
+			writeValue( variablesScope.dereferenceAndInvoke( boxContext, KeyDictionary.toYaml, arguments, false ) );
+			exit( bxClass );
+			return;
+		}
+
+		this.emitter.emit( new MappingStartEvent( this.valueAnchors.get( bxClass ), Tag.MAP.getValue(), true, null, null, this.options.getDefaultFlowStyle() ) );
+		if ( plan.isSerializable() ) {
+			ScalarStyle style = this.representer.getDefaultScalarStyle();
+			for ( Key property : plan.getProperties() ) {
+				if ( !variablesScope.containsKey( property ) ) {
+					continue;
+				}
+				Object value = variablesScope.get( property );
+				writeScalar( Tag.STR, property.getName(), style );
+				writeValue( value == null ? "" : value );
+			}
+		}
+		this.emitter.emit( new MappingEndEvent( null, null ) );
+		exit( bxClass );
+	}
+
+	/**
+	 * Step into a collection or class, enforcing the max depth and, without anchors, refusing recursive references
+	 *
+	 * @param value The collection or class
+	 */
+	private void enter( Object value ) {
+		if ( ++this.depth > this.serializeOptions.getMaxDepth() ) {
+			throw new BoxRuntimeException( "Cannot serialize a value nested deeper than the max depth of [" + this.serializeOptions.getMaxDepth() + "]" );
+		}
+		if ( !this.serializeOptions.isAnchors() && !this.ancestors.add( value ) ) {
+			throw new BoxRuntimeException(
+			    "Cannot serialize a recursive reference to a [" + value.getClass().getSimpleName() + "] without anchors, enable anchors to write it as an alias"
+			);
+		}
+	}
+
+	/**
+	 * Step out of a collection or class
+	 *
+	 * @param value The collection or class
+	 */
+	private void exit( Object value ) {
+		this.depth--;
+		this.ancestors.remove( value );
+	}
+
+	/**
+	 * Write a complete node graph, then forget it
+	 *
+	 * @param node The root node of the graph
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeNode( Node node ) throws IOException {
+		anchorNode( node );
+		serializeNode( node );
+		this.anchors.clear();
+		this.serializedNodes.clear();
+	}
+
+	/**
+	 * Unwrap the placeholder the representer uses for objects it is still representing
+	 *
+	 * @param node The node
+	 *
+	 * @return The real node
+	 */
+	private static Node realNode( Node node ) {
+		return node instanceof AnchorNode anchor ? anchor.getRealNode() : node;
+	}
+
+	/**
+	 * Find the nodes referenced more than once and give them an anchor
+	 *
+	 * @param node The node to visit
+	 */
+	private void anchorNode( Node node ) {
+		node = realNode( node );
+		if ( this.anchors.containsKey( node ) ) {
+			if ( this.anchors.get( node ) == null ) {
+				this.anchors.put( node, this.options.getAnchorGenerator().nextAnchor( node ) );
+			}
+			return;
+		}
+		this.anchors.put( node, node.getAnchor() != null ? this.options.getAnchorGenerator().nextAnchor( node ) : null );
+		if ( node instanceof SequenceNode sequence ) {
+			for ( Node item : sequence.getValue() ) {
+				anchorNode( item );
+			}
+		} else if ( node instanceof MappingNode mapping ) {
+			for ( NodeTuple tuple : mapping.getValue() ) {
+				anchorNode( tuple.getKeyNode() );
+				anchorNode( tuple.getValueNode() );
+			}
+		}
+	}
+
+	/**
+	 * Write a node and its children, or an alias if it was already written
+	 *
+	 * @param node The node to write
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void serializeNode( Node node ) throws IOException {
+		node = realNode( node );
+		String anchor = this.anchors.get( node );
+		if ( !this.serializedNodes.add( node ) ) {
+			this.emitter.emit( new AliasEvent( anchor, null, null ) );
+			return;
+		}
+
+		if ( node instanceof ScalarNode scalar ) {
+			Tag				detectedTag	= this.resolver.resolve( NodeId.scalar, scalar.getValue(), true );
+			Tag				defaultTag	= this.resolver.resolve( NodeId.scalar, scalar.getValue(), false );
+			ImplicitTuple	implicit	= new ImplicitTuple( node.getTag().equals( detectedTag ), node.getTag().equals( defaultTag ) );
+			this.emitter.emit( new ScalarEvent( anchor, node.getTag().getValue(), implicit, scalar.getValue(), null, null, scalar.getScalarStyle() ) );
+		} else if ( node instanceof SequenceNode sequence ) {
+			boolean implicit = node.getTag().equals( this.resolver.resolve( NodeId.sequence, null, true ) );
+			this.emitter.emit( new SequenceStartEvent( anchor, node.getTag().getValue(), implicit, null, null, sequence.getFlowStyle() ) );
+			for ( Node item : sequence.getValue() ) {
+				serializeNode( item );
+			}
+			this.emitter.emit( new SequenceEndEvent( null, null ) );
+		} else {
+			MappingNode	mapping		= ( MappingNode ) node;
+			boolean		implicit	= node.getTag().equals( this.resolver.resolve( NodeId.mapping, null, true ) );
+			this.emitter.emit( new MappingStartEvent( anchor, node.getTag().getValue(), implicit, null, null, mapping.getFlowStyle() ) );
+			for ( NodeTuple tuple : mapping.getValue() ) {
+				serializeNode( tuple.getKeyNode() );
+				serializeNode( tuple.getValueNode() );
+			}
+			this.emitter.emit( new MappingEndEvent( null, null ) );
+		}
+	}
+
+}
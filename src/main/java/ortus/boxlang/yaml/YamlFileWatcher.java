@@ -0,0 +1,416 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ortus.boxlang.runtime.BoxRuntime;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+/**
+ * Keeps watched YAML files parsed in memory and reloads them when they change on disk.
+ * <p>
+ * Every watched file is parsed once when it is registered, and its directory is registered with an NIO
+ * {@link WatchService}. A single background virtual thread waits for file system events, and a file is parsed again
+ * once no further event arrived for it during the debounce delay, so an editor saving in several writes only triggers
+ * one parse. The new value atomically replaces the previous one, and the {@code onYamlFileChange} interception point
+ * is announced with it. Reading a watched file is a map lookup, without any I/O.
+ * <p>
+ * Values are read-only, as they are shared by every reader. A file that fails to parse keeps its previous value.
+ * <p>
+ * The watcher is started and stopped with the module, and starts on its own the first time a file is watched.
+ */
+public class YamlFileWatcher {
+
+	/**
+	 * The default debounce delay, in milliseconds
+	 */
+	public static final long				DEFAULT_DEBOUNCE	= 200;
+
+	/**
+	 * The parser the files are parsed with
+	 */
+	private final YamlParser				parser;
+
+	/**
+	 * The watched files, by absolute path
+	 */
+	private final Map<Path, WatchedFile>	files				= new ConcurrentHashMap<>();
+
+	/**
+	 * The registrations of the directories of the watched files
+	 */
+	private final Map<Path, WatchKey>		directories			= new ConcurrentHashMap<>();
+
+	/**
+	 * The delay without changes after which a changed file is parsed again, in milliseconds
+	 */
+	private volatile long					debounce			= DEFAULT_DEBOUNCE;
+
+	/**
+	 * The file system watch service, while running
+	 */
+	private volatile WatchService			service;
+
+	/**
+	 * The executor running the watch thread, while running
+	 */
+	private ExecutorService					executor;
+
+	/**
+	 * A watched file and its current value
+	 *
+	 * @param path    The absolute path of the file
+	 * @param charset The charset of the file
+	 * @param options The limits and alias handling of its parses
+	 * @param value   The current read-only value
+	 */
+	private record WatchedFile( Path path, String charset, DeserializeOptions options, AtomicReference<Object> value ) {
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param parser The parser the files are parsed with
+	 */
+	public YamlFileWatcher( YamlParser parser ) {
+		this.parser = parser;
+	}
+
+	/**
+	 * Set the delay without changes after which a changed file is parsed again
+	 *
+	 * @param debounce The delay in milliseconds, which must not be negative
+	 */
+	public void setDebounce( long debounce ) {
+		if ( debounce < 0 ) {
+			throw new BoxRuntimeException( "The watch debounce must not be negative but was [" + debounce + "]" );
+		}
+		this.debounce = debounce;
+	}
+
+	/**
+	 * Whether the watch thread is running
+	 *
+	 * @return True if running
+	 */
+	public boolean isRunning() {
+		return this.service != null;
+	}
+
+	/**
+	 * Start the watch thread, if not already running
+	 */
+	public synchronized void start() {
+		if ( this.service != null ) {
+			return;
+		}
+		try {
+			this.service = FileSystems.getDefault().newWatchService();
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error starting the yaml file watcher", e );
+		}
+		WatchService watchService = this.service;
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.executor.execute( () -> watch( watchService ) );
+	}
+
+	/**
+	 * Stop the watch thread and forget every watched file
+	 */
+	public synchronized void stop() {
+		if ( this.service == null ) {
+			return;
+		}
+		try {
+			this.service.close();
+		} catch ( IOException e ) {
+			// Closing only fails if the watch service is already broken, and it is dropped anyway
+		}
+		this.executor.shutdownNow();
+		this.service	= null;
+		this.executor	= null;
+		this.files.clear();
+		this.directories.clear();
+	}
+
+	/**
+	 * Watch a file, parsing it now if it is not watched yet. The watch thread is started if needed. A file is watched
+	 * once whatever the path it was given with, so watching it again must use the same charset and options.
+	 *
+	 * @param context The context of execution
+	 * @param path    The path to the YAML file
+	 * @param charset The charset to use when reading the file
+	 * @param options The limits and alias handling of its parses
+	 *
+	 * @return The current read-only value of the file
+	 *
+	 * @throws BoxRuntimeException If the file is already watched with another charset or other options
+	 */
+	public Object watch( IBoxContext context, String path, String charset, DeserializeOptions options ) {
+		Path		absolute	= absolutePath( context, path );
+		WatchedFile	watched		= this.files.get( absolute );
+		if ( watched == null ) {
+			start();
+			watched = this.files.computeIfAbsent( absolute, file -> {
+				Object		value	= parse( context, file, charset, options );
+				WatchedFile	entry	= new WatchedFile( file, charset, options, new AtomicReference<>( value ) );
+				register( file.getParent() );
+				return entry;
+			} );
+		}
+		if ( !watched.charset().equalsIgnoreCase( charset ) || !watched.options().equals( options ) ) {
+			throw new BoxRuntimeException(
+			    "The yaml file [" + absolute + "] is already watched with another charset, limits or sharedAliases; unwatch it first"
+			);
+		}
+		return watched.value().get();
+	}
+
+	/**
+	 * Get the current value of a watched file, without any I/O
+	 *
+	 * @param context The context of execution
+	 * @param path    The path to the file
+	 *
+	 * @return The current read-only value, or null if the file is not watched
+	 */
+	public Object get( IBoxContext context, String path ) {
+		WatchedFile watched = this.files.get( absolutePath( context, path ) );
+		return watched == null ? null : watched.value().get();
+	}
+
+	/**
+	 * Whether a file is watched
+	 *
+	 * @param context The context of execution
+	 * @param path    The path to the file
+	 *
+	 * @return True if watched
+	 */
+	public boolean isWatched( IBoxContext context, String path ) {
+		return this.files.containsKey( absolutePath( context, path ) );
+	}
+
+	/**
+	 * Stop watching a file. Its directory is no longer watched once none of its files is.
+	 *
+	 * @param context The context of execution
+	 * @param path    The path to the file
+	 *
+	 * @return True if the file was watched
+	 */
+	public boolean unwatch( IBoxContext context, String path ) {
+		WatchedFile watched = this.files.remove( absolutePath( context, path ) );
+		if ( watched == null ) {
+			return false;
+		}
+
+		Path directory = watched.path().getParent();
+		if ( this.files.keySet().stream().noneMatch( file -> file.getParent().equals( directory ) ) ) {
+			WatchKey key = this.directories.remove( directory );
+			if ( key != null ) {
+				key.cancel();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Expand the path of a watched file, so every spelling of a path designates the same file
+	 *
+	 * @param context The context of execution
+	 * @param path    The path to the file
+	 *
+	 * @return The absolute, normalized path
+	 */
+	private static Path absolutePath( IBoxContext context, String path ) {
+		return YamlParser.resolvePath( context, path ).toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Register a directory with the watch service, once
+	 *
+	 * @param directory The directory
+	 */
+	private void register( Path directory ) {
+		this.directories.computeIfAbsent( directory, dir -> {
+			try {
+				return dir.register(
+				    this.service,
+				    StandardWatchEventKinds.ENTRY_CREATE,
+				    StandardWatchEventKinds.ENTRY_MODIFY
+				);
+			} catch ( IOException e ) {
+				throw new BoxIOException( "Error watching the directory [" + dir + "]", e );
+			}
+		} );
+	}
+
+	/**
+	 * The watch loop, collecting the changed files and parsing each again once its debounce delay has passed
+	 *
+	 * @param watchService The watch service of this run
+	 */
+	private void watch( WatchService watchService ) {
+		// The changed files and when to parse them again, only used by this thread
+		Map<Path, Long> pending = new HashMap<>();
+		try {
+			while ( !Thread.currentThread().isInterrupted() ) {
+				WatchKey key = pending.isEmpty()
+				    ? watchService.take()
+				    : watchService.poll( Math.max( 0, nextDeadline( pending ) - System.nanoTime() ), TimeUnit.NANOSECONDS );
+				if ( key != null ) {
+					collect( key, pending );
+				}
+				reloadDue( pending );
+			}
+		} catch ( InterruptedException | ClosedWatchServiceException e ) {
+			// Stopped
+		}
+	}
+
+	/**
+	 * Collect the watched files changed by the events of a watch key, pushing back their debounce deadline
+	 *
+	 * @param key     The signalled watch key
+	 * @param pending The changed files and when to parse them again
+	 */
+	private void collect( WatchKey key, Map<Path, Long> pending ) {
+		Path	directory	= ( Path ) key.watchable();
+		long	deadline	= System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( this.debounce );
+		for ( WatchEvent<?> event : key.pollEvents() ) {
+			if ( event.kind() == StandardWatchEventKinds.OVERFLOW ) {
+				// Events were lost, so every file of the directory may have changed
+				for ( Path file : this.files.keySet() ) {
+					if ( file.getParent().equals( directory ) ) {
+						pending.put( file, deadline );
+					}
+				}
+			} else {
+				Path file = directory.resolve( ( Path ) event.context() );
+				if ( this.files.containsKey( file ) ) {
+					pending.put( file, deadline );
+				}
+			}
+		}
+		if ( !key.reset() ) {
+			this.directories.remove( directory, key );
+		}
+	}
+
+	/**
+	 * Get the earliest debounce deadline
+	 *
+	 * @param pending The changed files and when to parse them again
+	 *
+	 * @return The deadline, in {@link System#nanoTime()} units
+	 */
+	private static long nextDeadline( Map<Path, Long> pending ) {
+		long next = Long.MAX_VALUE;
+		for ( long deadline : pending.values() ) {
+			next = Math.min( next, deadline );
+		}
+		return next;
+	}
+
+	/**
+	 * Parse again the changed files whose debounce deadline has passed, swap their values and announce them
+	 *
+	 * @param pending The changed files and when to parse them again
+	 */
+	private void reloadDue( Map<Path, Long> pending ) {
+		long							now		= System.nanoTime();
+		Iterator<Map.Entry<Path, Long>>	entries	= pending.entrySet().iterator();
+		IBoxContext						context	= BoxRuntime.getInstance().getRuntimeContext();
+		while ( entries.hasNext() ) {
+			Map.Entry<Path, Long> entry = entries.next();
+			if ( entry.getValue() - now > 0 ) {
+				continue;
+			}
+			entries.remove();
+			WatchedFile watched = this.files.get( entry.getKey() );
+			if ( watched != null ) {
+				reload( context, watched );
+			}
+		}
+	}
+
+	/**
+	 * Parse a watched file again, keeping its previous value if it fails
+	 *
+	 * @param context The context of execution
+	 * @param watched The watched file
+	 */
+	private void reload( IBoxContext context, WatchedFile watched ) {
+		Object value;
+		try {
+			value = parse( context, watched.path(), watched.charset(), watched.options() );
+		} catch ( RuntimeException e ) {
+			BoxRuntime.getInstance().getLoggingService().RUNTIME_LOGGER.warn(
+			    "Error reloading the watched yaml file [{}], keeping its previous value: {}",
+			    watched.path(),
+			    e.getMessage()
+			);
+			return;
+		}
+		watched.value().set( value );
+		BoxRuntime.getInstance()
+		    .getInterceptorService()
+		    .announce(
+		        KeyDictionary.onYamlFileChange,
+		        Struct.of( Key.path, watched.path().toString(), Key.result, value ),
+		        context
+		    );
+	}
+
+	/**
+	 * Parse a file into a read-only value
+	 *
+	 * @param context The context of execution
+	 * @param path    The absolute path of the file
+	 * @param charset The charset of the file
+	 * @param options The limits and alias handling of the parse
+	 *
+	 * @return The read-only value
+	 */
+	private Object parse( IBoxContext context, Path path, String charset, DeserializeOptions options ) {
+		return BoxLangConstructor.readOnly( this.parser.deserializeFromFile( context, path.toString(), charset, options ) );
+	}
+
+}
@@ -0,0 +1,660 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
+
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+
+/**
+ * Translates YAML to JSON and back at the event level, without building any BoxLang value.
+ * <p>
+ * YAML parser events are written straight to a Jackson {@link JsonGenerator}, and Jackson parser tokens straight to a
+ * {@link YamlEventWriter}, so memory use does not grow with the size of the input. Only the anchored values of the
+ * current YAML document are kept, as events, to be written again in place of their aliases.
+ * <p>
+ * Scalars are typed the way {@code yamlDeserialize()} would: nulls, booleans and numbers are resolved by the engine's
+ * resolver and constructor, everything else, timestamps included, is written as a JSON string. Merge keys ({@code <<})
+ * are resolved like a full load does: a mapping first gets its explicit keys, then the keys pulled in by its merge keys
+ * that it does not have yet, earlier merge sources first. The keys of the open mappings, and the events of their merge
+ * values, are therefore kept until the mappings end. Every document of a YAML stream becomes one line separated JSON
+ * value, and every root value of a JSON stream one YAML document.
+ * <p>
+ * A transcoder uses the resolver, constructor and representer of its engine, so it must only be used while the engine
+ * is borrowed.
+ */
+public class YamlJsonTranscoder {
+
+	/**
+	 * The JSON factory, thread safe and shared by all transcoders. The caller owns the reader and writer.
+	 */
+	private static final JsonFactory		JSON		= new JsonFactory()
+	    .disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET )
+	    .disable( JsonParser.Feature.AUTO_CLOSE_SOURCE );
+
+	/**
+	 * The borrowed engine
+	 */
+	private final YamlEngine				engine;
+
+	/**
+	 * The limits of the call
+	 */
+	private final DeserializeOptions		options;
+
+	/**
+	 * The events of the anchored values of the current document, by anchor
+	 */
+	private final Map<String, List<Event>>	anchors		= new HashMap<>();
+
+	/**
+	 * The anchored values being recorded
+	 */
+	private final Deque<Recording>			recordings	= new ArrayDeque<>();
+
+	/**
+	 * The open mappings and sequences
+	 */
+	private final Deque<Frame>				frames		= new ArrayDeque<>();
+
+	/**
+	 * The generator of the current YAML to JSON call
+	 */
+	private JsonGenerator					generator;
+
+	/**
+	 * The events of the merge value being collected for the current mapping, or null
+	 */
+	private List<Event>						merging		= null;
+
+	/**
+	 * The nesting depth of the merge value being collected
+	 */
+	private int								mergeDepth	= 0;
+
+	/**
+	 * The number of values written from the current document
+	 */
+	private int								valueCount	= 0;
+
+	/**
+	 * The number of aliases to collections in the current document
+	 */
+	private int								aliasCount	= 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param engine  The borrowed engine, configured with the options
+	 * @param options The limits of the call
+	 */
+	public YamlJsonTranscoder( YamlEngine engine, DeserializeOptions options ) {
+		this.engine		= engine;
+		this.options	= options;
+	}
+
+	/**
+	 * Translate a YAML stream to JSON
+	 *
+	 * @param reader The YAML source
+	 * @param writer The JSON destination
+	 * @param pretty Whether the JSON is pretty printed
+	 *
+	 * @return The number of documents written
+	 *
+	 * @throws IOException If reading or writing fails
+	 */
+	public long yamlToJson( Reader reader, Writer writer, boolean pretty ) throws IOException {
+		long documents = 0;
+		try ( JsonGenerator json = JSON.createGenerator( writer ) ) {
+			this.generator = json;
+			if ( pretty ) {
+				json.setPrettyPrinter( new DefaultPrettyPrinter( Separators.createDefaultInstance().withRootSeparator( "\n" ) ) );
+			} else {
+				json.setRootValueSeparator( new SerializedString( "\n" ) );
+			}
+			// The input size is not limited, as events are converted one at a time with constant memory
+			Parser parser = new ParserImpl( new StreamReader( reader ), this.engine.streamingLoaderOptions() );
+			while ( parser.peekEvent() != null ) {
+				Event event = parser.getEvent();
+				if ( event instanceof DocumentStartEvent ) {
+					startDocument();
+					documents++;
+				} else {
+					handle( event, false );
+				}
+			}
+		} finally {
+			this.generator = null;
+		}
+		return documents;
+	}
+
+	/**
+	 * Translate a JSON stream to YAML
+	 *
+	 * @param reader The JSON source
+	 * @param writer The YAML destination
+	 *
+	 * @return The number of documents written
+	 *
+	 * @throws IOException If reading or writing fails
+	 */
+	public long jsonToYaml( Reader reader, Writer writer ) throws IOException {
+		long documents = 0;
+		try ( JsonParser json = JSON.createParser( reader ) ) {
+			YamlEventWriter	yaml	= new YamlEventWriter( this.engine, writer, new SerializeOptions() );
+			int				depth	= 0;
+			JsonToken		token;
+			yaml.open();
+			while ( ( token = json.nextToken() ) != null ) {
+				if ( depth == 0 ) {
+					yaml.startDocument();
+					documents++;
+				}
+				switch ( token ) {
+					case START_OBJECT -> {
+						yaml.startMapping();
+						depth++;
+					}
+					case END_OBJECT -> {
+						yaml.endMapping();
+						depth--;
+					}
+					case START_ARRAY -> {
+						yaml.startSequence();
+						depth++;
+					}
+					case END_ARRAY -> {
+						yaml.endSequence();
+						depth--;
+					}
+					case FIELD_NAME, VALUE_STRING -> yaml.writeString( json.getText() );
+					// Numbers keep their exact JSON text
+					case VALUE_NUMBER_INT -> yaml.writeScalar( Tag.INT, json.getText() );
+					case VALUE_NUMBER_FLOAT -> yaml.writeScalar( Tag.FLOAT, json.getText() );
+					case VALUE_TRUE -> yaml.writeScalar( Tag.BOOL, "true" );
+					case VALUE_FALSE -> yaml.writeScalar( Tag.BOOL, "false" );
+					default -> yaml.writeScalar( Tag.NULL, "null" );
+				}
+				if ( depth == 0 ) {
+					yaml.endDocument();
+				}
+			}
+			yaml.close();
+		}
+		return documents;
+	}
+
+	/**
+	 * Reset the per-document state, anchors are only valid within their document
+	 */
+	private void startDocument() {
+		this.anchors.clear();
+		this.recordings.clear();
+		this.frames.clear();
+		this.merging	= null;
+		this.mergeDepth	= 0;
+		this.valueCount	= 0;
+		this.aliasCount	= 0;
+	}
+
+	/**
+	 * Record and write a parser event, or replay the events of an alias
+	 *
+	 * @param event     The event
+	 * @param replaying Whether the event is replayed for an alias, so its anchor is already known
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void handle( Event event, boolean replaying ) throws IOException {
+		if ( event instanceof AliasEvent alias ) {
+			replay( alias );
+			return;
+		}
+
+		if ( !replaying && event instanceof NodeEvent node && node.getAnchor() != null ) {
+			this.recordings.push( new Recording( node.getAnchor() ) );
+		}
+		Iterator<Recording> active = this.recordings.iterator();
+		while ( active.hasNext() ) {
+			Recording recording = active.next();
+			if ( recording.add( event ) ) {
+				this.anchors.put( recording.anchor, recording.events );
+				active.remove();
+			}
+		}
+
+		write( event );
+	}
+
+	/**
+	 * Write the recorded events of an anchored value in place of its alias
+	 *
+	 * @param alias The alias
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void replay( AliasEvent alias ) throws IOException {
+		List<Event> events = this.anchors.get( alias.getAnchor() );
+		if ( events == null ) {
+			throw new BoxRuntimeException( "Cannot write the undefined or recursive alias [" + alias.getAnchor() + "] as JSON" );
+		}
+		if ( events.get( 0 ) instanceof CollectionStartEvent && ++this.aliasCount > this.options.getMaxAliases() ) {
+			throw new BoxRuntimeException( "Number of aliases for non-scalar nodes exceeds the specified max=" + this.options.getMaxAliases() );
+		}
+		for ( Event event : events ) {
+			handle( event, true );
+		}
+	}
+
+	/**
+	 * Write a parser event to the JSON generator
+	 *
+	 * @param event The event
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void write( Event event ) throws IOException {
+		if ( this.merging != null ) {
+			collectMerge( event );
+			return;
+		}
+
+		Frame current = this.frames.peek();
+		if ( current != null && current.expectKey && ! ( event instanceof CollectionEndEvent ) ) {
+			writeKey( event, current );
+			return;
+		}
+
+		if ( event instanceof ScalarEvent scalar ) {
+			countValue();
+			writeScalar( scalar );
+			endValue();
+		} else if ( event instanceof MappingStartEvent ) {
+			countValue();
+			this.generator.writeStartObject();
+			enter( new Frame( true ) );
+		} else if ( event instanceof SequenceStartEvent ) {
+			countValue();
+			this.generator.writeStartArray();
+			enter( new Frame( false ) );
+		} else if ( event instanceof MappingEndEvent ) {
+			Frame mapping = this.frames.peek();
+			for ( List<Event> source : mapping.merges ) {
+				mergeValue( source, 0, source.size(), mapping );
+			}
+			this.frames.pop();
+			this.generator.writeEndObject();
+			endValue();
+		} else if ( event instanceof SequenceEndEvent ) {
+			this.frames.pop();
+			this.generator.writeEndArray();
+			endValue();
+		}
+	}
+
+	/**
+	 * Write the key of a mapping entry. Merge keys write nothing, the value that follows is collected to be merged once
+	 * the explicit keys of the mapping are all written.
+	 *
+	 * @param event   The event of the key
+	 * @param current The mapping
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeKey( Event event, Frame current ) throws IOException {
+		if ( ! ( event instanceof ScalarEvent scalar ) ) {
+			throw new BoxRuntimeException( "JSON objects only have string keys, but found a complex key: " + event );
+		}
+		countValue();
+		current.expectKey = false;
+		if ( isMergeKey( scalar ) ) {
+			this.merging	= new ArrayList<>();
+			this.mergeDepth	= 0;
+			return;
+		}
+		if ( !current.keys.add( scalar.getValue() ) && !this.engine.loaderOptions().isAllowDuplicateKeys() ) {
+			throw new BoxRuntimeException( "Found the duplicate key [" + scalar.getValue() + "]" + scalar.getStartMark() );
+		}
+		this.generator.writeFieldName( scalar.getValue() );
+	}
+
+	/**
+	 * Collect an event of the merge value of the current mapping, aliases already replaced by their events
+	 *
+	 * @param event The event
+	 */
+	private void collectMerge( Event event ) {
+		this.merging.add( event );
+		if ( event instanceof CollectionStartEvent ) {
+			this.mergeDepth++;
+		} else if ( event instanceof CollectionEndEvent ) {
+			this.mergeDepth--;
+		}
+		if ( this.mergeDepth == 0 ) {
+			this.frames.peek().merges.add( this.merging );
+			this.merging = null;
+			endValue();
+		}
+	}
+
+	/**
+	 * Merge a merge value into a mapping: a mapping, or a sequence of mappings merged in order
+	 *
+	 * @param events The events holding the merge value
+	 * @param start  The index of the first event of the value
+	 * @param end    The index after the last event of the value
+	 * @param target The mapping merged into
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void mergeValue( List<Event> events, int start, int end, Frame target ) throws IOException {
+		Event first = events.get( start );
+		if ( first instanceof MappingStartEvent ) {
+			mergeMapping( events, start, target );
+		} else if ( first instanceof SequenceStartEvent ) {
+			int index = start + 1;
+			while ( index < end - 1 ) {
+				Event item = events.get( index );
+				if ( item instanceof ScalarEvent scalar ) {
+					throw new BoxRuntimeException( "Only mappings can be merged, but found the scalar [" + scalar.getValue() + "]" );
+				}
+				if ( ! ( item instanceof MappingStartEvent ) ) {
+					throw new BoxRuntimeException( "Only mappings can be merged, but found a nested sequence" );
+				}
+				index = mergeMapping( events, index, target );
+			}
+		} else {
+			throw new BoxRuntimeException( "Only mappings can be merged, but found the scalar [" + ( ( ScalarEvent ) first ).getValue() + "]" );
+		}
+	}
+
+	/**
+	 * Merge a mapping into another: its explicit keys the target does not have yet, then its own merge values
+	 *
+	 * @param events The events holding the mapping
+	 * @param start  The index of the start event of the mapping
+	 * @param target The mapping merged into
+	 *
+	 * @return The index after the end event of the mapping
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private int mergeMapping( List<Event> events, int start, Frame target ) throws IOException {
+		List<int[]>	merges	= new ArrayList<>();
+		int			index	= start + 1;
+		while ( ! ( events.get( index ) instanceof MappingEndEvent ) ) {
+			if ( ! ( events.get( index ) instanceof ScalarEvent key ) ) {
+				throw new BoxRuntimeException( "JSON objects only have string keys, but found a complex key: " + events.get( index ) );
+			}
+			int	valueStart	= index + 1;
+			int	valueEnd	= skipValue( events, valueStart );
+			if ( isMergeKey( key ) ) {
+				merges.add( new int[] { valueStart, valueEnd } );
+			} else if ( target.keys.add( key.getValue() ) ) {
+				countValue();
+				this.generator.writeFieldName( key.getValue() );
+				target.expectKey = false;
+				for ( int i = valueStart; i < valueEnd; i++ ) {
+					write( events.get( i ) );
+				}
+			}
+			index = valueEnd;
+		}
+		for ( int[] merge : merges ) {
+			mergeValue( events, merge[ 0 ], merge[ 1 ], target );
+		}
+		return index + 1;
+	}
+
+	/**
+	 * Find the end of a value in a list of events
+	 *
+	 * @param events The events
+	 * @param start  The index of the first event of the value
+	 *
+	 * @return The index after the last event of the value
+	 */
+	private static int skipValue( List<Event> events, int start ) {
+		int	depth	= 0;
+		int	index	= start;
+		do {
+			Event event = events.get( index++ );
+			if ( event instanceof CollectionStartEvent ) {
+				depth++;
+			} else if ( event instanceof CollectionEndEvent ) {
+				depth--;
+			}
+		} while ( depth > 0 );
+		return index;
+	}
+
+	/**
+	 * Whether a mapping key is a merge key
+	 *
+	 * @param scalar The key
+	 *
+	 * @return True for a merge key
+	 */
+	private boolean isMergeKey( ScalarEvent scalar ) {
+		return "<<".equals( scalar.getValue() ) && resolve( scalar ).equals( Tag.MERGE );
+	}
+
+	/**
+	 * Write a scalar value with its resolved JSON type
+	 *
+	 * @param scalar The scalar event
+	 *
+	 * @throws IOException If writing fails
+	 */
+	private void writeScalar( ScalarEvent scalar ) throws IOException {
+		Tag tag = resolve( scalar );
+		if ( tag.equals( Tag.NULL ) ) {
+			this.generator.writeNull();
+			return;
+		}
+		if ( !tag.equals( Tag.BOOL ) && !tag.equals( Tag.INT ) && !tag.equals( Tag.FLOAT ) ) {
+			this.generator.writeString( scalar.getValue() );
+			return;
+		}
+
+		Object value = this.engine.constructor().constructScalar( tag, scalar.getValue() );
+		if ( value instanceof Boolean bool ) {
+			this.generator.writeBoolean( bool );
+		} else if ( value instanceof BigInteger big ) {
+			this.generator.writeNumber( big );
+		} else if ( value instanceof Double number ) {
+			// JSON has no infinity nor NaN
+			if ( number.isInfinite() || number.isNaN() ) {
+				this.generator.writeString( scalar.getValue() );
+			} else {
+				this.generator.writeNumber( number );
+			}
+		} else {
+			this.generator.writeNumber( ( ( Number ) value ).longValue() );
+		}
+	}
+
+	/**
+	 * Resolve the tag of a scalar the way SnakeYAML's composer does
+	 *
+	 * @param scalar The scalar event
+	 *
+	 * @return The tag
+	 */
+	private Tag resolve( ScalarEvent scalar ) {
+		String tag = scalar.getTag();
+		if ( tag == null || tag.equals( "!" ) ) {
+			return this.engine.resolver().resolve( NodeId.scalar, scalar.getValue(), scalar.getImplicit().canOmitTagInPlainScalar() );
+		}
+		return new Tag( tag );
+	}
+
+	/**
+	 * Open a mapping or sequence
+	 *
+	 * @param frame The frame of the collection
+	 */
+	private void enter( Frame frame ) {
+		if ( this.frames.size() >= this.options.getMaxDepth() ) {
+			throw new BoxRuntimeException( "Nesting Depth exceeded max " + this.options.getMaxDepth() );
+		}
+		this.frames.push( frame );
+	}
+
+	/**
+	 * Mark the value of the current mapping entry as written
+	 */
+	private void endValue() {
+		Frame current = this.frames.peek();
+		if ( current != null && current.object ) {
+			current.expectKey = true;
+		}
+	}
+
+	/**
+	 * Count a written value against the max values limit
+	 */
+	private void countValue() {
+		if ( ++this.valueCount > this.options.getMaxValues() ) {
+			throw new BoxRuntimeException( "The document expands to more than the max of [" + this.options.getMaxValues() + "] values" );
+		}
+	}
+
+	/**
+	 * An open mapping or sequence
+	 */
+	private static class Frame {
+
+		/**
+		 * Whether this is a mapping
+		 */
+		private final boolean			object;
+
+		/**
+		 * The keys written to a mapping, so merged keys never override them
+		 */
+		private final Set<String>		keys	= new HashSet<>();
+
+		/**
+		 * The events of the merge values of a mapping, merged in order when it ends
+		 */
+		private final List<List<Event>>	merges	= new ArrayList<>( 0 );
+
+		/**
+		 * Whether the next event of a mapping is a key
+		 */
+		private boolean					expectKey;
+
+		/**
+		 * Constructor
+		 *
+		 * @param object Whether this is a mapping
+		 */
+		private Frame( boolean object ) {
+			this.object		= object;
+			this.expectKey	= object;
+		}
+	}
+
+	/**
+	 * The events of an anchored value, recorded as they are written
+	 */
+	private static class Recording {
+
+		/**
+		 * The anchor
+		 */
+		private final String		anchor;
+
+		/**
+		 * The recorded events
+		 */
+		private final List<Event>	events	= new ArrayList<>();
+
+		/**
+		 * The nesting depth of the recorded events
+		 */
+		private int					depth	= 0;
+
+		/**
+		 * Constructor
+		 *
+		 * @param anchor The anchor
+		 */
+		private Recording( String anchor ) {
+			this.anchor = anchor;
+		}
+
+		/**
+		 * Record an event
+		 *
+		 * @param event The event
+		 *
+		 * @return True once the anchored value is complete
+		 */
+		private boolean add( Event event ) {
+			this.events.add( event );
+			if ( event instanceof CollectionStartEvent ) {
+				this.depth++;
+			} else if ( event instanceof CollectionEndEvent ) {
+				this.depth--;
+			}
+			return this.depth == 0;
+		}
+	}
+
+}
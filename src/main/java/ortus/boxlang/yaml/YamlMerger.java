@@ -0,0 +1,215 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+
+/**
+ * The deep merge of a list of YAML layers, such as a base configuration followed by its environment and tenant
+ * overrides.
+ * <p>
+ * Structs are merged key by key, later layers winning, and arrays are either replaced or appended to depending on the
+ * {@link Strategy}. An empty layer contributes nothing. Merging never modifies a layer or a previous merge: every
+ * merged struct or array is a new container, while untouched values are shared with the layers.
+ * <p>
+ * A merge keeps every layer and every intermediate result along with the stamps of the layer sources. Merging the same
+ * sources again through {@link #update(List, IntFunction)} only loads the layers whose stamp changed, and only merges
+ * again from the first changed layer on.
+ */
+public final class YamlMerger {
+
+	/**
+	 * How arrays found in several layers are merged
+	 */
+	public enum Strategy {
+
+		/**
+		 * The array of the later layer replaces the earlier one
+		 */
+		REPLACE,
+
+		/**
+		 * The items of the later array are appended to the earlier one
+		 */
+		APPEND;
+
+		/**
+		 * Get a merge strategy from its name
+		 *
+		 * @param name The strategy name, case insensitive
+		 *
+		 * @return The merge strategy
+		 */
+		public static Strategy of( String name ) {
+			for ( Strategy strategy : values() ) {
+				if ( strategy.name().equalsIgnoreCase( name ) ) {
+					return strategy;
+				}
+			}
+			throw new BoxRuntimeException( "Invalid merge strategy [" + name + "], valid strategies are: replace, append" );
+		}
+	}
+
+	/**
+	 * The array merge strategy
+	 */
+	private final Strategy	strategy;
+
+	/**
+	 * The stamps of the layer sources, in layer order
+	 */
+	private final List<?>	stamps;
+
+	/**
+	 * The deserialized layers
+	 */
+	private final Object[]	layers;
+
+	/**
+	 * The merge of every layer with all the layers before it
+	 */
+	private final Object[]	merged;
+
+	/**
+	 * The number of layers loaded by this merge, the others being reused from the previous one
+	 */
+	private final int		loaded;
+
+	/**
+	 * Constructor
+	 *
+	 * @param strategy The array merge strategy
+	 * @param stamps   The stamps of the layer sources
+	 * @param layers   The deserialized layers
+	 * @param merged   The merge of every layer with all the layers before it
+	 * @param loaded   The number of layers loaded by this merge
+	 */
+	private YamlMerger( Strategy strategy, List<?> stamps, Object[] layers, Object[] merged, int loaded ) {
+		this.strategy	= strategy;
+		this.stamps		= stamps;
+		this.layers		= layers;
+		this.merged		= merged;
+		this.loaded		= loaded;
+	}
+
+	/**
+	 * Merge layers from scratch
+	 *
+	 * @param strategy The array merge strategy
+	 * @param stamps   The stamps of the layer sources, one per layer
+	 * @param loader   Loads a layer from its index
+	 *
+	 * @return The merge
+	 */
+	public static YamlMerger merge( Strategy strategy, List<?> stamps, IntFunction<Object> loader ) {
+		return new YamlMerger( strategy, List.of(), new Object[ 0 ], new Object[ 0 ], 0 ).update( stamps, loader );
+	}
+
+	/**
+	 * Merge the same layer sources again, reusing the layers whose stamp is unchanged and the intermediate results up
+	 * to the first changed layer. This merge is left untouched.
+	 *
+	 * @param newStamps The current stamps of the layer sources, one per layer
+	 * @param loader    Loads a layer from its index
+	 *
+	 * @return The new merge
+	 */
+	public YamlMerger update( List<?> newStamps, IntFunction<Object> loader ) {
+		int			size		= newStamps.size();
+		Object[]	newLayers	= new Object[ size ];
+		Object[]	newMerged	= new Object[ size ];
+		boolean		reuse		= true;
+		int			count		= 0;
+
+		for ( int i = 0; i < size; i++ ) {
+			boolean unchanged = i < this.stamps.size() && this.stamps.get( i ).equals( newStamps.get( i ) );
+			if ( unchanged ) {
+				newLayers[ i ] = this.layers[ i ];
+			} else {
+				newLayers[ i ] = loader.apply( i );
+				count++;
+			}
+
+			reuse = reuse && unchanged;
+			if ( reuse ) {
+				newMerged[ i ] = this.merged[ i ];
+			} else if ( i == 0 || newLayers[ i ] == null ) {
+				newMerged[ i ] = i == 0 ? newLayers[ i ] : newMerged[ i - 1 ];
+			} else {
+				newMerged[ i ] = mergeValues( newMerged[ i - 1 ], newLayers[ i ], this.strategy );
+			}
+		}
+
+		return new YamlMerger( this.strategy, List.copyOf( newStamps ), newLayers, newMerged, count );
+	}
+
+	/**
+	 * Get the merge of all the layers. It is shared with later merges and must never be modified.
+	 *
+	 * @return The merged value, or null if there are no layers or they are all empty
+	 */
+	public Object getResult() {
+		return this.merged.length == 0 ? null : this.merged[ this.merged.length - 1 ];
+	}
+
+	/**
+	 * Get the number of layers loaded by this merge, the others being reused from the previous one
+	 *
+	 * @return The number of loaded layers
+	 */
+	public int getLoaded() {
+		return this.loaded;
+	}
+
+	/**
+	 * Deep merge two values into a new one. Structs are merged key by key, arrays according to the strategy, and any
+	 * other overlay replaces the base.
+	 *
+	 * @param base     The earlier value
+	 * @param overlay  The later value
+	 * @param strategy The array merge strategy
+	 *
+	 * @return The merged value
+	 */
+	public static Object mergeValues( Object base, Object overlay, Strategy strategy ) {
+		if ( base instanceof IStruct baseStruct && overlay instanceof IStruct overlayStruct ) {
+			IStruct result = new Struct( baseStruct.getType() );
+			result.putAll( baseStruct );
+			for ( Map.Entry<Key, Object> entry : overlayStruct.entrySet() ) {
+				result.put( entry.getKey(), mergeValues( result.get( entry.getKey() ), entry.getValue(), strategy ) );
+			}
+			return result;
+		}
+		if ( strategy == Strategy.APPEND && base instanceof Array baseArray && overlay instanceof Array overlayArray ) {
+			Array result = new Array( baseArray.size() + overlayArray.size() );
+			result.addAll( baseArray );
+			result.addAll( overlayArray );
+			return result;
+		}
+		return overlay;
+	}
+
+}
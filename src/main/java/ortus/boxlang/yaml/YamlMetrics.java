@@ -0,0 +1,263 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+/**
+ * Counters and latency histograms of the YAML parser calls.
+ * <p>
+ * Every operation tracks its calls, errors, total and max time, a latency histogram and the size of what went in or
+ * out: string lengths in characters, file sizes in bytes. The parser also counts the documents it parses and the
+ * values built out of them, cache hits excluded.
+ * <p>
+ * All counters are {@link LongAdder}s, so recording never blocks. When disabled, callers skip the clock reads
+ * altogether, see {@link #isEnabled()}.
+ */
+public class YamlMetrics {
+
+	/**
+	 * The measured operations
+	 */
+	public enum Operation {
+
+		DESERIALIZE( "deserialize" ),
+		DESERIALIZE_FILE( "deserializeFile" ),
+		SERIALIZE( "serialize" ),
+		SERIALIZE_FILE( "serializeFile" );
+
+		private final Key key;
+
+		Operation( String name ) {
+			this.key = Key.of( name );
+		}
+
+		/**
+		 * Get the key of the operation in the statistics
+		 *
+		 * @return The key
+		 */
+		public Key getKey() {
+			return this.key;
+		}
+	}
+
+	/**
+	 * The upper bounds of the histogram buckets, in milliseconds. The last bucket holds everything slower.
+	 */
+	private static final double[]					BUCKETS		= { 0.1, 0.5, 1, 5, 10, 50, 100, 500, 1000, 5000 };
+
+	/**
+	 * The counters of every operation
+	 */
+	private final Map<Operation, OperationStats>	operations	= new EnumMap<>( Operation.class );
+
+	/**
+	 * The number of parsed documents
+	 */
+	private final LongAdder							documents	= new LongAdder();
+
+	/**
+	 * The number of values built out of the parsed documents
+	 */
+	private final LongAdder							values		= new LongAdder();
+
+	/**
+	 * Whether metrics are recorded
+	 */
+	private volatile boolean						enabled		= false;
+
+	/**
+	 * Constructor
+	 */
+	public YamlMetrics() {
+		for ( Operation operation : Operation.values() ) {
+			this.operations.put( operation, new OperationStats() );
+		}
+	}
+
+	/**
+	 * Whether metrics are recorded
+	 *
+	 * @return True if enabled
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Turn recording on or off. Recorded metrics are kept.
+	 *
+	 * @param enabled Whether metrics are recorded
+	 */
+	public void setEnabled( boolean enabled ) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Record a call
+	 *
+	 * @param operation The operation
+	 * @param nanos     The duration of the call, in nanoseconds
+	 * @param bytes     The size of what went in or out, or 0 if the call failed
+	 * @param failed    Whether the call threw an error
+	 */
+	public void record( Operation operation, long nanos, long bytes, boolean failed ) {
+		OperationStats stats = this.operations.get( operation );
+		stats.calls.increment();
+		if ( failed ) {
+			stats.errors.increment();
+		}
+		stats.bytes.add( bytes );
+		stats.totalNanos.add( nanos );
+		stats.maxNanos.accumulate( nanos );
+
+		double	millis	= nanos / 1_000_000.0;
+		int		bucket	= 0;
+		while ( bucket < BUCKETS.length && millis > BUCKETS[ bucket ] ) {
+			bucket++;
+		}
+		stats.histogram[ bucket ].increment();
+	}
+
+	/**
+	 * Record a parsed document
+	 *
+	 * @param valueCount The number of values built out of it
+	 */
+	public void recordDocument( long valueCount ) {
+		this.documents.increment();
+		this.values.add( valueCount );
+	}
+
+	/**
+	 * Reset every counter
+	 */
+	public void reset() {
+		this.operations.values().forEach( OperationStats::reset );
+		this.documents.reset();
+		this.values.reset();
+	}
+
+	/**
+	 * Get the metrics. Times are in milliseconds, and the percentiles are the upper bound of the histogram bucket they
+	 * fall in.
+	 *
+	 * @return A struct of the metrics of every operation, keyed by operation, plus the document and value counts
+	 */
+	public IStruct getStats() {
+		IStruct stats = new Struct( IStruct.TYPES.LINKED );
+		stats.put( Key.enabled, this.enabled );
+		for ( Operation operation : Operation.values() ) {
+			stats.put( operation.getKey(), this.operations.get( operation ).toStruct() );
+		}
+		stats.put( KeyDictionary.documents, this.documents.sum() );
+		stats.put( KeyDictionary.values, this.values.sum() );
+		return stats;
+	}
+
+	/**
+	 * The counters of an operation
+	 */
+	private static class OperationStats {
+
+		private final LongAdder			calls		= new LongAdder();
+		private final LongAdder			errors		= new LongAdder();
+		private final LongAdder			bytes		= new LongAdder();
+		private final LongAdder			totalNanos	= new LongAdder();
+		private final LongAccumulator	maxNanos	= new LongAccumulator( Math::max, 0 );
+		private final LongAdder[]		histogram	= new LongAdder[ BUCKETS.length + 1 ];
+
+		OperationStats() {
+			for ( int i = 0; i < this.histogram.length; i++ ) {
+				this.histogram[ i ] = new LongAdder();
+			}
+		}
+
+		void reset() {
+			this.calls.reset();
+			this.errors.reset();
+			this.bytes.reset();
+			this.totalNanos.reset();
+			this.maxNanos.reset();
+			for ( LongAdder bucket : this.histogram ) {
+				bucket.reset();
+			}
+		}
+
+		IStruct toStruct() {
+			long	callCount	= this.calls.sum();
+			long[]	counts		= new long[ this.histogram.length ];
+			IStruct	buckets		= new Struct( IStruct.TYPES.LINKED );
+			for ( int i = 0; i < counts.length; i++ ) {
+				counts[ i ] = this.histogram[ i ].sum();
+				buckets.put( Key.of( i < BUCKETS.length ? "<=" + format( BUCKETS[ i ] ) + "ms" : ">" + format( BUCKETS[ i - 1 ] ) + "ms" ), counts[ i ] );
+			}
+
+			return Struct.linkedOf(
+			    KeyDictionary.calls, callCount,
+			    KeyDictionary.errors, this.errors.sum(),
+			    KeyDictionary.bytes, this.bytes.sum(),
+			    KeyDictionary.totalTime, toMillis( this.totalNanos.sum() ),
+			    KeyDictionary.meanTime, callCount == 0 ? 0.0 : toMillis( this.totalNanos.sum() ) / callCount,
+			    KeyDictionary.maxTime, toMillis( this.maxNanos.get() ),
+			    KeyDictionary.p50, percentile( counts, callCount, 0.50 ),
+			    KeyDictionary.p95, percentile( counts, callCount, 0.95 ),
+			    KeyDictionary.p99, percentile( counts, callCount, 0.99 ),
+			    KeyDictionary.histogram, buckets
+			);
+		}
+
+		/**
+		 * Estimate a percentile from the histogram
+		 *
+		 * @return The upper bound of the bucket the percentile falls in, the max time for the last bucket, or 0 without calls
+		 */
+		private double percentile( long[] counts, long total, double percentile ) {
+			if ( total == 0 ) {
+				return 0.0;
+			}
+			long	target	= ( long ) Math.ceil( total * percentile );
+			long	seen	= 0;
+			for ( int i = 0; i < BUCKETS.length; i++ ) {
+				seen += counts[ i ];
+				if ( seen >= target ) {
+					return BUCKETS[ i ];
+				}
+			}
+			return toMillis( this.maxNanos.get() );
+		}
+
+		private static double toMillis( long nanos ) {
+			return nanos / ( double ) TimeUnit.MILLISECONDS.toNanos( 1 );
+		}
+
+		private static String format( double millis ) {
+			return millis == Math.rint( millis ) ? String.valueOf( ( long ) millis ) : String.valueOf( millis );
+		}
+	}
+}
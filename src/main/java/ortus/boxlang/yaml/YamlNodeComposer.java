@@ -0,0 +1,409 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Composes SnakeYAML {@link Node} graphs from a {@link Parser} event stream, one node at a time.
+ * <p>
+ * SnakeYAML's own {@code Composer} only composes whole documents. This composer lets callers walk the event stream
+ * themselves and compose just the subtrees they are interested in, which is what the streaming APIs need to keep
+ * memory constant. It follows the same rules as SnakeYAML: implicit tag resolution, the global tag inspector,
+ * anchors and aliases, recursive node detection, the nesting depth limit and the alias limit for collections.
+ * <p>
+ * Anchors are document scoped, call {@link #endDocument()} once a document has been consumed.
+ */
+public class YamlNodeComposer {
+
+	/**
+	 * The event source
+	 */
+	private final Parser				parser;
+
+	/**
+	 * The resolver for implicit tags
+	 */
+	private final Resolver				resolver;
+
+	/**
+	 * The loader options with the limits to enforce
+	 */
+	private final LoaderOptions			options;
+
+	/**
+	 * The anchored nodes in the current document
+	 */
+	private final Map<String, Node>		anchors				= new HashMap<>();
+
+	/**
+	 * The collection nodes that are currently being composed, used to detect recursive aliases
+	 */
+	private final Set<Node>				openNodes			= Collections.newSetFromMap( new IdentityHashMap<>() );
+
+	/**
+	 * The current nesting depth
+	 */
+	private int							nestingDepth		= 0;
+
+	/**
+	 * The number of aliases to collections in the current document
+	 */
+	private int							collectionAliases	= 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param parser   The event source
+	 * @param resolver The resolver for implicit tags
+	 * @param options  The loader options with the limits to enforce
+	 */
+	public YamlNodeComposer( Parser parser, Resolver resolver, LoaderOptions options ) {
+		this.parser		= parser;
+		this.resolver	= resolver;
+		this.options	= options;
+	}
+
+	/**
+	 * Get the underlying parser
+	 *
+	 * @return The parser
+	 */
+	public Parser getParser() {
+		return this.parser;
+	}
+
+	/**
+	 * Check if the next event is of the given type
+	 *
+	 * @param id The event type
+	 *
+	 * @return True if the next event matches
+	 */
+	public boolean check( Event.ID id ) {
+		return this.parser.checkEvent( id );
+	}
+
+	/**
+	 * Peek at the next event without consuming it
+	 *
+	 * @return The next event
+	 */
+	public Event peek() {
+		return this.parser.peekEvent();
+	}
+
+	/**
+	 * Consume the next event
+	 *
+	 * @return The consumed event
+	 */
+	public Event next() {
+		return this.parser.getEvent();
+	}
+
+	/**
+	 * Consume the next event, which must be of the given type
+	 *
+	 * @param id The expected event type
+	 *
+	 * @return The consumed event
+	 */
+	public Event expect( Event.ID id ) {
+		Event event = this.parser.getEvent();
+		if ( !event.is( id ) ) {
+			throw new YAMLException( "Expected " + id + " but found " + event.getEventId() + event.getStartMark() );
+		}
+		return event;
+	}
+
+	/**
+	 * Consume the document end event and forget the anchors of the document
+	 */
+	public void endDocument() {
+		expect( Event.ID.DocumentEnd );
+		this.anchors.clear();
+		this.openNodes.clear();
+		this.collectionAliases = 0;
+	}
+
+	/**
+	 * Compose the next node in the stream, including all of its children.
+	 *
+	 * @return The composed node
+	 */
+	public Node composeNode() {
+		if ( this.parser.checkEvent( Event.ID.Alias ) ) {
+			return composeAlias( ( AliasEvent ) this.parser.getEvent() );
+		}
+
+		String anchor = ( ( NodeEvent ) this.parser.peekEvent() ).getAnchor();
+		increaseNestingDepth();
+		Node node;
+		if ( this.parser.checkEvent( Event.ID.Scalar ) ) {
+			node = composeScalarNode( anchor );
+		} else if ( this.parser.checkEvent( Event.ID.SequenceStart ) ) {
+			node = composeSequenceNode( anchor );
+		} else {
+			node = composeMappingNode( anchor );
+		}
+		this.nestingDepth--;
+		return node;
+	}
+
+	/**
+	 * Consume the start of a collection, to walk its children one at a time. The nesting depth limit is enforced.
+	 *
+	 * @return The collection start event
+	 */
+	public CollectionStartEvent startCollection() {
+		Event event = this.parser.getEvent();
+		if ( ! ( event instanceof CollectionStartEvent start ) ) {
+			throw new YAMLException( "Expected a collection start but found " + event.getEventId() + event.getStartMark() );
+		}
+		increaseNestingDepth();
+		return start;
+	}
+
+	/**
+	 * Consume the end of a collection opened with {@link #startCollection()}
+	 */
+	public void endCollection() {
+		Event event = this.parser.getEvent();
+		if ( ! ( event instanceof CollectionEndEvent ) ) {
+			throw new YAMLException( "Expected a collection end but found " + event.getEventId() + event.getStartMark() );
+		}
+		this.nestingDepth--;
+	}
+
+	/**
+	 * Skip the next node in the stream, including all of its children, without composing it. Anchored nodes are
+	 * still composed, as later aliases may point to them.
+	 */
+	public void skipNode() {
+		int depth = 0;
+		do {
+			Event event = this.parser.peekEvent();
+			if ( event instanceof NodeEvent node && ! ( event instanceof AliasEvent ) && node.getAnchor() != null ) {
+				composeNode();
+			} else if ( event instanceof CollectionStartEvent ) {
+				startCollection();
+				depth++;
+			} else if ( event instanceof CollectionEndEvent ) {
+				endCollection();
+				depth--;
+			} else {
+				this.parser.getEvent();
+			}
+		} while ( depth > 0 );
+	}
+
+	/**
+	 * Resolve an alias to its anchored node
+	 *
+	 * @param event The alias event
+	 *
+	 * @return The anchored node
+	 */
+	private Node composeAlias( AliasEvent event ) {
+		Node node = this.anchors.get( event.getAnchor() );
+		if ( node == null ) {
+			throw new YAMLException( "found undefined alias " + event.getAnchor() + event.getStartMark() );
+		}
+		if ( node.getNodeId() != NodeId.scalar ) {
+			if ( ++this.collectionAliases > this.options.getMaxAliasesForCollections() ) {
+				throw new YAMLException( "Number of aliases for non-scalar nodes exceeds the specified max=" + this.options.getMaxAliasesForCollections() );
+			}
+			if ( this.openNodes.contains( node ) ) {
+				node.setTwoStepsConstruction( true );
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Compose a scalar node
+	 *
+	 * @param anchor The anchor of the node, if any
+	 *
+	 * @return The scalar node
+	 */
+	private Node composeScalarNode( String anchor ) {
+		ScalarEvent	event		= ( ScalarEvent ) this.parser.getEvent();
+		String		tag			= event.getTag();
+		boolean		resolved	= false;
+		Tag			nodeTag;
+		if ( tag == null || tag.equals( "!" ) ) {
+			nodeTag		= this.resolver.resolve( NodeId.scalar, event.getValue(), event.getImplicit().canOmitTagInPlainScalar() );
+			resolved	= true;
+		} else {
+			nodeTag = checkTag( new Tag( tag ), event );
+		}
+		Node node = new ScalarNode( nodeTag, resolved, event.getValue(), event.getStartMark(), event.getEndMark(), event.getScalarStyle() );
+		registerAnchor( anchor, node );
+		return node;
+	}
+
+	/**
+	 * Compose a sequence node and its children
+	 *
+	 * @param anchor The anchor of the node, if any
+	 *
+	 * @return The sequence node
+	 */
+	private Node composeSequenceNode( String anchor ) {
+		CollectionStartEvent	event		= ( CollectionStartEvent ) this.parser.getEvent();
+		List<Node>				children	= new ArrayList<>();
+		SequenceNode			node		= new SequenceNode(
+		    collectionTag( event, NodeId.sequence ),
+		    isImplicitTag( event ),
+		    children,
+		    event.getStartMark(),
+		    null,
+		    event.getFlowStyle()
+		);
+		registerAnchor( anchor, node );
+		this.openNodes.add( node );
+		while ( !this.parser.checkEvent( Event.ID.SequenceEnd ) ) {
+			children.add( composeNode() );
+		}
+		this.openNodes.remove( node );
+		node.setEndMark( this.parser.getEvent().getEndMark() );
+		return node;
+	}
+
+	/**
+	 * Compose a mapping node and its children
+	 *
+	 * @param anchor The anchor of the node, if any
+	 *
+	 * @return The mapping node
+	 */
+	private Node composeMappingNode( String anchor ) {
+		CollectionStartEvent	event		= ( CollectionStartEvent ) this.parser.getEvent();
+		List<NodeTuple>			children	= new ArrayList<>();
+		MappingNode				node		= new MappingNode(
+		    collectionTag( event, NodeId.mapping ),
+		    isImplicitTag( event ),
+		    children,
+		    event.getStartMark(),
+		    null,
+		    event.getFlowStyle()
+		);
+		registerAnchor( anchor, node );
+		this.openNodes.add( node );
+		while ( !this.parser.checkEvent( Event.ID.MappingEnd ) ) {
+			Node key = composeNode();
+			if ( key.getTag().equals( Tag.MERGE ) ) {
+				node.setMerged( true );
+			}
+			children.add( new NodeTuple( key, composeNode() ) );
+		}
+		this.openNodes.remove( node );
+		node.setEndMark( this.parser.getEvent().getEndMark() );
+		return node;
+	}
+
+	/**
+	 * Resolve the tag of a collection start event
+	 *
+	 * @param event The collection start event
+	 * @param kind  The node kind
+	 *
+	 * @return The tag
+	 */
+	private Tag collectionTag( CollectionStartEvent event, NodeId kind ) {
+		if ( isImplicitTag( event ) ) {
+			return this.resolver.resolve( kind, null, event.getImplicit() );
+		}
+		return checkTag( new Tag( event.getTag() ), event );
+	}
+
+	/**
+	 * Whether the event carries no explicit tag
+	 *
+	 * @param event The collection start event
+	 *
+	 * @return True if the tag must be resolved
+	 */
+	private static boolean isImplicitTag( CollectionStartEvent event ) {
+		return event.getTag() == null || event.getTag().equals( "!" );
+	}
+
+	/**
+	 * Verify a custom global tag is allowed by the tag inspector
+	 *
+	 * @param tag   The tag
+	 * @param event The event carrying the tag
+	 *
+	 * @return The tag
+	 */
+	private Tag checkTag( Tag tag, Event event ) {
+		if ( tag.isCustomGlobal() && !this.options.getTagInspector().isGlobalTagAllowed( tag ) ) {
+			throw new YAMLException( "Global tag is not allowed: " + tag + event.getStartMark() );
+		}
+		return tag;
+	}
+
+	/**
+	 * Remember an anchored node
+	 *
+	 * @param anchor The anchor, if any
+	 * @param node   The node
+	 */
+	private void registerAnchor( String anchor, Node node ) {
+		if ( anchor != null ) {
+			node.setAnchor( anchor );
+			this.anchors.put( anchor, node );
+		}
+	}
+
+	/**
+	 * Increase the nesting depth, enforcing the configured limit
+	 */
+	private void increaseNestingDepth() {
+		if ( ++this.nestingDepth > this.options.getNestingDepthLimit() ) {
+			throw new YAMLException( "Nesting Depth exceeded max " + this.options.getNestingDepthLimit() );
+		}
+	}
+
+}
@@ -17,56 +17,170 @@
  */
 package ortus.boxlang.yaml;
 
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
 
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.representer.Representer;
-
+import ortus.boxlang.runtime.BoxRuntime;
+import ortus.boxlang.runtime.async.BoxFuture;
+import ortus.boxlang.runtime.async.executors.ExecutorRecord;
 import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.context.ThreadBoxContext;
+import ortus.boxlang.runtime.dynamic.casters.BooleanCaster;
+import ortus.boxlang.runtime.dynamic.casters.IntegerCaster;
+import ortus.boxlang.runtime.dynamic.casters.LongCaster;
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.services.InterceptorService;
+import ortus.boxlang.runtime.services.ModuleService;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
 import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+import ortus.boxlang.runtime.util.DuplicationUtil;
 import ortus.boxlang.runtime.util.FileSystemUtil;
+import ortus.boxlang.yaml.YamlMerger.Strategy;
+import ortus.boxlang.yaml.YamlMetrics.Operation;
+import ortus.boxlang.yaml.util.KeyDictionary;
+import ortus.boxlang.yaml.util.YamlFileUtil;
 
 /**
  * In charge of parsing YAML files.
+ * <p>
+ * The parser is safe to share across threads. SnakeYAML engines are not, so every call borrows a dedicated
+ * {@link YamlEngine} from a bounded {@link YamlEnginePool} and hands it back when done.
+ * <p>
+ * Parsed files and strings can optionally be cached, see the {@code fileCache} and {@code contentCache} module
+ * settings.
+ * <p>
+ * Every deserialization runs within the limits of its {@link DeserializeOptions}, which default to the {@code limits}
+ * and {@code sharedAliases} module settings.
+ * <p>
+ * Files can also be parsed off the calling thread, on the BoxLang executor named by the {@code asyncExecutor} module
+ * setting, virtual threads by default.
  */
 public class YamlParser {
 
+	/**
+	 * The identity of a file's content: its modification time and size
+	 *
+	 * @param modified The last modification time
+	 * @param size     The size in bytes
+	 */
+	private record FileStamp( FileTime modified, long size ) {
+	}
+
+	/**
+	 * The cache key of a YAML string: a 64-bit hash of its content and its length
+	 *
+	 * @param hash   The FNV-1a hash of the content
+	 * @param length The length of the content
+	 */
+	private record ContentKey( long hash, int length ) {
+	}
+
+	/**
+	 * The cache key of a merge of YAML files: the files in layer order, how they are read and how arrays are merged
+	 *
+	 * @param charset  The charset the files are read with
+	 * @param strategy The array merge strategy
+	 * @param paths    The absolute paths to the files
+	 */
+	private record MergeKey( String charset, Strategy strategy, List<Path> paths ) {
+	}
+
 	/**
 	 * This service instance.
 	 */
-	private static YamlParser	instance	= null;
+	private static volatile YamlParser		instance;
+
+	/**
+	 * The max number of idle engines kept around by the pool
+	 */
+	private static final int				MAX_IDLE_ENGINES	= Runtime.getRuntime().availableProcessors() * 2;
+
+	/**
+	 * The executor running asynchronous parses when the module setting is missing: virtual threads
+	 */
+	private static final String				DEFAULT_EXECUTOR	= "io-tasks";
+
+	/**
+	 * The pool of YAML engines.
+	 */
+	private final YamlEnginePool			pool;
+
+	/**
+	 * The cache of parsed files, or null if disabled.
+	 */
+	private volatile YamlCache<String>		fileCache;
+
+	/**
+	 * The cache of parsed strings, or null if disabled.
+	 */
+	private volatile YamlCache<ContentKey>	contentCache;
+
+	/**
+	 * The cache of merged files, or null if disabled.
+	 */
+	private volatile YamlCache<MergeKey>	mergeCache;
+
+	/**
+	 * The default deserialization options, from the module settings.
+	 */
+	private volatile DeserializeOptions		deserializeOptions;
+
+	/**
+	 * The name of the BoxLang executor running asynchronous parses, from the module settings.
+	 */
+	private volatile String					asyncExecutor;
+
+	/**
+	 * Whether files are read through their binary snapshot, from the module settings.
+	 */
+	private volatile boolean				snapshots;
+
+	/**
+	 * The call metrics, recorded while the {@code metrics} module setting is on.
+	 */
+	private final YamlMetrics				metrics				= new YamlMetrics();
 
 	/**
-	 * The YAML parser.
+	 * The watcher keeping watched files parsed in memory.
 	 */
-	private Yaml				parser;
+	private final YamlFileWatcher			watcher				= new YamlFileWatcher( this );
 
 	/**
 	 * Constructor
 	 */
 	private YamlParser() {
-		DumperOptions options = new DumperOptions();
-		options.setDefaultFlowStyle( DumperOptions.FlowStyle.BLOCK );
-		options.setPrettyFlow( true );
-
-		Representer representer = new BoxLangRepresenter( options );
-		representer.getPropertyUtils().setSkipMissingProperties( true );
-
-		LoaderOptions loaderOptions = new LoaderOptions();
-		loaderOptions.setAllowDuplicateKeys( false );
-		loaderOptions.setAllowRecursiveKeys( false );
-		loaderOptions.setEnumCaseSensitive( false );
-
-		this.parser = new Yaml(
-		    new BoxLangConstructor( Object.class, loaderOptions ),
-		    representer,
-		    options
-		);
+		this.pool = new YamlEnginePool( MAX_IDLE_ENGINES, YamlEngine::new );
+		configure( loadModuleSettings() );
 	}
 
 	/**
@@ -75,10 +189,130 @@ public class YamlParser {
 	 * @return The parser instance.
 	 */
 	public static YamlParser getInstance() {
-		if ( instance == null ) {
-			instance = new YamlParser();
+		YamlParser result = instance;
+		if ( result == null ) {
+			synchronized ( YamlParser.class ) {
+				result = instance;
+				if ( result == null ) {
+					instance = result = new YamlParser();
+				}
+			}
 		}
-		return instance;
+		return result;
+	}
+
+	/**
+	 * Apply the module settings. Any existing cache is dropped and rebuilt from the settings.
+	 *
+	 * @param settings The module settings.
+	 */
+	public void configure( IStruct settings ) {
+		this.fileCache			= buildCache( settings.get( KeyDictionary.fileCache ) );
+		this.contentCache		= buildCache( settings.get( KeyDictionary.contentCache ) );
+		this.mergeCache			= buildCache( settings.get( KeyDictionary.mergeCache ) );
+		this.deserializeOptions	= DeserializeOptions.fromSettings( settings );
+		this.asyncExecutor		= StringCaster.cast( settings.getOrDefault( KeyDictionary.asyncExecutor, DEFAULT_EXECUTOR ) );
+		this.snapshots			= BooleanCaster.cast( settings.getOrDefault( KeyDictionary.snapshots, false ) );
+		this.metrics.setEnabled( BooleanCaster.cast( settings.getOrDefault( KeyDictionary.metrics, false ) ) );
+		this.watcher.setDebounce( LongCaster.cast( settings.getOrDefault( KeyDictionary.watchDebounce, YamlFileWatcher.DEFAULT_DEBOUNCE ) ) );
+	}
+
+	/**
+	 * Get the default deserialization options, built from the module settings.
+	 *
+	 * @return The default options. Use {@link DeserializeOptions#with(IStruct, Boolean)} to override them.
+	 */
+	public DeserializeOptions getDeserializeOptions() {
+		return this.deserializeOptions;
+	}
+
+	/**
+	 * Get the BoxLang executor running asynchronous parses.
+	 *
+	 * @param executor An executor name or record, or null for the {@code asyncExecutor} module setting.
+	 *
+	 * @return The executor record.
+	 */
+	public ExecutorRecord getExecutor( Object executor ) {
+		return BoxRuntime.getInstance().getAsyncService().getRecordOrNull( executor == null ? this.asyncExecutor : executor );
+	}
+
+	/**
+	 * Run some parser work on a BoxLang executor, within its own thread context of the calling context.
+	 *
+	 * @param context  The context of the caller.
+	 * @param work     The work to run, given the thread context.
+	 * @param executor An executor name or record, or null for the {@code asyncExecutor} module setting.
+	 *
+	 * @return A future of the result of the work.
+	 */
+	public <T> BoxFuture<T> runAsync( IBoxContext context, Function<IBoxContext, T> work, Object executor ) {
+		return BoxFuture.run( () -> inThreadContext( context, work ), getExecutor( executor ).executor() );
+	}
+
+	/**
+	 * Run some parser work on the current thread within a new thread context of the calling context, so the work never
+	 * runs against a request context that may complete meanwhile. The thread context is shut down once done.
+	 *
+	 * @param context The context of the caller.
+	 * @param work    The work to run, given the thread context.
+	 *
+	 * @return The result of the work.
+	 */
+	@SuppressWarnings( "unchecked" )
+	private static <T> T inThreadContext( IBoxContext context, Function<IBoxContext, T> work ) {
+		return ( T ) ThreadBoxContext.runInContext( context, true, work::apply );
+	}
+
+	/**
+	 * Get the statistics of the parser caches.
+	 *
+	 * @return A struct with the statistics of every cache, keyed by cache name.
+	 */
+	public IStruct getCacheStats() {
+		return Struct.of(
+		    KeyDictionary.fileCache, cacheStats( this.fileCache ),
+		    KeyDictionary.contentCache, cacheStats( this.contentCache ),
+		    KeyDictionary.mergeCache, cacheStats( this.mergeCache )
+		);
+	}
+
+	/**
+	 * Get the call metrics of the parser.
+	 *
+	 * @return The metrics.
+	 */
+	public YamlMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Get the call metrics and the cache statistics of the parser.
+	 *
+	 * @return A struct of the metrics of every operation, plus the statistics of every cache under {@code caches}.
+	 */
+	public IStruct getStats() {
+		IStruct stats = this.metrics.getStats();
+		stats.put( KeyDictionary.caches, getCacheStats() );
+		return stats;
+	}
+
+	/**
+	 * Get the watcher keeping watched files parsed in memory.
+	 *
+	 * @return The file watcher.
+	 */
+	public YamlFileWatcher getWatcher() {
+		return this.watcher;
+	}
+
+	/**
+	 * Get the engine pool backing this parser.
+	 *
+	 * @return The engine pool.
+	 */
+	public YamlEnginePool getPool() {
+		return this.pool;
 	}
 
 	/**
@@ -90,7 +324,24 @@ public class YamlParser {
 	 * @return The YAML string.
 	 */
 	public String serialize( IBoxContext context, Object obj ) {
-		return this.parser.dump( obj );
+		return serialize( context, obj, new SerializeOptions() );
+	}
+
+	/**
+	 * Serialize an object to a YAML string.
+	 *
+	 * @param context The context of execution
+	 * @param obj     The object to serialize.
+	 * @param options The serialization options.
+	 *
+	 * @return The YAML string.
+	 */
+	public String serialize( IBoxContext context, Object obj, SerializeOptions options ) {
+		return measure( Operation.SERIALIZE, context, null, () -> {
+			StringWriter writer = new StringWriter();
+			write( Collections.singletonList( obj ).iterator(), writer, options );
+			return writer.toString();
+		}, YamlParser::utf8Length );
 	}
 
 	/**
@@ -101,15 +352,97 @@ public class YamlParser {
 	 * @param charset The charset to use when writing the file.
 	 */
 	public void serializeToFile( IBoxContext context, Object obj, String path, String charset ) {
-		String filePath = FileSystemUtil.expandPath( context, path ).absolutePath().toString();
+		serializeToFile( context, obj, path, charset, new SerializeOptions() );
+	}
+
+	/**
+	 * Serialize an object directly to a file destination path.
+	 *
+	 * @param obj     The object to serialize.
+	 * @param path    The absolute path to serialize the object to.
+	 * @param charset The charset to use when writing the file.
+	 * @param options The serialization options.
+	 */
+	public void serializeToFile( IBoxContext context, Object obj, String path, String charset, SerializeOptions options ) {
+		Path filePath = resolvePath( context, path );
+		measure( Operation.SERIALIZE_FILE, context, filePath, () -> {
+			writeFile( Collections.singletonList( obj ).iterator(), filePath, charset, options );
+			return null;
+		}, result -> fileSize( filePath ) );
+	}
 
-		try ( FileWriter writer = new FileWriter( filePath, Charset.forName( charset ) ) ) {
-			this.parser.dump( obj, writer );
+	/**
+	 * Serialize every value of an iterable as a stream of {@code ---} separated YAML documents.
+	 *
+	 * @param context   The context of execution
+	 * @param documents The values to serialize, one document each: an array, a Java iterable or an iterator.
+	 * @param options   The serialization options.
+	 *
+	 * @return The YAML string.
+	 */
+	public String serializeAll( IBoxContext context, Object documents, SerializeOptions options ) {
+		return measure( Operation.SERIALIZE, context, null, () -> {
+			StringWriter writer = new StringWriter();
+			write( toIterator( documents ), writer, options );
+			return writer.toString();
+		}, YamlParser::utf8Length );
+	}
+
+	/**
+	 * Serialize every value of an iterable as a stream of {@code ---} separated YAML documents directly to a file.
+	 *
+	 * @param documents The values to serialize, one document each: an array, a Java iterable or an iterator.
+	 * @param path      The absolute path to serialize the documents to.
+	 * @param charset   The charset to use when writing the file.
+	 * @param options   The serialization options.
+	 */
+	public void serializeAllToFile( IBoxContext context, Object documents, String path, String charset, SerializeOptions options ) {
+		Path filePath = resolvePath( context, path );
+		measure( Operation.SERIALIZE_FILE, context, filePath, () -> {
+			writeFile( toIterator( documents ), filePath, charset, options );
+			return null;
+		}, result -> fileSize( filePath ) );
+	}
+
+	/**
+	 * Atomically write a stream of documents to a file.
+	 *
+	 * @param documents The values to serialize, one document each.
+	 * @param path      The absolute path to serialize the documents to.
+	 * @param charset   The charset to use when writing the file.
+	 * @param options   The serialization options.
+	 */
+	private void writeFile( Iterator<?> documents, Path path, String charset, SerializeOptions options ) {
+		try {
+			YamlFileUtil.atomicWrite( path, Charset.forName( charset ), writer -> write( documents, writer, options ) );
 		} catch ( IOException e ) {
 			throw new BoxIOException( "Error serializing yaml", e );
 		}
 	}
 
+	/**
+	 * Write a stream of documents with a borrowed engine.
+	 *
+	 * @param documents The values to serialize, one document each.
+	 * @param writer    The destination.
+	 * @param options   The serialization options.
+	 */
+	private void write( Iterator<?> documents, Writer writer, SerializeOptions options ) {
+		this.pool.execute( engine -> {
+			try {
+				YamlEventWriter eventWriter = new YamlEventWriter( engine, writer, options );
+				eventWriter.open();
+				while ( documents.hasNext() ) {
+					eventWriter.writeDocument( documents.next() );
+				}
+				eventWriter.close();
+			} catch ( IOException e ) {
+				throw new BoxIOException( "Error serializing yaml", e );
+			}
+			return null;
+		} );
+	}
+
 	/**
 	 * Deserialize a YAML string to an object.
 	 *
@@ -119,7 +452,44 @@ public class YamlParser {
 	 * @return The deserialized BoxLang Object.
 	 */
 	public Object deserialize( IBoxContext context, String yaml ) {
-		return this.parser.load( yaml );
+		return deserialize( context, yaml, this.deserializeOptions );
+	}
+
+	/**
+	 * Deserialize a YAML string to an object.
+	 *
+	 * @param context The context of execution
+	 * @param yaml    The YAML string to deserialize.
+	 * @param options The limits and alias handling of the call.
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	public Object deserialize( IBoxContext context, String yaml, DeserializeOptions options ) {
+		return measure( Operation.DESERIALIZE, context, null, () -> parseContent( yaml, options ), result -> utf8Length( yaml ) );
+	}
+
+	/**
+	 * Parse a YAML string, through the content cache if enabled.
+	 *
+	 * @param yaml    The YAML string to deserialize.
+	 * @param options The limits and alias handling of the call.
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	private Object parseContent( String yaml, DeserializeOptions options ) {
+		YamlCache<ContentKey> cache = cacheFor( this.contentCache, options );
+		if ( cache == null ) {
+			return this.pool.execute( engine -> load( engine.configure( options ), new StringReader( yaml ), options ) );
+		}
+
+		// The content itself is the stamp, so a hash collision is caught by a full comparison on hit
+		ContentKey	cacheKey	= new ContentKey( hash( yaml ), yaml.length() );
+		Object		parsed		= cache.get( cacheKey, yaml );
+		if ( parsed == null ) {
+			parsed = this.pool.execute( engine -> load( engine.configure( options ), new StringReader( yaml ), options ) );
+			cache.put( cacheKey, yaml, parsed, yaml.length() );
+		}
+		return DuplicationUtil.duplicate( parsed, true );
 	}
 
 	/**
@@ -132,13 +502,767 @@ public class YamlParser {
 	 * @return The deserialized BoxLang Object.
 	 */
 	public Object deserializeFromFile( IBoxContext context, String path, String charset ) {
-		String filePath = FileSystemUtil.expandPath( context, path ).absolutePath().toString();
+		return deserializeFromFile( context, path, charset, this.deserializeOptions );
+	}
+
+	/**
+	 * Deserialize a YAML file to an object.
+	 *
+	 * @param context The context of execution
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param options The limits and alias handling of the call.
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	public Object deserializeFromFile( IBoxContext context, String path, String charset, DeserializeOptions options ) {
+		Path filePath = resolvePath( context, path );
+		return measure( Operation.DESERIALIZE_FILE, context, filePath, () -> parseFile( filePath, charset, options ), result -> fileSize( filePath ) );
+	}
 
-		try ( FileReader reader = new FileReader( filePath, Charset.forName( charset ) ) ) {
-			return this.parser.load( reader );
+	/**
+	 * Parse a YAML file, through the file cache if enabled.
+	 *
+	 * @param filePath The absolute path to the YAML file.
+	 * @param charset  The charset to use when reading the file.
+	 * @param options  The limits and alias handling of the call.
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	private Object parseFile( Path filePath, String charset, DeserializeOptions options ) {
+		Charset				encoding	= Charset.forName( charset );
+		YamlCache<String>	cache		= cacheFor( this.fileCache, options );
+
+		if ( cache == null ) {
+			return readFile( filePath, encoding, options );
+		}
+
+		// Cached trees are never handed out, callers get a deep copy they are free to mutate
+		String		cacheKey	= encoding.name() + ":" + filePath;
+		FileStamp	stamp		= stampFile( filePath );
+		Object		parsed		= cache.get( cacheKey, stamp );
+		if ( parsed == null ) {
+			parsed = readFile( filePath, encoding, options );
+			cache.put( cacheKey, stamp, parsed, stamp.size() );
+		}
+		return DuplicationUtil.duplicate( parsed, true );
+	}
+
+	/**
+	 * Deserialize many YAML files in parallel, each on its own task of a BoxLang executor. Paths are expanded on the
+	 * calling thread. The first file that fails to deserialize fails the whole call, the remaining tasks are cancelled.
+	 *
+	 * @param context  The context of execution
+	 * @param paths    The paths to the YAML files.
+	 * @param charset  The charset to use when reading the files.
+	 * @param options  The limits and alias handling of the call.
+	 * @param executor An executor name or record, or null for the {@code asyncExecutor} module setting.
+	 *
+	 * @return A struct of the deserialized files, keyed by their path as given and in the same order.
+	 *
+	 * @throws BoxRuntimeException If two paths only differ by case, as struct keys are case-insensitive
+	 */
+	public IStruct deserializeFiles( IBoxContext context, List<String> paths, String charset, DeserializeOptions options, Object executor ) {
+		ExecutorService							service	= getExecutor( executor ).executor();
+		Map<String, CompletableFuture<Object>>	pending	= new LinkedHashMap<>();
+		Map<Key, String>						keys	= new HashMap<>();
+		for ( String path : paths ) {
+			// Keys are case-insensitive, so paths only differing by case would overwrite each other's result
+			String other = keys.putIfAbsent( Key.of( path ), path );
+			if ( other != null && !other.equals( path ) ) {
+				throw new BoxRuntimeException( "The yaml file paths [" + other + "] and [" + path + "] only differ by case, so they cannot both be keys of the result" );
+			}
+			String absolute = resolvePath( context, path ).toString();
+			pending.computeIfAbsent(
+			    path,
+			    key -> CompletableFuture.supplyAsync(
+			        () -> inThreadContext( context, taskContext -> deserializeFromFile( taskContext, absolute, charset, options ) ),
+			        service
+			    )
+			);
+		}
+
+		IStruct results = new Struct( IStruct.TYPES.LINKED );
+		for ( Map.Entry<String, CompletableFuture<Object>> entry : pending.entrySet() ) {
+			try {
+				results.put( Key.of( entry.getKey() ), entry.getValue().join() );
+			} catch ( CompletionException e ) {
+				pending.values().forEach( future -> future.cancel( false ) );
+				throw new BoxRuntimeException( "Error deserializing yaml file [" + entry.getKey() + "]: " + e.getCause().getMessage(), e.getCause() );
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Deserialize YAML files and deep merge them in order, each layer overriding the ones before it, see
+	 * {@link YamlMerger}. Through the merge cache, if enabled, the merge is reused as long as no file changed, and only
+	 * the changed files are parsed again and merged from the first of them on.
+	 *
+	 * @param context  The context of execution
+	 * @param paths    The paths to the YAML files, in layer order.
+	 * @param strategy The array merge strategy.
+	 * @param charset  The charset to use when reading the files.
+	 * @param options  The limits of the call.
+	 *
+	 * @return The merged BoxLang Object.
+	 */
+	public Object mergeFiles( IBoxContext context, List<String> paths, Strategy strategy, String charset, DeserializeOptions options ) {
+		Charset				encoding	= Charset.forName( charset );
+		List<Path>			files		= new ArrayList<>( paths.size() );
+		List<FileStamp>		stamps		= new ArrayList<>( paths.size() );
+		for ( String path : paths ) {
+			Path filePath = resolvePath( context, path );
+			files.add( filePath );
+			stamps.add( stampFile( filePath ) );
+		}
+
+		IntFunction<Object>	loader	= index -> readFile( files.get( index ), encoding, options );
+		YamlCache<MergeKey>	cache	= cacheFor( this.mergeCache, options );
+		if ( cache == null ) {
+			return YamlMerger.merge( strategy, stamps, loader ).getResult();
+		}
+
+		// The merge is shared by later merges of the same files, callers get a deep copy they are free to mutate
+		MergeKey	cacheKey	= new MergeKey( encoding.name(), strategy, List.copyOf( files ) );
+		Object		cached		= cache.get( cacheKey, stamps );
+		if ( cached == null ) {
+			YamlMerger previous = ( YamlMerger ) cache.peek( cacheKey );
+			cached = previous == null ? YamlMerger.merge( strategy, stamps, loader ) : previous.update( stamps, loader );
+			cache.put( cacheKey, stamps, cached, stamps.stream().mapToLong( FileStamp::size ).sum() );
+		}
+		return DuplicationUtil.duplicate( ( ( YamlMerger ) cached ).getResult(), true );
+	}
+
+	/**
+	 * Parse a YAML file, through its snapshot if the {@code snapshots} module setting is on and the call uses the
+	 * default options.
+	 *
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param options The limits and alias handling of the call.
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	private Object readFile( Path path, Charset charset, DeserializeOptions options ) {
+		if ( this.snapshots && options == this.deserializeOptions && !options.isSharedAliases() && !options.isLazy() ) {
+			return readSnapshot( path, charset, options );
+		}
+		return loadFile( path, charset, options );
+	}
+
+	/**
+	 * Parse a YAML file, never through its snapshot.
+	 *
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param options The limits and alias handling of the call.
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	private Object loadFile( Path path, Charset charset, DeserializeOptions options ) {
+		try ( Reader reader = YamlFileUtil.newReader( path, charset ) ) {
+			return this.pool.execute( engine -> load( engine.configure( options ), reader, options ) );
 		} catch ( IOException e ) {
 			throw new BoxIOException( "Error deserializing yaml", e );
 		}
 	}
 
+	/**
+	 * Read a YAML file through its binary snapshot, see {@link YamlSnapshot}. A fresh snapshot is loaded instead of
+	 * parsing the file. Otherwise the file is parsed and its snapshot written again, unless the file changed meanwhile.
+	 * Failing to write the snapshot is not an error, the parsed file is returned regardless.
+	 *
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param options The default deserialization options.
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	private Object readSnapshot( Path path, Charset charset, DeserializeOptions options ) {
+		Path	snapshot	= YamlSnapshot.pathFor( path );
+		byte[]	sourceHash;
+		try {
+			sourceHash = YamlSnapshot.hash( path );
+			YamlSnapshot.Loaded loaded = YamlSnapshot.read( snapshot, charset.name(), options.isRawTimestamps(), sourceHash );
+			if ( loaded != null ) {
+				return loaded.value();
+			}
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error deserializing yaml", e );
+		}
+
+		Object value = loadFile( path, charset, options );
+		try {
+			if ( Arrays.equals( sourceHash, YamlSnapshot.hash( path ) ) ) {
+				YamlSnapshot.write( snapshot, value, charset.name(), options.isRawTimestamps(), sourceHash );
+			}
+		} catch ( IOException | BoxRuntimeException e ) {
+			BoxRuntime.getInstance().getLoggingService().RUNTIME_LOGGER.warn( "Error writing the yaml snapshot [{}]: {}", snapshot, e.getMessage() );
+		}
+		return value;
+	}
+
+	/**
+	 * Compile a YAML file into its binary snapshot, see {@link YamlSnapshot}, so later reads through snapshots skip
+	 * parsing it. The file is parsed with the default limits, aliases always being copied. Recursive documents, whose
+	 * anchors alias themselves, cannot be compiled.
+	 *
+	 * @param context The context of execution
+	 * @param path    The path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 *
+	 * @return The absolute path of the snapshot.
+	 */
+	public String compileFile( IBoxContext context, String path, String charset ) {
+		Path				filePath	= resolvePath( context, path );
+		Path				snapshot	= YamlSnapshot.pathFor( filePath );
+		Charset				encoding	= Charset.forName( charset );
+		DeserializeOptions	options		= this.deserializeOptions.copy().setSharedAliases( false );
+		try {
+			byte[] sourceHash = YamlSnapshot.hash( filePath );
+			YamlSnapshot.write( snapshot, loadFile( filePath, encoding, options ), encoding.name(), options.isRawTimestamps(), sourceHash );
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error compiling yaml snapshot", e );
+		}
+		return snapshot.toString();
+	}
+
+	/**
+	 * Deserialize only the values selected by a path out of a YAML string, see {@link YamlPathReader}.
+	 *
+	 * @param context The context of execution
+	 * @param yaml    The YAML string to read.
+	 * @param path    The path selecting the values to deserialize.
+	 * @param options The limits and alias handling of the call.
+	 *
+	 * @return An array of the selected values if the path has a wildcard, else the selected value or null.
+	 */
+	public Object select( IBoxContext context, String yaml, YamlPath path, DeserializeOptions options ) {
+		return this.pool.execute( engine -> new YamlPathReader( engine.configure( options ), path ).read( new StringReader( yaml ) ) );
+	}
+
+	/**
+	 * Deserialize only the values selected by a path out of a YAML file, see {@link YamlPathReader}. The file is
+	 * read up to the point where no further match is possible.
+	 *
+	 * @param context The context of execution
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param select  The path selecting the values to deserialize.
+	 * @param options The limits and alias handling of the call.
+	 *
+	 * @return An array of the selected values if the path has a wildcard, else the selected value or null.
+	 */
+	public Object selectFromFile( IBoxContext context, String path, String charset, YamlPath select, DeserializeOptions options ) {
+		try ( Reader reader = YamlFileUtil.newReader( resolvePath( context, path ), Charset.forName( charset ) ) ) {
+			return this.pool.execute( engine -> new YamlPathReader( engine.configure( options ), select ).read( reader ) );
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error deserializing yaml", e );
+		}
+	}
+
+	/**
+	 * Load a single document with a configured engine, lazily if requested and not bound to a class
+	 *
+	 * @param engine  The borrowed engine, configured with the options
+	 * @param reader  The YAML source
+	 * @param options The options of the call
+	 *
+	 * @return The deserialized BoxLang Object.
+	 */
+	private Object load( YamlEngine engine, Reader reader, DeserializeOptions options ) {
+		if ( options.isLazy() && options.getBinding() == null ) {
+			Object document = new LazyDocument( this.pool, options, engine.loaderOptions().isAllowDuplicateKeys() )
+			    .construct( engine.yaml().compose( reader ) );
+			if ( this.metrics.isEnabled() ) {
+				this.metrics.recordDocument( 0 );
+			}
+			return document;
+		}
+
+		Object document = engine.yaml().load( reader );
+		if ( this.metrics.isEnabled() ) {
+			this.metrics.recordDocument( engine.constructor().getValueCount() );
+		}
+		return document;
+	}
+
+	/**
+	 * Run a parser call, recording its metrics and announcing it to the {@code onYamlParse} or {@code onYamlSerialize}
+	 * interceptors. With metrics disabled and no interceptor listening, the work runs as is.
+	 *
+	 * @param operation The operation of the call
+	 * @param context   The context of execution
+	 * @param path      The file read or written, if any
+	 * @param work      The call itself
+	 * @param size      Get the size of what went in or out of a successful call
+	 *
+	 * @return The result of the call
+	 */
+	private <T> T measure( Operation operation, IBoxContext context, Path path, Supplier<T> work, ToLongFunction<T> size ) {
+		Key					point			= isParse( operation ) ? KeyDictionary.onYamlParse : KeyDictionary.onYamlSerialize;
+		InterceptorService	interceptors	= BoxRuntime.getInstance().getInterceptorService();
+		boolean				announce		= interceptors.hasState( point ) && interceptors.getState( point ).size() > 0;
+		boolean				record			= this.metrics.isEnabled();
+		if ( !record && !announce ) {
+			return work.get();
+		}
+
+		long	start	= System.nanoTime();
+		T		result;
+		try {
+			result = work.get();
+		} catch ( RuntimeException e ) {
+			if ( record ) {
+				this.metrics.record( operation, System.nanoTime() - start, 0, true );
+			}
+			throw e;
+		}
+		long	nanos	= System.nanoTime() - start;
+		long	bytes	= size.applyAsLong( result );
+
+		if ( record ) {
+			this.metrics.record( operation, nanos, bytes, false );
+		}
+		if ( announce ) {
+			interceptors.announce(
+			    point,
+			    Struct.of(
+			        KeyDictionary.operation, operation.getKey().getName(),
+			        Key.path, path == null ? null : path.toString(),
+			        KeyDictionary.bytes, bytes,
+			        Key.executionTime, TimeUnit.NANOSECONDS.toMillis( nanos ),
+			        Key.result, result
+			    ),
+			    context
+			);
+		}
+		return result;
+	}
+
+	/**
+	 * Whether an operation parses YAML, as opposed to writing it.
+	 *
+	 * @param operation The operation
+	 *
+	 * @return True for deserialization
+	 */
+	private static boolean isParse( Operation operation ) {
+		return operation == Operation.DESERIALIZE || operation == Operation.DESERIALIZE_FILE;
+	}
+
+	/**
+	 * Get the size of a file, for the metrics.
+	 *
+	 * @param path The absolute path to the file.
+	 *
+	 * @return The size in bytes, or 0 if it cannot be read.
+	 */
+	private static long fileSize( Path path ) {
+		try {
+			return Files.size( path );
+		} catch ( IOException e ) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Get the size of a string once encoded in UTF-8, without encoding it, so strings and files are measured alike.
+	 *
+	 * @param string The string.
+	 *
+	 * @return The number of UTF-8 bytes.
+	 */
+	private static long utf8Length( String string ) {
+		long	bytes	= string.length();
+		int		length	= string.length();
+		for ( int i = 0; i < length; i++ ) {
+			char c = string.charAt( i );
+			if ( c >= 0x800 ) {
+				// Three bytes, or four for a surrogate pair counted as two chars
+				bytes += Character.isSurrogate( c ) ? 1 : 2;
+			} else if ( c >= 0x80 ) {
+				bytes++;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Get the current stamp of a file.
+	 *
+	 * @param path The absolute path to the file.
+	 *
+	 * @return The modification time and size of the file.
+	 */
+	private static FileStamp stampFile( Path path ) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes( path, BasicFileAttributes.class );
+			return new FileStamp( attributes.lastModifiedTime(), attributes.size() );
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error deserializing yaml", e );
+		}
+	}
+
+	/**
+	 * Deserialize a stream of {@code ---} separated YAML documents lazily, one document at a time.
+	 *
+	 * @param context The context of execution
+	 * @param yaml    The YAML string to deserialize.
+	 *
+	 * @return A lazy iterator over the deserialized documents.
+	 */
+	public YamlDocumentIterator deserializeAll( IBoxContext context, String yaml ) {
+		return deserializeAll( context, yaml, this.deserializeOptions );
+	}
+
+	/**
+	 * Deserialize a stream of {@code ---} separated YAML documents lazily, one document at a time.
+	 *
+	 * @param context The context of execution
+	 * @param yaml    The YAML string to deserialize.
+	 * @param options The limits and alias handling applied to every document.
+	 *
+	 * @return A lazy iterator over the deserialized documents.
+	 */
+	public YamlDocumentIterator deserializeAll( IBoxContext context, String yaml, DeserializeOptions options ) {
+		return new YamlDocumentIterator( this.pool, new StringReader( yaml ), options );
+	}
+
+	/**
+	 * Deserialize a file of {@code ---} separated YAML documents lazily, one document at a time.
+	 *
+	 * @param context The context of execution
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 *
+	 * @return A lazy iterator over the deserialized documents. It keeps the file open until exhausted or closed.
+	 */
+	public YamlDocumentIterator deserializeFileAll( IBoxContext context, String path, String charset ) {
+		return deserializeFileAll( context, path, charset, this.deserializeOptions );
+	}
+
+	/**
+	 * Deserialize a file of {@code ---} separated YAML documents lazily, one document at a time.
+	 *
+	 * @param context The context of execution
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param options The limits and alias handling applied to every document.
+	 *
+	 * @return A lazy iterator over the deserialized documents. It keeps the file open until exhausted or closed.
+	 */
+	public YamlDocumentIterator deserializeFileAll( IBoxContext context, String path, String charset, DeserializeOptions options ) {
+		try {
+			return new YamlDocumentIterator(
+			    this.pool,
+			    YamlFileUtil.newReader( resolvePath( context, path ), Charset.forName( charset ) ),
+			    options
+			);
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error deserializing yaml", e );
+		}
+	}
+
+	/**
+	 * Deserialize a stream of {@code ---} separated YAML documents in parallel. The stream is split into its documents
+	 * by the {@link YamlDocumentSplitter}, which are then parsed on the common fork-join pool, every one with an engine
+	 * of its own and within a thread context of the caller, so timestamps without a zone get the request timezone on
+	 * every thread. Limits apply to every document, the max input size included.
+	 *
+	 * @param context The context of execution
+	 * @param yaml    The YAML string to deserialize.
+	 * @param options The limits and alias handling applied to every document.
+	 *
+	 * @return An array of the deserialized documents, in stream order.
+	 */
+	public Array deserializeAllParallel( IBoxContext context, String yaml, DeserializeOptions options ) {
+		List<String>		sources		= YamlDocumentSplitter.split( yaml );
+		List<List<Object>>	parsed		= IntStream.range( 0, sources.size() )
+		    .parallel()
+		    .mapToObj( index -> inThreadContext( context, taskContext -> loadDocuments( sources.get( index ), index, options ) ) )
+		    .toList();
+		Array				documents	= new Array( sources.size() );
+		parsed.forEach( documents::addAll );
+		return documents;
+	}
+
+	/**
+	 * Deserialize a file of {@code ---} separated YAML documents in parallel, see
+	 * {@link #deserializeAllParallel(IBoxContext, String, DeserializeOptions)}. The whole file is read in memory.
+	 *
+	 * @param context The context of execution
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param options The limits and alias handling applied to every document.
+	 *
+	 * @return An array of the deserialized documents, in stream order.
+	 */
+	public Array deserializeFileAllParallel( IBoxContext context, String path, String charset, DeserializeOptions options ) {
+		try {
+			return deserializeAllParallel( context, Files.readString( resolvePath( context, path ), Charset.forName( charset ) ), options );
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error deserializing yaml", e );
+		}
+	}
+
+	/**
+	 * Load the documents of a piece of a YAML stream, usually a single one.
+	 *
+	 * @param source  The YAML source of the piece.
+	 * @param index   The 0-based position of the piece in the stream.
+	 * @param options The limits and alias handling applied to every document.
+	 *
+	 * @return The deserialized documents.
+	 */
+	private List<Object> loadDocuments( String source, int index, DeserializeOptions options ) {
+		try {
+			return this.pool.execute( engine -> {
+				List<Object> documents = new ArrayList<>( 1 );
+				engine.configure( options ).yaml().loadAll( source ).forEach( documents::add );
+				return documents;
+			} );
+		} catch ( RuntimeException e ) {
+			throw new BoxRuntimeException( "Error deserializing yaml document [" + ( index + 1 ) + "]: " + e.getMessage(), e );
+		}
+	}
+
+	/**
+	 * Hand every document of a lazy document iterator to a handler, closing the iterator when done.
+	 *
+	 * @param documents The documents to visit.
+	 * @param handler   The handler receiving each document and its 1-based position.
+	 *
+	 * @return The number of documents visited.
+	 */
+	public long forEachDocument( YamlDocumentIterator documents, YamlStreamReader.ItemHandler handler ) {
+		try ( documents ) {
+			long count = 0;
+			while ( documents.hasNext() ) {
+				count++;
+				if ( !handler.handle( documents.next(), count ) ) {
+					break;
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Hand every document of an array of deserialized documents to a handler.
+	 *
+	 * @param documents The documents to visit.
+	 * @param handler   The handler receiving each document and its 1-based position.
+	 *
+	 * @return The number of documents visited.
+	 */
+	public long forEachDocument( Array documents, YamlStreamReader.ItemHandler handler ) {
+		long count = 0;
+		for ( Object document : documents ) {
+			count++;
+			if ( !handler.handle( document, count ) ) {
+				break;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Stream a YAML file item by item, without materializing the whole document in memory.
+	 *
+	 * @param context The context of execution
+	 * @param path    The absolute path to the YAML file.
+	 * @param charset The charset to use when reading the file.
+	 * @param handler The handler receiving every item, see {@link YamlStreamReader}.
+	 *
+	 * @return The number of items streamed.
+	 */
+	public long streamFile( IBoxContext context, String path, String charset, YamlStreamReader.ItemHandler handler ) {
+		try ( Reader reader = YamlFileUtil.newReader( resolvePath( context, path ), Charset.forName( charset ) ) ) {
+			DeserializeOptions options = this.deserializeOptions;
+			return this.pool.execute( engine -> new YamlStreamReader( engine.configure( options ) ).stream( reader, handler ) );
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error streaming yaml", e );
+		}
+	}
+
+	/**
+	 * Transcode YAML to JSON straight from the parser events, without building BoxLang values, see
+	 * {@link YamlJsonTranscoder}. Every document of a stream is written as one line separated JSON value.
+	 *
+	 * @param context     The context of execution
+	 * @param content     The YAML string, or null to read the file.
+	 * @param path        The path to the YAML file, read when there is no content.
+	 * @param destination The path to the JSON file to write, or null to return the JSON.
+	 * @param charset     The charset to use when reading and writing files.
+	 * @param options     The limits of the call.
+	 * @param pretty      Whether the JSON is pretty printed.
+	 *
+	 * @return The JSON string, or null if it was written to the destination.
+	 */
+	public String yamlToJson( IBoxContext context, String content, String path, String destination, String charset, DeserializeOptions options,
+	    boolean pretty ) {
+		return transcode( context, content, path, destination, charset, ( reader, writer ) -> this.pool.execute( engine -> {
+			try {
+				return new YamlJsonTranscoder( engine.configure( options ), options ).yamlToJson( reader, writer, pretty );
+			} catch ( IOException e ) {
+				throw new BoxIOException( "Error transcoding yaml to json", e );
+			}
+		} ) );
+	}
+
+	/**
+	 * Transcode JSON to YAML straight from the JSON tokens, without building BoxLang values, see
+	 * {@link YamlJsonTranscoder}. Every root value of a stream is written as its own YAML document.
+	 *
+	 * @param context     The context of execution
+	 * @param content     The JSON string, or null to read the file.
+	 * @param path        The path to the JSON file, read when there is no content.
+	 * @param destination The path to the YAML file to write, or null to return the YAML.
+	 * @param charset     The charset to use when reading and writing files.
+	 *
+	 * @return The YAML string, or null if it was written to the destination.
+	 */
+	public String jsonToYaml( IBoxContext context, String content, String path, String destination, String charset ) {
+		DeserializeOptions options = this.deserializeOptions;
+		return transcode( context, content, path, destination, charset, ( reader, writer ) -> this.pool.execute( engine -> {
+			try {
+				return new YamlJsonTranscoder( engine, options ).jsonToYaml( reader, writer );
+			} catch ( IOException e ) {
+				throw new BoxIOException( "Error transcoding json to yaml", e );
+			}
+		} ) );
+	}
+
+	/**
+	 * Run a transcoding from a string or file to a string or file. Files are read and written through buffered
+	 * streams, and the destination is written atomically.
+	 *
+	 * @param context     The context of execution
+	 * @param content     The source string, or null to read the file.
+	 * @param path        The path to the source file, read when there is no content.
+	 * @param destination The path to the file to write, or null to return the result.
+	 * @param charset     The charset to use when reading and writing files.
+	 * @param work        The transcoding from a reader to a writer.
+	 *
+	 * @return The result, or null if it was written to the destination.
+	 */
+	private String transcode( IBoxContext context, String content, String path, String destination, String charset, BiConsumer<Reader, Writer> work ) {
+		Charset encoding = Charset.forName( charset );
+		try ( Reader reader = content != null ? new StringReader( content ) : YamlFileUtil.newReader( resolvePath( context, path ), encoding ) ) {
+			if ( destination == null ) {
+				StringWriter writer = new StringWriter();
+				work.accept( reader, writer );
+				return writer.toString();
+			}
+			YamlFileUtil.atomicWrite( resolvePath( context, destination ), encoding, writer -> work.accept( reader, writer ) );
+			return null;
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Error transcoding" + ( content != null ? "" : " [" + path + "]" ), e );
+		}
+	}
+
+	/**
+	 * Get the cache to use for a call. Calls overriding the default options, sharing aliases or building lazy structs
+	 * are never cached: their limits must be checked against the content, and cached trees are only ever handed out
+	 * as copies.
+	 *
+	 * @param cache   The cache, or null if disabled
+	 * @param options The options of the call
+	 *
+	 * @return The cache, or null if the call must not be cached
+	 */
+	private <K> YamlCache<K> cacheFor( YamlCache<K> cache, DeserializeOptions options ) {
+		return options == this.deserializeOptions && !options.isSharedAliases() && !options.isLazy() ? cache : null;
+	}
+
+	/**
+	 * Compute the 64-bit FNV-1a hash of a string
+	 *
+	 * @param content The string to hash.
+	 *
+	 * @return The hash.
+	 */
+	private static long hash( String content ) {
+		long hash = 0xcbf29ce484222325L;
+		for ( int i = 0; i < content.length(); i++ ) {
+			hash	^= content.charAt( i );
+			hash	*= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Get the settings of this module, if it is loaded.
+	 *
+	 * @return The module settings, or an empty struct.
+	 */
+	private static IStruct loadModuleSettings() {
+		ModuleService moduleService = BoxRuntime.getInstance().getModuleService();
+		if ( moduleService.hasModule( KeyDictionary.moduleName ) ) {
+			return moduleService.getModuleSettings( KeyDictionary.moduleName );
+		}
+		return new Struct();
+	}
+
+	/**
+	 * Build a cache from its settings: {@code enabled}, {@code maxEntries} and {@code maxWeight}.
+	 *
+	 * @param settings The cache settings struct, if any.
+	 *
+	 * @return The cache, or null if it is not enabled.
+	 */
+	private static <K> YamlCache<K> buildCache( Object settings ) {
+		if ( ! ( settings instanceof IStruct cacheSettings ) || !BooleanCaster.cast( cacheSettings.getOrDefault( Key.enabled, false ) ) ) {
+			return null;
+		}
+		return new YamlCache<>(
+		    IntegerCaster.cast( cacheSettings.getOrDefault( KeyDictionary.maxEntries, 500 ) ),
+		    LongCaster.cast( cacheSettings.getOrDefault( KeyDictionary.maxWeight, 50L * 1024 * 1024 ) )
+		);
+	}
+
+	/**
+	 * Get the statistics of a cache.
+	 *
+	 * @param cache The cache, or null if it is disabled.
+	 *
+	 * @return The cache statistics, flagged with whether the cache is enabled.
+	 */
+	private static IStruct cacheStats( YamlCache<?> cache ) {
+		IStruct stats = cache == null ? new Struct() : cache.getStats();
+		stats.put( Key.enabled, cache != null );
+		return stats;
+	}
+
+	/**
+	 * Expand a BoxLang path to an absolute file path.
+	 *
+	 * @param context The context of execution
+	 * @param path    The path to expand.
+	 *
+	 * @return The absolute file path.
+	 */
+	static Path resolvePath( IBoxContext context, String path ) {
+		return FileSystemUtil.expandPath( context, path ).absolutePath();
+	}
+
+	/**
+	 * Get an iterator over the documents to serialize.
+	 *
+	 * @param documents An array, a Java iterable or an iterator.
+	 *
+	 * @return The iterator.
+	 */
+	private static Iterator<?> toIterator( Object documents ) {
+		if ( documents instanceof Iterator<?> iterator ) {
+			return iterator;
+		}
+		if ( documents instanceof Iterable<?> iterable ) {
+			return iterable.iterator();
+		}
+		throw new BoxRuntimeException( "Multi-document serialization requires an array or iterable, but received " + ( documents == null ? "null" : documents.getClass().getName() ) );
+	}
+
 }
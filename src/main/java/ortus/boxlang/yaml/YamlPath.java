@@ -0,0 +1,238 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+
+/**
+ * A compiled path selecting values inside a YAML document, such as {@code spring.datasource} or {@code items[*].id}.
+ * <p>
+ * A path is a list of segments:
+ * <ul>
+ * <li>{@code name} or {@code ["name"]} selects a mapping key, matched case insensitively like BoxLang keys. The
+ * bracket form allows keys containing dots or brackets.</li>
+ * <li>{@code [n]} selects the 0-based item {@code n} of a sequence.</li>
+ * <li>{@code *} or {@code [*]} selects every item of a sequence or every value of a mapping.</li>
+ * </ul>
+ */
+public class YamlPath {
+
+	/**
+	 * One step of a path
+	 *
+	 * @param key      The mapping key to select, or null
+	 * @param index    The sequence index to select, or -1
+	 * @param wildcard Whether every child is selected
+	 */
+	public record Segment( Key key, int index, boolean wildcard ) {
+
+		/**
+		 * Whether this segment selects a mapping key
+		 *
+		 * @return True for key segments
+		 */
+		public boolean isKey() {
+			return this.key != null;
+		}
+
+		/**
+		 * Whether this segment selects a sequence item
+		 *
+		 * @return True for index segments
+		 */
+		public boolean isIndex() {
+			return this.index >= 0;
+		}
+	}
+
+	/**
+	 * The path expression
+	 */
+	private final String		expression;
+
+	/**
+	 * The segments of the path
+	 */
+	private final Segment[]		segments;
+
+	/**
+	 * Whether any segment is a wildcard
+	 */
+	private final boolean		wildcard;
+
+	/**
+	 * Constructor
+	 *
+	 * @param expression The path expression
+	 * @param segments   The parsed segments
+	 */
+	private YamlPath( String expression, Segment[] segments ) {
+		this.expression	= expression;
+		this.segments	= segments;
+		boolean hasWildcard = false;
+		for ( Segment segment : segments ) {
+			hasWildcard |= segment.wildcard();
+		}
+		this.wildcard = hasWildcard;
+	}
+
+	/**
+	 * Compile a path expression
+	 *
+	 * @param expression The path expression, for example {@code items[*].id}
+	 *
+	 * @return The compiled path
+	 */
+	public static YamlPath compile( String expression ) {
+		List<Segment>	segments	= new ArrayList<>();
+		int				length		= expression.length();
+		int				i			= 0;
+		boolean			expectName	= true;
+
+		while ( i < length ) {
+			char c = expression.charAt( i );
+			if ( c == '[' ) {
+				int close = findClosingBracket( expression, i );
+				segments.add( parseBracket( expression, expression.substring( i + 1, close ).strip() ) );
+				i			= close + 1;
+				expectName	= false;
+			} else if ( c == '.' ) {
+				if ( expectName ) {
+					throw invalid( expression, "empty segment" );
+				}
+				i++;
+				expectName = true;
+				if ( i == length ) {
+					throw invalid( expression, "empty segment" );
+				}
+			} else {
+				if ( !expectName ) {
+					throw invalid( expression, "missing '.' before [" + expression.substring( i ) + "]" );
+				}
+				int end = i;
+				while ( end < length && expression.charAt( end ) != '.' && expression.charAt( end ) != '[' ) {
+					end++;
+				}
+				String name = expression.substring( i, end ).strip();
+				if ( name.isEmpty() ) {
+					throw invalid( expression, "empty segment" );
+				}
+				segments.add( name.equals( "*" ) ? new Segment( null, -1, true ) : new Segment( Key.of( name ), -1, false ) );
+				i			= end;
+				expectName	= false;
+			}
+		}
+
+		if ( segments.isEmpty() ) {
+			throw invalid( expression, "the path is empty" );
+		}
+		return new YamlPath( expression, segments.toArray( new Segment[ 0 ] ) );
+	}
+
+	/**
+	 * Find the bracket closing the one at the given position, skipping quoted keys
+	 *
+	 * @param expression The path expression
+	 * @param open       The position of the opening bracket
+	 *
+	 * @return The position of the closing bracket
+	 */
+	private static int findClosingBracket( String expression, int open ) {
+		char quote = 0;
+		for ( int i = open + 1; i < expression.length(); i++ ) {
+			char c = expression.charAt( i );
+			if ( quote != 0 ) {
+				if ( c == quote ) {
+					quote = 0;
+				}
+			} else if ( c == '"' || c == '\'' ) {
+				quote = c;
+			} else if ( c == ']' ) {
+				return i;
+			}
+		}
+		throw invalid( expression, "unclosed '['" );
+	}
+
+	/**
+	 * Parse the content of a bracket segment: a wildcard, an index or a quoted key
+	 *
+	 * @param expression The path expression
+	 * @param content    The content between the brackets
+	 *
+	 * @return The segment
+	 */
+	private static Segment parseBracket( String expression, String content ) {
+		if ( content.equals( "*" ) ) {
+			return new Segment( null, -1, true );
+		}
+		if ( content.length() >= 2 && ( content.charAt( 0 ) == '"' || content.charAt( 0 ) == '\'' )
+		    && content.charAt( content.length() - 1 ) == content.charAt( 0 ) ) {
+			return new Segment( Key.of( content.substring( 1, content.length() - 1 ) ), -1, false );
+		}
+		try {
+			int index = Integer.parseInt( content );
+			if ( index >= 0 ) {
+				return new Segment( null, index, false );
+			}
+		} catch ( NumberFormatException e ) {
+			// Reported below
+		}
+		throw invalid( expression, "[" + content + "] is not an index, a quoted key or *" );
+	}
+
+	/**
+	 * Build the error of an invalid expression
+	 *
+	 * @param expression The path expression
+	 * @param reason     Why it is invalid
+	 *
+	 * @return The exception to throw
+	 */
+	private static BoxRuntimeException invalid( String expression, String reason ) {
+		return new BoxRuntimeException( "Invalid YAML path [" + expression + "]: " + reason );
+	}
+
+	/**
+	 * Get the segments of the path
+	 *
+	 * @return The segments
+	 */
+	public Segment[] getSegments() {
+		return this.segments;
+	}
+
+	/**
+	 * Whether the path contains a wildcard, and therefore selects a list of values
+	 *
+	 * @return True if the path has a wildcard
+	 */
+	public boolean hasWildcard() {
+		return this.wildcard;
+	}
+
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+}
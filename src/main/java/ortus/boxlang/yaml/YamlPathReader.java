@@ -0,0 +1,345 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.yaml.YamlPath.Segment;
+import ortus.boxlang.yaml.util.YamlKeyInterner;
+
+/**
+ * Reads only the values selected by a {@link YamlPath} out of the first document of a YAML stream.
+ * <p>
+ * The path is matched against the parser events as they are read. Subtrees off the path are skipped without being
+ * composed or constructed, only the selected values are built into BoxLang objects, and reading stops as soon as no
+ * further match is possible. A path without wildcards therefore never reads past its target.
+ * <p>
+ * Anchored nodes are always composed, as later aliases may point to them, and the path continues through aliases and
+ * merge keys ({@code <<}) on the composed nodes.
+ */
+public class YamlPathReader {
+
+	/**
+	 * The engine providing the constructor, resolver and limits
+	 */
+	private final YamlEngine	engine;
+
+	/**
+	 * The path to select
+	 */
+	private final YamlPath		path;
+
+	/**
+	 * The segments of the path
+	 */
+	private final Segment[]		segments;
+
+	/**
+	 * The selected values
+	 */
+	private final Array			matches	= new Array();
+
+	/**
+	 * The composer of the current read
+	 */
+	private YamlNodeComposer	composer;
+
+	/**
+	 * Constructor
+	 *
+	 * @param engine The engine providing the constructor, resolver and limits. It must not be used elsewhere while reading.
+	 * @param path   The path to select
+	 */
+	public YamlPathReader( YamlEngine engine, YamlPath path ) {
+		this.engine		= engine;
+		this.path		= path;
+		this.segments	= path.getSegments();
+	}
+
+	/**
+	 * Read the values selected by the path
+	 *
+	 * @param reader The YAML source
+	 *
+	 * @return An array of every selected value if the path has a wildcard, else the selected value or null if there
+	 *         is none
+	 */
+	public Object read( Reader reader ) {
+		this.composer = new YamlNodeComposer(
+		    new ParserImpl( new StreamReader( reader ), this.engine.loaderOptions() ),
+		    this.engine.resolver(),
+		    this.engine.loaderOptions()
+		);
+
+		this.composer.expect( Event.ID.StreamStart );
+		if ( !this.composer.check( Event.ID.StreamEnd ) ) {
+			this.composer.expect( Event.ID.DocumentStart );
+			select( 0, true );
+		}
+
+		if ( this.path.hasWildcard() ) {
+			return this.matches;
+		}
+		return this.matches.isEmpty() ? null : this.matches.get( 0 );
+	}
+
+	/**
+	 * Match the next node of the event stream against the path
+	 *
+	 * @param index   The index of the segment to match
+	 * @param canStop Whether reading may stop once this node is matched, which is the case when no ancestor is a
+	 *                wildcard
+	 *
+	 * @return True if reading stopped, leaving the rest of the stream unread
+	 */
+	private boolean select( int index, boolean canStop ) {
+		if ( index == this.segments.length ) {
+			this.matches.add( construct( this.composer.composeNode() ) );
+			return canStop;
+		}
+
+		Event event = this.composer.peek();
+		if ( event instanceof AliasEvent || ( event instanceof NodeEvent node && node.getAnchor() != null ) ) {
+			selectNode( this.composer.composeNode(), index );
+			return canStop;
+		}
+
+		Segment segment = this.segments[ index ];
+		if ( event.is( Event.ID.MappingStart ) && !segment.isIndex() ) {
+			return selectInMapping( segment, index, canStop );
+		}
+		if ( event.is( Event.ID.SequenceStart ) && !segment.isKey() ) {
+			return selectInSequence( segment, index, canStop );
+		}
+
+		this.composer.skipNode();
+		return canStop;
+	}
+
+	/**
+	 * Match a key or wildcard segment against the entries of a mapping in the event stream
+	 *
+	 * @param segment The segment to match
+	 * @param index   The index of the segment
+	 * @param canStop Whether reading may stop once this mapping is matched
+	 *
+	 * @return True if reading stopped
+	 */
+	private boolean selectInMapping( Segment segment, int index, boolean canStop ) {
+		List<Node>	merges	= new ArrayList<>();
+		Set<Key>	seen	= new HashSet<>();
+		boolean		found	= false;
+
+		this.composer.startCollection();
+		while ( !this.composer.check( Event.ID.MappingEnd ) ) {
+			Node keyNode = this.composer.composeNode();
+			if ( keyNode.getTag().equals( Tag.MERGE ) ) {
+				merges.add( this.composer.composeNode() );
+				continue;
+			}
+
+			Key key = toKey( keyNode );
+			if ( segment.wildcard() ) {
+				seen.add( key );
+				select( index + 1, false );
+			} else if ( key != null && key.equals( segment.key() ) ) {
+				select( index + 1, canStop );
+				if ( canStop ) {
+					return true;
+				}
+				found = true;
+				while ( !this.composer.check( Event.ID.MappingEnd ) ) {
+					this.composer.skipNode();
+				}
+			} else {
+				this.composer.skipNode();
+			}
+		}
+		this.composer.endCollection();
+
+		// Explicit keys take precedence over merged ones
+		if ( !found && !merges.isEmpty() ) {
+			Map<Key, Node> merged = new LinkedHashMap<>();
+			for ( Node merge : merges ) {
+				collectMerged( merge, merged );
+			}
+			if ( segment.wildcard() ) {
+				for ( Map.Entry<Key, Node> entry : merged.entrySet() ) {
+					if ( !seen.contains( entry.getKey() ) ) {
+						selectNode( entry.getValue(), index + 1 );
+					}
+				}
+			} else if ( merged.containsKey( segment.key() ) ) {
+				selectNode( merged.get( segment.key() ), index + 1 );
+			}
+		}
+		return canStop;
+	}
+
+	/**
+	 * Match an index or wildcard segment against the items of a sequence in the event stream
+	 *
+	 * @param segment The segment to match
+	 * @param index   The index of the segment
+	 * @param canStop Whether reading may stop once this sequence is matched
+	 *
+	 * @return True if reading stopped
+	 */
+	private boolean selectInSequence( Segment segment, int index, boolean canStop ) {
+		int position = 0;
+
+		this.composer.startCollection();
+		while ( !this.composer.check( Event.ID.SequenceEnd ) ) {
+			if ( segment.wildcard() ) {
+				select( index + 1, false );
+			} else if ( position == segment.index() ) {
+				select( index + 1, canStop );
+				if ( canStop ) {
+					return true;
+				}
+			} else {
+				this.composer.skipNode();
+			}
+			position++;
+		}
+		this.composer.endCollection();
+		return canStop;
+	}
+
+	/**
+	 * Match a composed node against the path
+	 *
+	 * @param node  The node
+	 * @param index The index of the segment to match
+	 */
+	private void selectNode( Node node, int index ) {
+		if ( index == this.segments.length ) {
+			this.matches.add( construct( node ) );
+			return;
+		}
+
+		Segment segment = this.segments[ index ];
+		if ( node instanceof MappingNode mapping && !segment.isIndex() ) {
+			Map<Key, Node> entries = new LinkedHashMap<>();
+			collectEntries( mapping, entries );
+			if ( segment.wildcard() ) {
+				for ( Node value : entries.values() ) {
+					selectNode( value, index + 1 );
+				}
+			} else if ( entries.containsKey( segment.key() ) ) {
+				selectNode( entries.get( segment.key() ), index + 1 );
+			}
+		} else if ( node instanceof SequenceNode sequence && !segment.isKey() ) {
+			List<Node> items = sequence.getValue();
+			if ( segment.wildcard() ) {
+				for ( Node item : items ) {
+					selectNode( item, index + 1 );
+				}
+			} else if ( segment.index() < items.size() ) {
+				selectNode( items.get( segment.index() ), index + 1 );
+			}
+		}
+	}
+
+	/**
+	 * Collect the entries of a composed mapping, explicit keys first and then the merged ones they do not override
+	 *
+	 * @param mapping The mapping node
+	 * @param entries The entries collected so far
+	 */
+	private void collectEntries( MappingNode mapping, Map<Key, Node> entries ) {
+		for ( NodeTuple tuple : mapping.getValue() ) {
+			if ( !tuple.getKeyNode().getTag().equals( Tag.MERGE ) ) {
+				Key key = toKey( tuple.getKeyNode() );
+				if ( key != null ) {
+					entries.putIfAbsent( key, tuple.getValueNode() );
+				}
+			}
+		}
+		for ( NodeTuple tuple : mapping.getValue() ) {
+			if ( tuple.getKeyNode().getTag().equals( Tag.MERGE ) ) {
+				collectMerged( tuple.getValueNode(), entries );
+			}
+		}
+	}
+
+	/**
+	 * Collect the entries pulled in by a merge key: a single mapping, or a sequence of mappings where the first ones
+	 * take precedence
+	 *
+	 * @param merge   The value node of the merge key
+	 * @param entries The entries collected so far
+	 */
+	private void collectMerged( Node merge, Map<Key, Node> entries ) {
+		if ( merge instanceof MappingNode mapping ) {
+			collectEntries( mapping, entries );
+		} else if ( merge instanceof SequenceNode sequence ) {
+			for ( Node item : sequence.getValue() ) {
+				if ( item instanceof MappingNode mapping ) {
+					collectEntries( mapping, entries );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the BoxLang key of a mapping key node, converted the same way the constructor does
+	 *
+	 * @param keyNode The key node
+	 *
+	 * @return The key, or null for collection keys
+	 */
+	private Key toKey( Node keyNode ) {
+		if ( ! ( keyNode instanceof ScalarNode ) ) {
+			return null;
+		}
+		return YamlKeyInterner.intern( String.valueOf( construct( keyNode ) ) );
+	}
+
+	/**
+	 * Construct a node into its BoxLang value
+	 *
+	 * @param node The node
+	 *
+	 * @return The BoxLang value
+	 */
+	private Object construct( Node node ) {
+		return this.engine.constructor().constructNode( node );
+	}
+
+}
@@ -0,0 +1,544 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+import ortus.boxlang.yaml.util.YamlFileUtil;
+import ortus.boxlang.yaml.util.YamlKeyInterner;
+
+/**
+ * A compact binary snapshot of a deserialized YAML file, stored next to it with the {@value #EXTENSION} extension, that
+ * rebuilds the BoxLang values several times faster than parsing the YAML again.
+ * <p>
+ * A snapshot starts with a header identifying its source: the format version, the charset the source was read with,
+ * whether timestamps were kept raw, and the SHA-256 hash of the source bytes. A snapshot whose header does not match
+ * the current source and settings is stale and ignored. The header is followed by a table of every distinct string,
+ * keys and values alike, and by the value tree in depth-first order: a type byte per value followed by its payload.
+ * Counts, lengths and string table indexes are variable-length integers, so small documents stay small.
+ * <p>
+ * Snapshots are memory-mapped when read, so the tree is rebuilt straight from the page cache without copying the file
+ * first.
+ */
+public final class YamlSnapshot {
+
+	/**
+	 * The extension appended to the name of the source file
+	 */
+	public static final String	EXTENSION		= ".bxyb";
+
+	/**
+	 * The magic number starting every snapshot: {@code BXYB}
+	 */
+	private static final int	MAGIC			= 0x42585942;
+
+	/**
+	 * The version of the format, bumped on any incompatible change
+	 */
+	private static final int	VERSION			= 1;
+
+	/**
+	 * The size of the chunks the source is mapped in to be hashed
+	 */
+	private static final long	HASH_CHUNK		= 64L * 1024 * 1024;
+
+	// The value types
+	private static final byte	TYPE_NULL		= 0;
+	private static final byte	TYPE_FALSE		= 1;
+	private static final byte	TYPE_TRUE		= 2;
+	private static final byte	TYPE_INT		= 3;
+	private static final byte	TYPE_LONG		= 4;
+	private static final byte	TYPE_DOUBLE		= 5;
+	private static final byte	TYPE_BIG_INT	= 6;
+	private static final byte	TYPE_STRING		= 7;
+	private static final byte	TYPE_DATE_TIME	= 8;
+	private static final byte	TYPE_BINARY		= 9;
+	private static final byte	TYPE_STRUCT		= 10;
+	private static final byte	TYPE_ARRAY		= 11;
+
+	private YamlSnapshot() {
+	}
+
+	/**
+	 * Get the snapshot path of a YAML file
+	 *
+	 * @param source The YAML file
+	 *
+	 * @return The path of its snapshot, next to it
+	 */
+	public static Path pathFor( Path source ) {
+		return source.resolveSibling( source.getFileName() + EXTENSION );
+	}
+
+	/**
+	 * Hash the content of a file with SHA-256, mapping it in memory chunk by chunk
+	 *
+	 * @param source The file to hash
+	 *
+	 * @return The hash
+	 *
+	 * @throws IOException If the file cannot be read
+	 */
+	public static byte[] hash( Path source ) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance( "SHA-256" );
+		} catch ( NoSuchAlgorithmException e ) {
+			throw new BoxRuntimeException( "SHA-256 is not available", e );
+		}
+		try ( FileChannel channel = FileChannel.open( source, StandardOpenOption.READ ) ) {
+			long size = channel.size();
+			for ( long position = 0; position < size; position += HASH_CHUNK ) {
+				digest.update( channel.map( FileChannel.MapMode.READ_ONLY, position, Math.min( HASH_CHUNK, size - position ) ) );
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Atomically write the snapshot of a deserialized value
+	 *
+	 * @param snapshot      The snapshot file to write
+	 * @param value         The deserialized value: structs, arrays and the scalars built by the parser
+	 * @param charset       The charset the source was read with
+	 * @param rawTimestamps Whether timestamps were kept as strings
+	 * @param sourceHash    The hash of the source, see {@link #hash(Path)}
+	 *
+	 * @throws IOException         If the snapshot cannot be written
+	 * @throws BoxRuntimeException If the value contains itself, as recursive anchors do, or a value of another type
+	 */
+	public static void write( Path snapshot, Object value, String charset, boolean rawTimestamps, byte[] sourceHash ) throws IOException {
+		Encoder encoder = new Encoder();
+		encoder.writeValue( value );
+
+		YamlFileUtil.atomicWrite( snapshot, stream -> {
+			Encoder header = new Encoder();
+			header.writeInt( MAGIC );
+			header.writeVarInt( VERSION );
+			header.writeBlob( charset.getBytes( StandardCharsets.UTF_8 ) );
+			header.write( rawTimestamps ? 1 : 0 );
+			header.writeBlob( sourceHash );
+			header.writeVarInt( encoder.strings.size() );
+			header.writeTo( stream );
+
+			Encoder table = new Encoder();
+			for ( String string : encoder.strings.keySet() ) {
+				table.writeBlob( string.getBytes( StandardCharsets.UTF_8 ) );
+			}
+			table.writeTo( stream );
+			encoder.writeTo( stream );
+		} );
+	}
+
+	/**
+	 * Read the snapshot of a YAML file if it is fresh
+	 *
+	 * @param snapshot      The snapshot file to read
+	 * @param charset       The charset the source is read with
+	 * @param rawTimestamps Whether timestamps are kept as strings
+	 * @param sourceHash    The current hash of the source, see {@link #hash(Path)}
+	 *
+	 * @return The loaded snapshot, or null if there is no snapshot or it does not match the source and settings
+	 *
+	 * @throws IOException If the snapshot cannot be read
+	 */
+	public static Loaded read( Path snapshot, String charset, boolean rawTimestamps, byte[] sourceHash ) throws IOException {
+		MappedByteBuffer buffer;
+		try ( FileChannel channel = FileChannel.open( snapshot, StandardOpenOption.READ ) ) {
+			if ( channel.size() > Integer.MAX_VALUE ) {
+				return null;
+			}
+			buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+		} catch ( NoSuchFileException e ) {
+			return null;
+		}
+
+		try {
+			Decoder decoder = new Decoder( buffer );
+			if ( buffer.getInt() != MAGIC
+			    || decoder.readVarInt() != VERSION
+			    || !decoder.readString().equals( charset )
+			    || ( buffer.get() == 1 ) != rawTimestamps
+			    || !Arrays.equals( decoder.readBlob(), sourceHash ) ) {
+				return null;
+			}
+			decoder.readStringTable();
+			return new Loaded( decoder.readValue() );
+		} catch ( BufferUnderflowException | IllegalArgumentException | DateTimeException e ) {
+			// A truncated or corrupted snapshot is as good as a missing one
+			return null;
+		}
+	}
+
+	/**
+	 * The value read from a fresh snapshot, null for an empty document
+	 *
+	 * @param value The deserialized value
+	 */
+	public record Loaded( Object value ) {
+	}
+
+	/**
+	 * Encodes a value tree, collecting its strings in a table
+	 */
+	private static class Encoder extends ByteArrayOutputStream {
+
+		/**
+		 * The index of every distinct string, in order of appearance
+		 */
+		private final Map<String, Integer>	strings	= new LinkedHashMap<>();
+
+		/**
+		 * The structs and arrays being encoded, by identity, to detect the ones containing themselves
+		 */
+		private final Set<Object>			open	= Collections.newSetFromMap( new IdentityHashMap<>() );
+
+		/**
+		 * Constructor
+		 */
+		Encoder() {
+			super( 8192 );
+		}
+
+		/**
+		 * Encode a value and, depth first, everything it contains
+		 *
+		 * @param value The value
+		 */
+		void writeValue( Object value ) {
+			if ( value == null ) {
+				write( TYPE_NULL );
+			} else if ( value instanceof Boolean bool ) {
+				write( bool ? TYPE_TRUE : TYPE_FALSE );
+			} else if ( value instanceof Integer number ) {
+				write( TYPE_INT );
+				writeInt( number );
+			} else if ( value instanceof Long number ) {
+				write( TYPE_LONG );
+				writeLong( number );
+			} else if ( value instanceof Double number ) {
+				write( TYPE_DOUBLE );
+				writeLong( Double.doubleToRawLongBits( number ) );
+			} else if ( value instanceof BigInteger number ) {
+				write( TYPE_BIG_INT );
+				writeString( number.toString() );
+			} else if ( value instanceof String string ) {
+				write( TYPE_STRING );
+				writeString( string );
+			} else if ( value instanceof DateTime dateTime ) {
+				ZonedDateTime wrapped = dateTime.getWrapped();
+				write( TYPE_DATE_TIME );
+				writeLong( wrapped.toEpochSecond() );
+				writeVarInt( wrapped.getNano() );
+				writeString( wrapped.getZone().getId() );
+			} else if ( value instanceof byte[] bytes ) {
+				write( TYPE_BINARY );
+				writeBlob( bytes );
+			} else if ( value instanceof IStruct struct ) {
+				open( struct );
+				write( TYPE_STRUCT );
+				writeVarInt( struct.size() );
+				for ( Map.Entry<Key, Object> entry : struct.entrySet() ) {
+					writeString( entry.getKey().getName() );
+					writeValue( entry.getValue() );
+				}
+				this.open.remove( struct );
+			} else if ( value instanceof List<?> list ) {
+				open( list );
+				write( TYPE_ARRAY );
+				writeVarInt( list.size() );
+				for ( Object item : list ) {
+					writeValue( item );
+				}
+				this.open.remove( list );
+			} else {
+				throw new BoxRuntimeException( "Values of type [" + value.getClass().getName() + "] cannot be written to a yaml snapshot" );
+			}
+		}
+
+		/**
+		 * Mark a struct or an array as being encoded
+		 *
+		 * @param container The struct or array
+		 *
+		 * @throws BoxRuntimeException If it is already being encoded, so it contains itself
+		 */
+		private void open( Object container ) {
+			if ( !this.open.add( container ) ) {
+				throw new BoxRuntimeException( "Recursive values cannot be written to a yaml snapshot" );
+			}
+		}
+
+		/**
+		 * Encode a string as its index in the string table, adding it on first use
+		 *
+		 * @param string The string
+		 */
+		void writeString( String string ) {
+			Integer index = this.strings.get( string );
+			if ( index == null ) {
+				index = this.strings.size();
+				this.strings.put( string, index );
+			}
+			writeVarInt( index );
+		}
+
+		/**
+		 * Encode bytes, prefixed by their length
+		 *
+		 * @param bytes The bytes
+		 */
+		void writeBlob( byte[] bytes ) {
+			writeVarInt( bytes.length );
+			write( bytes, 0, bytes.length );
+		}
+
+		/**
+		 * Encode a non-negative integer on 1 to 5 bytes, 7 bits per byte, the high bit flagging a following byte
+		 *
+		 * @param value The integer
+		 */
+		void writeVarInt( int value ) {
+			while ( ( value & ~0x7F ) != 0 ) {
+				write( ( value & 0x7F ) | 0x80 );
+				value >>>= 7;
+			}
+			write( value );
+		}
+
+		/**
+		 * Encode an integer on 4 bytes, big-endian
+		 *
+		 * @param value The integer
+		 */
+		void writeInt( int value ) {
+			write( value >>> 24 );
+			write( value >>> 16 );
+			write( value >>> 8 );
+			write( value );
+		}
+
+		/**
+		 * Encode a long on 8 bytes, big-endian
+		 *
+		 * @param value The long
+		 */
+		void writeLong( long value ) {
+			writeInt( ( int ) ( value >>> 32 ) );
+			writeInt( ( int ) value );
+		}
+	}
+
+	/**
+	 * Decodes a value tree out of a mapped snapshot
+	 */
+	private static class Decoder {
+
+		/**
+		 * The mapped snapshot, positioned on the next value
+		 */
+		private final ByteBuffer	buffer;
+
+		/**
+		 * The string table
+		 */
+		private String[]			strings;
+
+		/**
+		 * The keys built out of the string table, on first use
+		 */
+		private Key[]				keys;
+
+		/**
+		 * Constructor
+		 *
+		 * @param buffer The mapped snapshot
+		 */
+		Decoder( ByteBuffer buffer ) {
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Decode the string table
+		 */
+		void readStringTable() {
+			int count = readCount();
+			this.strings	= new String[ count ];
+			this.keys		= new Key[ count ];
+			for ( int i = 0; i < count; i++ ) {
+				this.strings[ i ] = readString();
+			}
+		}
+
+		/**
+		 * Decode a value and, depth first, everything it contains
+		 *
+		 * @return The value
+		 */
+		Object readValue() {
+			byte type = this.buffer.get();
+			return switch ( type ) {
+				case TYPE_NULL -> null;
+				case TYPE_FALSE -> false;
+				case TYPE_TRUE -> true;
+				case TYPE_INT -> this.buffer.getInt();
+				case TYPE_LONG -> this.buffer.getLong();
+				case TYPE_DOUBLE -> this.buffer.getDouble();
+				case TYPE_BIG_INT -> new BigInteger( this.strings[ readIndex() ] );
+				case TYPE_STRING -> this.strings[ readIndex() ];
+				case TYPE_DATE_TIME -> {
+					long	seconds	= this.buffer.getLong();
+					int		nanos	= readVarInt();
+					ZoneId	zone	= ZoneId.of( this.strings[ readIndex() ] );
+					yield new DateTime( ZonedDateTime.ofInstant( Instant.ofEpochSecond( seconds, nanos ), zone ) );
+				}
+				case TYPE_BINARY -> readBlob();
+				case TYPE_STRUCT -> {
+					int		size	= readCount();
+					IStruct	struct	= new Struct();
+					for ( int i = 0; i < size; i++ ) {
+						struct.put( readKey(), readValue() );
+					}
+					yield struct;
+				}
+				case TYPE_ARRAY -> {
+					int		size	= readCount();
+					Array	array	= new Array( size );
+					for ( int i = 0; i < size; i++ ) {
+						array.add( readValue() );
+					}
+					yield array;
+				}
+				default -> throw new IllegalArgumentException( "Unknown YAML snapshot value type [" + type + "]" );
+			};
+		}
+
+		/**
+		 * Decode a struct key, interned like the parser does
+		 *
+		 * @return The key
+		 */
+		Key readKey() {
+			int	index	= readIndex();
+			Key	key		= this.keys[ index ];
+			if ( key == null ) {
+				key					= YamlKeyInterner.intern( this.strings[ index ] );
+				this.keys[ index ]	= key;
+			}
+			return key;
+		}
+
+		/**
+		 * Decode a UTF-8 string prefixed by its length
+		 *
+		 * @return The string
+		 */
+		String readString() {
+			return new String( readBlob(), StandardCharsets.UTF_8 );
+		}
+
+		/**
+		 * Decode bytes prefixed by their length
+		 *
+		 * @return The bytes
+		 */
+		byte[] readBlob() {
+			byte[] bytes = new byte[ readCount() ];
+			this.buffer.get( bytes );
+			return bytes;
+		}
+
+		/**
+		 * Decode a count or a length. Every counted item takes at least a byte, so a count larger than what is left of the
+		 * snapshot is corrupted, and rejected before anything is allocated for it.
+		 *
+		 * @return The count
+		 */
+		int readCount() {
+			int count = readVarInt();
+			if ( count < 0 || count > this.buffer.remaining() ) {
+				throw new IllegalArgumentException( "Malformed YAML snapshot: invalid count [" + count + "]" );
+			}
+			return count;
+		}
+
+		/**
+		 * Decode an index in the string table
+		 *
+		 * @return The index
+		 */
+		int readIndex() {
+			int index = readVarInt();
+			if ( index < 0 || index >= this.strings.length ) {
+				throw new IllegalArgumentException( "Malformed YAML snapshot: invalid string index [" + index + "]" );
+			}
+			return index;
+		}
+
+		/**
+		 * Decode a variable-length integer, see {@link Encoder#writeVarInt(int)}
+		 *
+		 * @return The integer
+		 */
+		int readVarInt() {
+			int	value	= 0;
+			int	shift	= 0;
+			while ( true ) {
+				byte next = this.buffer.get();
+				value |= ( next & 0x7F ) << shift;
+				if ( next >= 0 ) {
+					return value;
+				}
+				shift += 7;
+				if ( shift > 28 ) {
+					throw new IllegalArgumentException( "Malformed YAML snapshot" );
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.yaml.util.YamlKeyInterner;
+
+/**
+ * Reads a YAML stream item by item instead of materializing whole documents.
+ * <p>
+ * When the root of a document is a plain mapping or sequence, each of its entries is composed and constructed on its
+ * own and handed to an {@link ItemHandler}, then dropped. Memory use is therefore bound by the largest single entry
+ * and not by the size of the file. Any other root (a scalar, or a tagged or anchored collection) is constructed
+ * whole and handed over as a single item.
+ * <p>
+ * Aliases may still point to anchors defined in previous entries of the same document, so anchored nodes are kept
+ * until the end of their document. Merge keys ({@code <<}) at the root are streamed as the individual entries they
+ * pull in, once every explicit entry of the mapping has been handed over: like a full load, explicit keys take
+ * precedence over merged ones, and earlier merge sources over later ones. The keys of a root mapping are kept until
+ * its end to apply that precedence and detect duplicate keys.
+ */
+public class YamlStreamReader {
+
+	/**
+	 * Receives the streamed items
+	 */
+	@FunctionalInterface
+	public interface ItemHandler {
+
+		/**
+		 * Handle one item of the stream
+		 *
+		 * @param value The constructed BoxLang value
+		 * @param key   The mapping key of the item, its 1-based position for sequences, or null for a whole document
+		 *
+		 * @return True to keep reading, false to stop
+		 */
+		boolean handle( Object value, Object key );
+	}
+
+	/**
+	 * The engine providing the constructor, resolver and limits
+	 */
+	private final YamlEngine engine;
+
+	/**
+	 * Constructor
+	 *
+	 * @param engine The engine providing the constructor, resolver and limits. It must not be used elsewhere while streaming.
+	 */
+	public YamlStreamReader( YamlEngine engine ) {
+		this.engine = engine;
+	}
+
+	/**
+	 * Stream every document in the reader to the handler.
+	 *
+	 * @param reader  The YAML source
+	 * @param handler The item handler
+	 *
+	 * @return The number of items handed to the handler
+	 */
+	public long stream( Reader reader, ItemHandler handler ) {
+		YamlNodeComposer	composer	= new YamlNodeComposer(
+		    new ParserImpl( new StreamReader( reader ), this.engine.streamingLoaderOptions() ),
+		    this.engine.resolver(),
+		    this.engine.loaderOptions()
+		);
+		long				count		= 0;
+
+		composer.expect( Event.ID.StreamStart );
+		while ( !composer.check( Event.ID.StreamEnd ) ) {
+			composer.expect( Event.ID.DocumentStart );
+			Event root = composer.peek();
+
+			if ( isStreamable( root ) && root.is( Event.ID.MappingStart ) ) {
+				composer.next();
+				Set<Key>	seen	= new HashSet<>();
+				List<Node>	merges	= new ArrayList<>();
+				while ( !composer.check( Event.ID.MappingEnd ) ) {
+					Node	keyNode		= composer.composeNode();
+					Node	valueNode	= composer.composeNode();
+					if ( keyNode.getTag().equals( Tag.MERGE ) ) {
+						merges.add( valueNode );
+						continue;
+					}
+					Object key = construct( keyNode );
+					if ( !seen.add( YamlKeyInterner.intern( String.valueOf( key ) ) ) && !this.engine.loaderOptions().isAllowDuplicateKeys() ) {
+						throw new YAMLException( "found duplicate key " + key + keyNode.getStartMark() );
+					}
+					count++;
+					if ( !handler.handle( construct( valueNode ), key ) ) {
+						return count;
+					}
+				}
+				composer.next();
+
+				// Merged entries only fill in the keys neither set explicitly nor by an earlier merge source
+				for ( Node merge : merges ) {
+					for ( IStruct merged : mergedStructs( construct( merge ) ) ) {
+						for ( Map.Entry<Key, Object> entry : merged.entrySet() ) {
+							if ( !seen.add( entry.getKey() ) ) {
+								continue;
+							}
+							count++;
+							if ( !handler.handle( entry.getValue(), entry.getKey().getName() ) ) {
+								return count;
+							}
+						}
+					}
+				}
+			} else if ( isStreamable( root ) && root.is( Event.ID.SequenceStart ) ) {
+				composer.next();
+				while ( !composer.check( Event.ID.SequenceEnd ) ) {
+					Object value = construct( composer.composeNode() );
+					count++;
+					if ( !handler.handle( value, count ) ) {
+						return count;
+					}
+				}
+				composer.next();
+			} else {
+				count++;
+				if ( !handler.handle( construct( composer.composeNode() ), null ) ) {
+					return count;
+				}
+			}
+
+			composer.endDocument();
+		}
+		return count;
+	}
+
+	/**
+	 * Construct a single node into its BoxLang value
+	 *
+	 * @param node The node
+	 *
+	 * @return The BoxLang value
+	 */
+	private Object construct( Node node ) {
+		return this.engine.constructor().constructNode( node );
+	}
+
+	/**
+	 * Get the structs referenced by a merge key, either a single mapping or a sequence of mappings
+	 *
+	 * @param value The constructed merge value
+	 *
+	 * @return The structs to merge
+	 */
+	private static List<IStruct> mergedStructs( Object value ) {
+		if ( value instanceof IStruct struct ) {
+			return List.of( struct );
+		}
+		List<IStruct> structs = new ArrayList<>();
+		if ( value instanceof Array array ) {
+			for ( Object item : array ) {
+				if ( item instanceof IStruct struct ) {
+					structs.add( struct );
+				}
+			}
+		}
+		return structs;
+	}
+
+	/**
+	 * Whether the root event can be split into items: an untagged, unanchored collection.
+	 *
+	 * @param event The root event of a document
+	 *
+	 * @return True if the document can be streamed item by item
+	 */
+	private static boolean isStreamable( Event event ) {
+		if ( ! ( event instanceof CollectionStartEvent collection ) ) {
+			return false;
+		}
+		return collection.getAnchor() == null && ( collection.getTag() == null || collection.getTag().equals( "!" ) );
+	}
+
+}
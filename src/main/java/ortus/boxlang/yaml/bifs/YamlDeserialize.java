@@ -23,7 +23,12 @@ import ortus.boxlang.runtime.context.IBoxContext;
 import ortus.boxlang.runtime.scopes.ArgumentsScope;
 import ortus.boxlang.runtime.scopes.Key;
 import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.types.exceptions.BoxRuntimeException;
+import ortus.boxlang.yaml.ClassBinding;
+import ortus.boxlang.yaml.DeserializeOptions;
 import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.YamlPath;
+import ortus.boxlang.yaml.util.KeyDictionary;
 
 @BoxBIF
 public class YamlDeserialize extends BIF {
@@ -36,7 +41,12 @@ public class YamlDeserialize extends BIF {
 	public YamlDeserialize() {
 		super();
 		declaredArguments = new Argument[] {
-		    new Argument( true, "string", Key.content )
+		    new Argument( true, "string", Key.content ),
+		    new Argument( false, "struct", KeyDictionary.limits ),
+		    new Argument( false, "boolean", KeyDictionary.sharedAliases ),
+		    new Argument( false, "string", Key.path ),
+		    new Argument( false, "boolean", KeyDictionary.lazy ),
+		    new Argument( false, "string", Key._CLASS )
 		};
 	}
 
@@ -48,10 +58,40 @@ public class YamlDeserialize extends BIF {
 	 *
 	 * @attribute.yaml The YAML string to deserialize.
 	 *
+	 * @attribute.path Only deserialize the values selected by this path, such as {@code spring.datasource} or {@code items[*].id}. Paths with a wildcard return an array of the selected values.
+	 *
+	 * @attribute.lazy Whether structs are built lazily, each value on first access. Defaults to false.
+	 *
+	 * @attribute.class The name of a BoxLang class, such as {@code models.Order}, to bind the document to: a root mapping becomes an instance of the class, and a root sequence an array of instances. Cannot be combined with a path.
+	 *
+	 * @attribute.limits Overrides of the module's document limits: {@code maxAliases}, {@code maxDepth}, {@code maxValues} and {@code maxInputSize}.
+	 *
+	 * @attribute.sharedAliases Whether aliases resolve to one shared read-only value instead of their own copy. Defaults to the module setting.
+	 *
 	 * @return A BoxLang variable.
 	 */
 	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
-		return parser.deserialize( context, arguments.getAsString( Key.content ) );
+		DeserializeOptions	options		= parser.getDeserializeOptions()
+		    .with(
+		        arguments.getAsStruct( KeyDictionary.limits ),
+		        arguments.getAsBoolean( KeyDictionary.sharedAliases ),
+		        arguments.getAsBoolean( KeyDictionary.lazy )
+		    );
+		String				content		= arguments.getAsString( Key.content );
+		String				path		= arguments.getAsString( Key.path );
+		String				className	= arguments.getAsString( Key._CLASS );
+
+		if ( className != null ) {
+			if ( path != null ) {
+				throw new BoxRuntimeException( "A yaml document cannot be bound to a class and selected by a path at the same time" );
+			}
+			options = options.copy().setBinding( ClassBinding.of( context, className ) );
+		}
+
+		if ( path != null ) {
+			return parser.select( context, content, YamlPath.compile( path ), options );
+		}
+		return parser.deserialize( context, content, options );
 	}
 
 }
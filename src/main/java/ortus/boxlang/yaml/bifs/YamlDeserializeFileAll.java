@@ -0,0 +1,103 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.nio.charset.Charset;
+
+import ortus.boxlang.runtime.bifs.BIF;
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.dynamic.casters.BooleanCaster;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.types.Function;
+import ortus.boxlang.yaml.DeserializeOptions;
+import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.YamlStreamReader;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+@BoxBIF
+public class YamlDeserializeFileAll extends BIF {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlDeserializeFileAll() {
+		super();
+		declaredArguments = new Argument[] {
+		    new Argument( true, "string", Key.filepath ),
+		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() ),
+		    new Argument( false, "function", Key.callback ),
+		    new Argument( false, "struct", KeyDictionary.limits ),
+		    new Argument( false, "boolean", KeyDictionary.sharedAliases ),
+		    new Argument( false, "boolean", Key.parallel, false )
+		};
+	}
+
+	/**
+	 * Deserializes a file of {@code ---} separated YAML documents, one document at a time, so only a single
+	 * document is ever held in memory.
+	 * <p>
+	 * With a callback, every document is passed to it with its 1-based position and the number of documents is
+	 * returned. Return {@code false} from the callback to stop. Without a callback, a lazy iterator is returned:
+	 * use {@code hasNext()} and {@code next()} to walk the documents, and {@code close()} if you stop early, as the
+	 * file stays open until the iterator is exhausted.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.filepath The path to the file to deserialize.
+	 *
+	 * @attribute.charset The charset to use when reading the file. Will default to the system default charset if not provided.
+	 *
+	 * @attribute.callback The function to call for every document: {@code ( document, index ) => {}}.
+	 *
+	 * @attribute.limits Overrides of the module's document limits: {@code maxAliases}, {@code maxDepth}, {@code maxValues} and {@code maxInputSize}.
+	 *
+	 * @attribute.sharedAliases Whether aliases resolve to one shared read-only value instead of their own copy. Defaults to the module setting.
+	 *
+	 * @attribute.parallel Whether the documents are split apart and parsed in parallel on every core. The whole stream is then held in memory, and an array of the documents is returned instead of an iterator. Defaults to false.
+	 *
+	 * @return The number of documents visited, or a lazy document iterator (an array when parallel) if no callback is given.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		DeserializeOptions	options		= parser.getDeserializeOptions()
+		    .with( arguments.getAsStruct( KeyDictionary.limits ), arguments.getAsBoolean( KeyDictionary.sharedAliases ), null );
+		String				filepath	= arguments.getAsString( Key.filepath );
+		String				charset		= arguments.getAsString( Key.charset );
+		boolean				parallel	= arguments.getAsBoolean( Key.parallel );
+		Function			callback	= arguments.getAsFunction( Key.callback );
+
+		if ( callback == null ) {
+			return parallel ? parser.deserializeFileAllParallel( context, filepath, charset, options ) : parser.deserializeFileAll( context, filepath, charset, options );
+		}
+
+		YamlStreamReader.ItemHandler handler = ( document, index ) -> {
+			Object result = context.invokeFunction( callback, new Object[] { document, index } );
+			return result == null || BooleanCaster.cast( result );
+		};
+		if ( parallel ) {
+			return parser.forEachDocument( parser.deserializeFileAllParallel( context, filepath, charset, options ), handler );
+		}
+		return parser.forEachDocument( parser.deserializeFileAll( context, filepath, charset, options ), handler );
+	}
+
+}
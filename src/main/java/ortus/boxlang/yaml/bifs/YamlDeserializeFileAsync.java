@@ -0,0 +1,63 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.util.Arrays;
+
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.util.FileSystemUtil;
+import ortus.boxlang.yaml.YamlParser;
+
+@BoxBIF
+public class YamlDeserializeFileAsync extends YamlDeserializeFile {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlDeserializeFileAsync() {
+		super();
+		declaredArguments									= Arrays.copyOf( declaredArguments, declaredArguments.length + 1 );
+		declaredArguments[ declaredArguments.length - 1 ]	= new Argument( false, "any", Key.executor );
+	}
+
+	/**
+	 * Deserializes a YAML file into a BoxLang variable without blocking the calling thread. The file is read and parsed
+	 * on a BoxLang executor, see {@code yamlDeserializeFile()} for the other arguments.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.filepath The path to the file to deserialize.
+	 *
+	 * @attribute.executor The name of the BoxLang executor to run on, or the executor itself. Defaults to the {@code asyncExecutor} module setting, {@code io-tasks}.
+	 *
+	 * @return A BoxLang future of the deserialized value.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		// Expand the path while still on the calling thread
+		arguments.put( Key.filepath, FileSystemUtil.expandPath( context, arguments.getAsString( Key.filepath ) ).absolutePath().toString() );
+		return parser.runAsync( context, taskContext -> super._invoke( taskContext, arguments ), arguments.get( Key.executor ) );
+	}
+
+}
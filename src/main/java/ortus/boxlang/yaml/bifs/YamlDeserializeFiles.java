@@ -0,0 +1,93 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import ortus.boxlang.runtime.bifs.BIF;
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.yaml.DeserializeOptions;
+import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+@BoxBIF
+public class YamlDeserializeFiles extends BIF {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlDeserializeFiles() {
+		super();
+		declaredArguments = new Argument[] {
+		    new Argument( true, "array", KeyDictionary.filepaths ),
+		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() ),
+		    new Argument( false, "struct", KeyDictionary.limits ),
+		    new Argument( false, "boolean", KeyDictionary.sharedAliases ),
+		    new Argument( false, "boolean", KeyDictionary.lazy ),
+		    new Argument( false, "any", Key.executor )
+		};
+	}
+
+	/**
+	 * Deserializes many YAML files in parallel. Every file is read and parsed on its own task of a BoxLang executor,
+	 * and the call returns once all of them are done.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.filepaths The paths to the files to deserialize. Paths only differing by case are rejected, as they would be the same key of the result.
+	 *
+	 * @attribute.charset The charset to use when reading the files. Will default to the system default charset if not provided.
+	 *
+	 * @attribute.limits Overrides of the module's document limits: {@code maxAliases}, {@code maxDepth}, {@code maxValues} and {@code maxInputSize}.
+	 *
+	 * @attribute.sharedAliases Whether aliases resolve to one shared read-only value instead of their own copy. Defaults to the module setting.
+	 *
+	 * @attribute.lazy Whether structs are built lazily, each value on first access. Defaults to false.
+	 *
+	 * @attribute.executor The name of the BoxLang executor to run on, or the executor itself. Defaults to the {@code asyncExecutor} module setting, {@code io-tasks}.
+	 *
+	 * @return A struct of the deserialized files, keyed by their path as given and in the same order.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		DeserializeOptions	options	= parser.getDeserializeOptions()
+		    .with(
+		        arguments.getAsStruct( KeyDictionary.limits ),
+		        arguments.getAsBoolean( KeyDictionary.sharedAliases ),
+		        arguments.getAsBoolean( KeyDictionary.lazy )
+		    );
+		Array				files	= arguments.getAsArray( KeyDictionary.filepaths );
+		List<String>		paths	= new ArrayList<>( files.size() );
+		for ( Object file : files ) {
+			paths.add( StringCaster.cast( file ) );
+		}
+
+		return parser.deserializeFiles( context, paths, arguments.getAsString( Key.charset ), options, arguments.get( Key.executor ) );
+	}
+
+}
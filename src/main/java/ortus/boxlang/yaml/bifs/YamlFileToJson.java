@@ -0,0 +1,82 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.nio.charset.Charset;
+
+import ortus.boxlang.runtime.bifs.BIF;
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+@BoxBIF
+public class YamlFileToJson extends BIF {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlFileToJson() {
+		super();
+		declaredArguments = new Argument[] {
+		    new Argument( true, "string", Key.filepath ),
+		    new Argument( false, "string", Key.destination ),
+		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() ),
+		    new Argument( false, "boolean", Key.pretty, false ),
+		    new Argument( false, "struct", KeyDictionary.limits )
+		};
+	}
+
+	/**
+	 * Converts a YAML file to JSON straight from the parser events, without building BoxLang values, so files of any
+	 * size are converted with constant memory. Every document of a {@code ---} separated stream is written as one
+	 * line separated JSON value.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.filepath The path to the YAML file to convert.
+	 *
+	 * @attribute.destination The path to the file to write the JSON to. If not provided, the JSON will be returned as a string.
+	 *
+	 * @attribute.charset The charset to use when reading and writing the files. Will default to the system default charset if not provided.
+	 *
+	 * @attribute.pretty Whether the JSON is pretty printed. Defaults to false.
+	 *
+	 * @attribute.limits Overrides of the module's document limits: {@code maxAliases}, {@code maxDepth} and {@code maxValues}. The input size is not limited, as the conversion runs with constant memory.
+	 *
+	 * @return The JSON string, or null if it was written to the destination.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		return parser.yamlToJson(
+		    context,
+		    null,
+		    arguments.getAsString( Key.filepath ),
+		    arguments.getAsString( Key.destination ),
+		    arguments.getAsString( Key.charset ),
+		    parser.getDeserializeOptions().with( arguments.getAsStruct( KeyDictionary.limits ), null, null ),
+		    arguments.getAsBoolean( Key.pretty )
+		);
+	}
+
+}
@@ -0,0 +1,84 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import ortus.boxlang.runtime.bifs.BIF;
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.yaml.DeserializeOptions;
+import ortus.boxlang.yaml.YamlMerger.Strategy;
+import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+@BoxBIF
+public class YamlMergeFiles extends BIF {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlMergeFiles() {
+		super();
+		declaredArguments = new Argument[] {
+		    new Argument( true, "array", KeyDictionary.filepaths ),
+		    new Argument( false, "string", KeyDictionary.strategy, "replace" ),
+		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() ),
+		    new Argument( false, "struct", KeyDictionary.limits )
+		};
+	}
+
+	/**
+	 * Deserializes YAML files and deep merges them in order, every file overriding the ones before it, such as a base
+	 * configuration followed by its environment and tenant overrides. The merge is cached until one of the files changes,
+	 * and then only the changed files are parsed and merged again.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.filepaths The paths to the files to merge, from the base to the most specific override.
+	 *
+	 * @attribute.strategy How arrays found in several files are merged: {@code replace} (default) keeps the array of the later file, {@code append} appends its items to the earlier array.
+	 *
+	 * @attribute.charset The charset to use when reading the files. Will default to the system default charset if not provided.
+	 *
+	 * @attribute.limits Overrides of the module's document limits: {@code maxAliases}, {@code maxDepth}, {@code maxValues} and {@code maxInputSize}. Merges with overridden limits are not cached.
+	 *
+	 * @return The merged BoxLang Object.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		DeserializeOptions	options	= parser.getDeserializeOptions().with( arguments.getAsStruct( KeyDictionary.limits ), null, null );
+		Array				files	= arguments.getAsArray( KeyDictionary.filepaths );
+		List<String>		paths	= new ArrayList<>( files.size() );
+		for ( Object file : files ) {
+			paths.add( StringCaster.cast( file ) );
+		}
+
+		return parser.mergeFiles( context, paths, Strategy.of( arguments.getAsString( KeyDictionary.strategy ) ), arguments.getAsString( Key.charset ), options );
+	}
+
+}
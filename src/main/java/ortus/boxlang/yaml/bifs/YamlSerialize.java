@@ -25,7 +25,9 @@ import ortus.boxlang.runtime.context.IBoxContext;
 import ortus.boxlang.runtime.scopes.ArgumentsScope;
 import ortus.boxlang.runtime.scopes.Key;
 import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.yaml.SerializeOptions;
 import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.util.KeyDictionary;
 
 @BoxBIF
 public class YamlSerialize extends BIF {
@@ -40,7 +42,11 @@ public class YamlSerialize extends BIF {
 		declaredArguments = new Argument[] {
 		    new Argument( true, "any", Key.content ),
 		    new Argument( false, "string", Key.filepath ),
-		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() )
+		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() ),
+		    new Argument( false, "boolean", KeyDictionary.multiDocument, false ),
+		    new Argument( false, "string", KeyDictionary.queryFormat, "rows" ),
+		    new Argument( false, "boolean", KeyDictionary.anchors, true ),
+		    new Argument( false, "integer", KeyDictionary.maxDepth, SerializeOptions.DEFAULT_MAX_DEPTH )
 		};
 	}
 
@@ -56,19 +62,36 @@ public class YamlSerialize extends BIF {
 	 *
 	 * @attribute.charset The charset to use when writing the file. Will default to the system default charset if not provided.
 	 *
+	 * @attribute.multiDocument If true, the content must be an array or iterable and every item is written as its own YAML document in a {@code ---} separated stream.
+	 *
+	 * @attribute.queryFormat How queries are written: {@code rows} (default) writes a sequence of row mappings, {@code columns} writes the {@code columns} names and the {@code data} rows as compact flow sequences.
+	 *
+	 * @attribute.anchors If true (default), values referenced more than once are written once with an anchor and then as aliases. If false, they are written again in full and recursive references throw an error.
+	 *
+	 * @attribute.maxDepth The max nesting depth of structs, arrays, queries and classes. Deeper values throw an error. Defaults to 1000.
+	 *
 	 * @return The YAML string.
 	 */
 	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
-		String	filePath	= arguments.getAsString( Key.filepath );
-		Object	content		= arguments.get( Key.content );
-		String	charset		= arguments.getAsString( Key.charset );
+		String				filePath	= arguments.getAsString( Key.filepath );
+		Object				content		= arguments.get( Key.content );
+		String				charset		= arguments.getAsString( Key.charset );
+		Boolean				multiDoc	= arguments.getAsBoolean( KeyDictionary.multiDocument );
+		SerializeOptions	options		= new SerializeOptions()
+		    .setQueryFormat( SerializeOptions.QueryFormat.of( arguments.getAsString( KeyDictionary.queryFormat ) ) )
+		    .setAnchors( arguments.getAsBoolean( KeyDictionary.anchors ) )
+		    .setMaxDepth( arguments.getAsInteger( KeyDictionary.maxDepth ) );
 
 		if ( filePath == null ) {
-			return parser.serialize( context, content );
+			return multiDoc ? parser.serializeAll( context, content, options ) : parser.serialize( context, content, options );
 		}
 
 		// Else We have a filepath
-		parser.serializeToFile( context, content, filePath, Charset.forName( charset ).toString() );
+		if ( multiDoc ) {
+			parser.serializeAllToFile( context, content, filePath, Charset.forName( charset ).toString(), options );
+		} else {
+			parser.serializeToFile( context, content, filePath, Charset.forName( charset ).toString(), options );
+		}
 
 		return null;
 	}
@@ -0,0 +1,67 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.util.Arrays;
+
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.util.FileSystemUtil;
+import ortus.boxlang.yaml.YamlParser;
+
+@BoxBIF
+public class YamlSerializeAsync extends YamlSerialize {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlSerializeAsync() {
+		super();
+		declaredArguments									= Arrays.copyOf( declaredArguments, declaredArguments.length + 1 );
+		declaredArguments[ declaredArguments.length - 1 ]	= new Argument( false, "any", Key.executor );
+	}
+
+	/**
+	 * Converts a BoxLang variable into YAML without blocking the calling thread. The content is serialized on a BoxLang
+	 * executor, so it must not be modified until the future completes. See {@code yamlSerialize()} for the other
+	 * arguments.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.content The variable to convert to YAML.
+	 *
+	 * @attribute.executor The name of the BoxLang executor to run on, or the executor itself. Defaults to the {@code asyncExecutor} module setting, {@code io-tasks}.
+	 *
+	 * @return A BoxLang future of the YAML string, or of null when written to a file.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		String filePath = arguments.getAsString( Key.filepath );
+		// Expand the path while still on the calling thread
+		if ( filePath != null ) {
+			arguments.put( Key.filepath, FileSystemUtil.expandPath( context, filePath ).absolutePath().toString() );
+		}
+		return parser.runAsync( context, taskContext -> super._invoke( taskContext, arguments ), arguments.get( Key.executor ) );
+	}
+
+}
@@ -0,0 +1,65 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import ortus.boxlang.runtime.bifs.BIF;
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.yaml.YamlParser;
+
+@BoxBIF
+public class YamlStats extends BIF {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlStats() {
+		super();
+		declaredArguments = new Argument[] {
+		    new Argument( false, "boolean", Key.reset, false )
+		};
+	}
+
+	/**
+	 * Returns the metrics of the YAML parser: for every operation ({@code deserialize}, {@code deserializeFile},
+	 * {@code serialize} and {@code serializeFile}) its calls, errors, size in and out, total, mean and max time,
+	 * percentiles and latency histogram, then the number of parsed documents and values, and the cache statistics.
+	 * Metrics are only recorded while the {@code metrics} module setting is on.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.reset Whether to reset the metrics once read. Defaults to false.
+	 *
+	 * @return A struct of metrics, keyed by operation, plus {@code documents}, {@code values} and {@code caches}.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		IStruct stats = parser.getStats();
+		if ( arguments.getAsBoolean( Key.reset ) ) {
+			parser.getMetrics().reset();
+		}
+		return stats;
+	}
+
+}
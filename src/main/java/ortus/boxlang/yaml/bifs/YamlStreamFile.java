@@ -0,0 +1,82 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.nio.charset.Charset;
+
+import ortus.boxlang.runtime.bifs.BIF;
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.dynamic.casters.BooleanCaster;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.runtime.types.Function;
+import ortus.boxlang.yaml.YamlParser;
+
+@BoxBIF
+public class YamlStreamFile extends BIF {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlStreamFile() {
+		super();
+		declaredArguments = new Argument[] {
+		    new Argument( true, "string", Key.filepath ),
+		    new Argument( true, "function", Key.callback ),
+		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() )
+		};
+	}
+
+	/**
+	 * Streams a YAML file item by item into a callback, so files larger than the available memory can be processed.
+	 * <p>
+	 * If the document root is a mapping, the callback receives every value and its key. If it is a sequence, it
+	 * receives every item and its 1-based position. Any other document is passed whole with a null key. Multiple
+	 * documents in the same file are streamed one after the other.
+	 * <p>
+	 * Return {@code false} from the callback to stop reading the file.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.filepath The path to the file to stream.
+	 *
+	 * @attribute.callback The function to call for every item: {@code ( value, key ) => {}}.
+	 *
+	 * @attribute.charset The charset to use when reading the file. Will default to the system default charset if not provided.
+	 *
+	 * @return The number of items streamed.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		Function callback = arguments.getAsFunction( Key.callback );
+		return parser.streamFile(
+		    context,
+		    arguments.getAsString( Key.filepath ),
+		    arguments.getAsString( Key.charset ),
+		    ( value, key ) -> {
+			    Object result = context.invokeFunction( callback, new Object[] { value, key } );
+			    return result == null || BooleanCaster.cast( result );
+		    }
+		);
+	}
+
+}
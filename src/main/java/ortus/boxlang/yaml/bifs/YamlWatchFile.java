@@ -0,0 +1,80 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.bifs;
+
+import java.nio.charset.Charset;
+
+import ortus.boxlang.runtime.bifs.BIF;
+import ortus.boxlang.runtime.bifs.BoxBIF;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.scopes.ArgumentsScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Argument;
+import ortus.boxlang.yaml.DeserializeOptions;
+import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.util.KeyDictionary;
+
+@BoxBIF
+public class YamlWatchFile extends BIF {
+
+	private static YamlParser parser = YamlParser.getInstance();
+
+	/**
+	 * Constructor
+	 */
+	public YamlWatchFile() {
+		super();
+		declaredArguments = new Argument[] {
+		    new Argument( true, "string", Key.filepath ),
+		    new Argument( false, "string", Key.charset, Charset.defaultCharset().toString() ),
+		    new Argument( false, "struct", KeyDictionary.limits ),
+		    new Argument( false, "boolean", KeyDictionary.sharedAliases )
+		};
+	}
+
+	/**
+	 * Watches a YAML file and returns its current value. The file is parsed the first time it is watched, then kept in
+	 * memory and parsed again in the background whenever it changes on disk, announcing the {@code onYamlFileChange}
+	 * interception point with the new value. Later calls return the current value without any I/O. A file is watched
+	 * once whatever the path it is given with, and watching it again with another charset, limits or sharedAliases
+	 * throws an exception: unwatch it first.
+	 *
+	 * @param context   The context in which the BIF is being invoked.
+	 * @param arguments Argument scope for the BIF.
+	 *
+	 * @attribute.filepath The path to the file to watch.
+	 *
+	 * @attribute.charset The charset to use when reading the file. Will default to the system default charset if not provided.
+	 *
+	 * @attribute.limits Overrides of the module's document limits: {@code maxAliases}, {@code maxDepth}, {@code maxValues} and {@code maxInputSize}.
+	 *
+	 * @attribute.sharedAliases Whether aliases resolve to one shared read-only value instead of their own copy. Defaults to the module setting.
+	 *
+	 * @return The current read-only value of the file.
+	 */
+	public Object _invoke( IBoxContext context, ArgumentsScope arguments ) {
+		DeserializeOptions options = parser.getDeserializeOptions()
+		    .with(
+		        arguments.getAsStruct( KeyDictionary.limits ),
+		        arguments.getAsBoolean( KeyDictionary.sharedAliases ),
+		        null
+		    );
+		return parser.getWatcher().watch( context, arguments.getAsString( Key.filepath ), arguments.getAsString( Key.charset ), options );
+	}
+
+}
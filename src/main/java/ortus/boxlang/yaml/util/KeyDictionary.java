@@ -21,8 +21,66 @@ import ortus.boxlang.runtime.scopes.Key;
  */
 public class KeyDictionary {
 
-	public static final Key	moduleName	= new Key( "yaml" );
-	public static final Key	yamlExclude	= new Key( "yamlExclude" );
-	public static final Key	toYaml		= new Key( "toYaml" );
+	public static final Key	moduleName			= new Key( "yaml" );
+	public static final Key	yamlExclude			= new Key( "yamlExclude" );
+	public static final Key	toYaml				= new Key( "toYaml" );
+	public static final Key	multiDocument		= new Key( "multiDocument" );
+	public static final Key	queryFormat			= new Key( "queryFormat" );
+	public static final Key	anchors				= new Key( "anchors" );
+	public static final Key	maxDepth			= new Key( "maxDepth" );
+
+	// Deserialization limits
+	public static final Key	limits				= new Key( "limits" );
+	public static final Key	maxAliases			= new Key( "maxAliases" );
+	public static final Key	maxValues			= new Key( "maxValues" );
+	public static final Key	maxInputSize		= new Key( "maxInputSize" );
+	public static final Key	sharedAliases		= new Key( "sharedAliases" );
+	public static final Key	lazy				= new Key( "lazy" );
+	public static final Key	rawTimestamps		= new Key( "rawTimestamps" );
+
+	// Caching
+	public static final Key	fileCache			= new Key( "fileCache" );
+	public static final Key	contentCache		= new Key( "contentCache" );
+	public static final Key	mergeCache			= new Key( "mergeCache" );
+	public static final Key	maxEntries			= new Key( "maxEntries" );
+	public static final Key	maxWeight			= new Key( "maxWeight" );
+	public static final Key	hits				= new Key( "hits" );
+	public static final Key	misses				= new Key( "misses" );
+	public static final Key	evictions			= new Key( "evictions" );
+	public static final Key	weight				= new Key( "weight" );
+	public static final Key	hitRate				= new Key( "hitRate" );
+
+	// Metrics
+	public static final Key	metrics				= new Key( "metrics" );
+	public static final Key	onYamlParse			= new Key( "onYamlParse" );
+	public static final Key	onYamlSerialize		= new Key( "onYamlSerialize" );
+	public static final Key	operation			= new Key( "operation" );
+	public static final Key	calls				= new Key( "calls" );
+	public static final Key	errors				= new Key( "errors" );
+	public static final Key	bytes				= new Key( "bytes" );
+	public static final Key	totalTime			= new Key( "totalTime" );
+	public static final Key	meanTime			= new Key( "meanTime" );
+	public static final Key	maxTime				= new Key( "maxTime" );
+	public static final Key	p50					= new Key( "p50" );
+	public static final Key	p95					= new Key( "p95" );
+	public static final Key	p99					= new Key( "p99" );
+	public static final Key	histogram			= new Key( "histogram" );
+	public static final Key	documents			= new Key( "documents" );
+	public static final Key	values				= new Key( "values" );
+	public static final Key	caches				= new Key( "caches" );
+
+	// Asynchronous parsing
+	public static final Key	asyncExecutor		= new Key( "asyncExecutor" );
+	public static final Key	filepaths			= new Key( "filepaths" );
+
+	// File watching
+	public static final Key	onYamlFileChange	= new Key( "onYamlFileChange" );
+	public static final Key	watchDebounce		= new Key( "watchDebounce" );
+
+	// Merging
+	public static final Key	strategy			= new Key( "strategy" );
+
+	// Snapshots
+	public static final Key	snapshots			= new Key( "snapshots" );
 
 }
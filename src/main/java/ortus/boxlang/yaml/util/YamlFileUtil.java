@@ -0,0 +1,166 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.UUID;
+
+/**
+ * NIO based file helpers for reading and writing YAML files.
+ * <p>
+ * SnakeYAML pulls characters from its reader in small chunks and pushes many small strings to its writer, so both
+ * directions go through large buffers to keep the number of system calls down. Writes go to a temporary sibling file
+ * that is moved over the destination once complete, so readers never observe a half written file.
+ */
+public final class YamlFileUtil {
+
+	/**
+	 * The buffer size used for reading and writing, in characters or bytes
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	private YamlFileUtil() {
+	}
+
+	/**
+	 * Open a buffered reader on a file. Malformed input is replaced rather than reported, like a {@link java.io.FileReader}.
+	 *
+	 * @param path    The file to read
+	 * @param charset The charset of the file
+	 *
+	 * @return The buffered reader
+	 *
+	 * @throws IOException If the file cannot be opened
+	 */
+	public static Reader newReader( Path path, Charset charset ) throws IOException {
+		return new BufferedReader( new InputStreamReader( Files.newInputStream( path ), charset ), BUFFER_SIZE );
+	}
+
+	/**
+	 * A unit of work writing to a file
+	 */
+	@FunctionalInterface
+	public interface WriteAction {
+
+		/**
+		 * Write the content
+		 *
+		 * @param writer The buffered writer to the temporary file
+		 *
+		 * @throws IOException If writing fails
+		 */
+		void write( Writer writer ) throws IOException;
+	}
+
+	/**
+	 * A unit of work writing bytes to a file
+	 */
+	@FunctionalInterface
+	public interface StreamWriteAction {
+
+		/**
+		 * Write the content
+		 *
+		 * @param stream The buffered stream to the temporary file
+		 *
+		 * @throws IOException If writing fails
+		 */
+		void write( OutputStream stream ) throws IOException;
+	}
+
+	/**
+	 * Atomically replace the content of a file. The content is written to a temporary file in the same directory,
+	 * which is then moved over the destination. If the file system does not support atomic moves, a plain replacing
+	 * move is used instead. The permissions of an existing destination are carried over to the new file.
+	 *
+	 * @param path    The file to write
+	 * @param charset The charset to write with
+	 * @param action  The work writing the content
+	 *
+	 * @throws IOException If writing or moving the file fails
+	 */
+	public static void atomicWrite( Path path, Charset charset, WriteAction action ) throws IOException {
+		atomicWrite( path, stream -> {
+			Writer writer = new BufferedWriter( new OutputStreamWriter( stream, charset ), BUFFER_SIZE );
+			action.write( writer );
+			writer.flush();
+		} );
+	}
+
+	/**
+	 * Atomically replace the content of a file with bytes, see {@link #atomicWrite(Path, Charset, WriteAction)}.
+	 *
+	 * @param path   The file to write
+	 * @param action The work writing the content
+	 *
+	 * @throws IOException If writing or moving the file fails
+	 */
+	public static void atomicWrite( Path path, StreamWriteAction action ) throws IOException {
+		Path	target		= path.toAbsolutePath();
+		Path	temporary	= target.resolveSibling( "." + target.getFileName() + "." + UUID.randomUUID() + ".tmp" );
+
+		try {
+			try (
+			    OutputStream stream = new BufferedOutputStream(
+			        Files.newOutputStream( temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE ),
+			        BUFFER_SIZE
+			    ) ) {
+				action.write( stream );
+			}
+			copyPermissions( target, temporary );
+			try {
+				Files.move( temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+			} catch ( AtomicMoveNotSupportedException e ) {
+				Files.move( temporary, target, StandardCopyOption.REPLACE_EXISTING );
+			}
+		} finally {
+			Files.deleteIfExists( temporary );
+		}
+	}
+
+	/**
+	 * Copy the POSIX permissions of an existing file, if any, to another file.
+	 *
+	 * @param source      The file to copy the permissions from
+	 * @param destination The file to copy the permissions to
+	 *
+	 * @throws IOException If the permissions cannot be read or written
+	 */
+	private static void copyPermissions( Path source, Path destination ) throws IOException {
+		if ( !Files.exists( source ) || Files.getFileAttributeView( source, PosixFileAttributeView.class ) == null ) {
+			return;
+		}
+		Files.setPosixFilePermissions( destination, Files.getPosixFilePermissions( source ) );
+	}
+
+}
@@ -0,0 +1,79 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.util;
+
+import ortus.boxlang.runtime.scopes.Key;
+
+/**
+ * Interns the mapping keys of deserialized documents. Large documents repeat the same few keys ({@code name},
+ * {@code id}, {@code type}, ...) across thousands of sibling mappings, and building a new {@link Key} for each of them
+ * means a new key, a new upper cased name and a new hash every time.
+ * <p>
+ * Keys are kept in a bounded, direct mapped table shared by all threads, so memory use never depends on the
+ * documents being read. Only short names are interned, long ones rarely repeat.
+ */
+public final class YamlKeyInterner {
+
+	/**
+	 * An interned key
+	 *
+	 * @param name The name the key was built from
+	 * @param key  The key
+	 */
+	private record Entry( String name, Key key ) {
+	}
+
+	/**
+	 * The number of interned keys, a power of two
+	 */
+	private static final int		TABLE_SIZE		= 4096;
+
+	/**
+	 * The longest name interned
+	 */
+	private static final int		MAX_NAME_LENGTH	= 64;
+
+	/**
+	 * The table, indexed by the hash of the name. Entries are immutable, so racing threads at worst build a key twice.
+	 */
+	private static final Entry[]	TABLE			= new Entry[ TABLE_SIZE ];
+
+	private YamlKeyInterner() {
+	}
+
+	/**
+	 * Get the key for a mapping key, reusing the interned one when there is one. Keys are built by {@link Key#of(String)},
+	 * so numeric names still get their integer keys.
+	 *
+	 * @param name The key name
+	 *
+	 * @return The key
+	 */
+	public static Key intern( String name ) {
+		if ( name.length() > MAX_NAME_LENGTH ) {
+			return Key.of( name );
+		}
+		int		slot	= ( name.hashCode() ^ ( name.hashCode() >>> 16 ) ) & ( TABLE_SIZE - 1 );
+		Entry	entry	= TABLE[ slot ];
+		if ( entry == null || !entry.name().equals( name ) ) {
+			entry			= new Entry( name, Key.of( name ) );
+			TABLE[ slot ]	= entry;
+		}
+		return entry.key();
+	}
+}
@@ -0,0 +1,293 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ortus.boxlang.yaml.util;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+
+import ortus.boxlang.runtime.BoxRuntime;
+import ortus.boxlang.runtime.context.IBoxContext;
+import ortus.boxlang.runtime.context.RequestBoxContext;
+import ortus.boxlang.runtime.dynamic.casters.DateTimeCaster;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.util.LocalizationUtil;
+
+/**
+ * A parser for the YAML 1.1 timestamp grammar, building BoxLang {@link DateTime}s without going through the generic
+ * {@link DateTimeCaster} and its many candidate formats.
+ * <p>
+ * Both the {@code 2001-12-14} date form and the {@code 2001-12-14t21:59:43.10-05:00} /
+ * {@code 2001-12-14 21:59:43.10 -5} date time forms are supported. Timestamps without a time zone are in the
+ * current BoxLang time zone, like the ones cast by {@link DateTimeCaster}. Anything else is handed to the caster.
+ * <p>
+ * Event logs and similar documents repeat the same timestamps over and over, so the parsed values are kept in a
+ * small direct mapped cache shared by all threads. A fresh {@link DateTime} is still returned on every call, as
+ * they are mutable.
+ */
+public final class YamlTimestampParser {
+
+	/**
+	 * A parsed timestamp, either a {@link ZonedDateTime} or a {@link LocalDateTime} without a time zone
+	 *
+	 * @param text  The timestamp text
+	 * @param value The parsed value
+	 */
+	private record Entry( String text, Temporal value ) {
+	}
+
+	/**
+	 * The number of cached timestamps, a power of two
+	 */
+	private static final int		CACHE_SIZE	= 1024;
+
+	/**
+	 * The cache, indexed by the hash of the text. Entries are immutable, so racing threads at worst parse twice.
+	 */
+	private static final Entry[]	CACHE		= new Entry[ CACHE_SIZE ];
+
+	private YamlTimestampParser() {
+	}
+
+	/**
+	 * Parse a YAML timestamp into a BoxLang date time
+	 *
+	 * @param text The timestamp text, as matched by the implicit timestamp resolver
+	 *
+	 * @return The date time
+	 */
+	public static DateTime parse( String text ) {
+		int		slot	= ( text.hashCode() ^ ( text.hashCode() >>> 16 ) ) & ( CACHE_SIZE - 1 );
+		Entry	entry	= CACHE[ slot ];
+		if ( entry == null || !entry.text().equals( text ) ) {
+			Temporal value = parseTemporal( text );
+			if ( value == null ) {
+				return DateTimeCaster.cast( text );
+			}
+			entry			= new Entry( text, value );
+			CACHE[ slot ]	= entry;
+		}
+
+		if ( entry.value() instanceof LocalDateTime local ) {
+			return new DateTime( local.atZone( defaultZone() ) );
+		}
+		return new DateTime( ( ZonedDateTime ) entry.value() );
+	}
+
+	/**
+	 * Parse the timestamp grammar: {@code yyyy-m?m-d?d} optionally followed by {@code ([Tt]|[ \t]+)h?h:mm:ss},
+	 * an optional {@code .fraction} and an optional {@code [ \t]*(Z|[-+]h?h(:?mm)?)} time zone.
+	 *
+	 * @param text The timestamp text
+	 *
+	 * @return A {@link ZonedDateTime}, a {@link LocalDateTime} if there is no time zone, or null if the text does not
+	 *         match the grammar
+	 */
+	static Temporal parseTemporal( String text ) {
+		Cursor cursor = new Cursor( text );
+		try {
+			int year = cursor.digits( 4, 4 );
+			cursor.expect( '-' );
+			int month = cursor.digits( 1, 2 );
+			cursor.expect( '-' );
+			int day = cursor.digits( 1, 2 );
+			if ( cursor.atEnd() ) {
+				return LocalDateTime.of( year, month, day, 0, 0 );
+			}
+
+			if ( cursor.peek() == 'T' || cursor.peek() == 't' ) {
+				cursor.position++;
+			} else if ( cursor.skipSpaces() == 0 ) {
+				return null;
+			}
+			int hour = cursor.digits( 1, 2 );
+			cursor.expect( ':' );
+			int minute = cursor.digits( 2, 2 );
+			cursor.expect( ':' );
+			int	second	= cursor.digits( 2, 2 );
+			int	nanos	= 0;
+			if ( !cursor.atEnd() && cursor.peek() == '.' ) {
+				cursor.position++;
+				nanos = cursor.fraction();
+			}
+
+			LocalDateTime local = LocalDateTime.of( year, month, day, hour, minute, second, nanos );
+			cursor.skipSpaces();
+			if ( cursor.atEnd() ) {
+				return local;
+			}
+
+			ZoneOffset offset;
+			char sign = cursor.peek();
+			if ( sign == 'Z' ) {
+				cursor.position++;
+				offset = ZoneOffset.UTC;
+			} else if ( sign == '+' || sign == '-' ) {
+				cursor.position++;
+				int	offsetHours		= cursor.digits( 1, 2 );
+				int	offsetMinutes	= 0;
+				if ( !cursor.atEnd() ) {
+					if ( cursor.peek() == ':' ) {
+						cursor.position++;
+					}
+					offsetMinutes = cursor.digits( 2, 2 );
+				}
+				offset = sign == '+'
+				    ? ZoneOffset.ofHoursMinutes( offsetHours, offsetMinutes )
+				    : ZoneOffset.ofHoursMinutes( -offsetHours, -offsetMinutes );
+			} else {
+				return null;
+			}
+			return cursor.atEnd() ? local.atZone( offset ) : null;
+		} catch ( IllegalArgumentException | DateTimeException e ) {
+			// Out of range fields, or the text does not match the grammar
+			return null;
+		}
+	}
+
+	/**
+	 * Get the time zone of timestamps without one: the time zone of the current request, or of the runtime
+	 *
+	 * @return The time zone
+	 */
+	private static ZoneId defaultZone() {
+		IBoxContext context = RequestBoxContext.getCurrent();
+		if ( context == null ) {
+			context = BoxRuntime.getInstance().getRuntimeContext();
+		}
+		return LocalizationUtil.parseZoneId( null, context );
+	}
+
+	/**
+	 * A position in the timestamp text
+	 */
+	private static final class Cursor {
+
+		/**
+		 * The timestamp text
+		 */
+		private final String	text;
+
+		/**
+		 * The current position
+		 */
+		private int				position	= 0;
+
+		/**
+		 * Constructor
+		 *
+		 * @param text The timestamp text
+		 */
+		Cursor( String text ) {
+			this.text = text;
+		}
+
+		/**
+		 * Whether the whole text has been read
+		 *
+		 * @return True at the end of the text
+		 */
+		boolean atEnd() {
+			return this.position >= this.text.length();
+		}
+
+		/**
+		 * Get the current character
+		 *
+		 * @return The character
+		 */
+		char peek() {
+			return this.text.charAt( this.position );
+		}
+
+		/**
+		 * Consume the given character
+		 *
+		 * @param expected The expected character
+		 */
+		void expect( char expected ) {
+			if ( atEnd() || peek() != expected ) {
+				throw new IllegalArgumentException();
+			}
+			this.position++;
+		}
+
+		/**
+		 * Consume spaces and tabs
+		 *
+		 * @return The number of characters consumed
+		 */
+		int skipSpaces() {
+			int start = this.position;
+			while ( !atEnd() && ( peek() == ' ' || peek() == '\t' ) ) {
+				this.position++;
+			}
+			return this.position - start;
+		}
+
+		/**
+		 * Consume a number of digits
+		 *
+		 * @param min The min number of digits
+		 * @param max The max number of digits
+		 *
+		 * @return Their value
+		 */
+		int digits( int min, int max ) {
+			int	value	= 0;
+			int	count	= 0;
+			while ( count < max && !atEnd() && Character.isDigit( peek() ) ) {
+				value = value * 10 + ( peek() - '0' );
+				this.position++;
+				count++;
+			}
+			if ( count < min ) {
+				throw new IllegalArgumentException();
+			}
+			return value;
+		}
+
+		/**
+		 * Consume the digits of a fraction of a second, keeping nanosecond precision
+		 *
+		 * @return The fraction in nanoseconds
+		 */
+		int fraction() {
+			int	nanos	= 0;
+			int	count	= 0;
+			while ( !atEnd() && Character.isDigit( peek() ) ) {
+				if ( count < 9 ) {
+					nanos = nanos * 10 + ( peek() - '0' );
+				}
+				this.position++;
+				count++;
+			}
+			if ( count == 0 ) {
+				throw new IllegalArgumentException();
+			}
+			for ( int i = count; i < 9; i++ ) {
+				nanos *= 10;
+			}
+			return nanos;
+		}
+	}
+
+}
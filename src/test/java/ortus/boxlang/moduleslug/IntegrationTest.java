@@ -16,11 +16,33 @@ package ortus.boxlang.moduleslug;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import ortus.boxlang.runtime.events.IInterceptorLambda;
+import ortus.boxlang.runtime.runnables.IClassRunnable;
 import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.DateTime;
 import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.yaml.YamlMerger.Strategy;
+import ortus.boxlang.yaml.YamlParser;
+import ortus.boxlang.yaml.util.KeyDictionary;
 
 /**
  * This loads the module and runs an integration test on the module.
@@ -139,7 +161,7 @@ public class IntegrationTest extends BaseIntegrationTest {
 		// @formatter:on
 		IStruct bxResult = ( IStruct ) variables.get( bx );
 		assertThat( bxResult.get( new Key( "name" ) ) ).isEqualTo( "Luis" );
-		assertThat( bxResult.get( new Key( "numbers" ) ).toString() ).isEqualTo( "[[1, 2, 3]]" );
+		assertThat( bxResult.get( new Key( "numbers" ) ).toString() ).isEqualTo( "[1, 2, 3]" );
 		assertThat( bxResult.get( new Key( "age" ) ) ).isEqualTo( 42 );
 		assertThat( bxResult.get( new Key( "isOpen" ) ) ).isEqualTo( true );
 		assertThat( bxResult.get( new Key( "nested" ) ).toString().replaceAll( "\\s", "" ) ).isEqualTo( "{foo:\"bar\"}" );
@@ -183,4 +205,813 @@ public class IntegrationTest extends BaseIntegrationTest {
 		// @formatter:on
 	}
 
+	@DisplayName( "It can serialize and deserialize from many threads at once" )
+	@Test
+	public void testConcurrentParsing() throws Exception {
+		YamlParser parser = YamlParser.getInstance();
+		try ( ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor() ) {
+			List<Future<Object>> futures = new ArrayList<>();
+			for ( int i = 0; i < 500; i++ ) {
+				int id = i;
+				futures.add( executor.submit( () -> {
+					Object parsed = parser.deserialize( context, "id: " + id + "\nname: thread-" + id );
+					return parser.deserialize( context, parser.serialize( context, parsed ) );
+				} ) );
+			}
+			for ( int i = 0; i < futures.size(); i++ ) {
+				IStruct doc = ( IStruct ) futures.get( i ).get();
+				assertThat( doc.get( new Key( "id" ) ) ).isEqualTo( i );
+				assertThat( doc.get( new Key( "name" ) ) ).isEqualTo( "thread-" + i );
+			}
+		}
+	}
+
+	@DisplayName( "It deserializes mappings and sequences directly into structs and arrays" )
+	@Test
+	public void testDeserializeCollections() {
+		IStruct bxResult = ( IStruct ) YamlParser.getInstance().deserialize( context, """
+		    defaults: &defaults
+		      adapter: postgres
+		      host: localhost
+		    development:
+		      <<: *defaults
+		      database: dev
+		    ports:
+		      - 80
+		      - 443
+		    """ );
+		assertThat( bxResult.get( new Key( "ports" ) ) ).isInstanceOf( Array.class );
+		assertThat( bxResult.getAsArray( new Key( "ports" ) ).size() ).isEqualTo( 2 );
+		IStruct development = bxResult.getAsStruct( new Key( "development" ) );
+		assertThat( development ).isInstanceOf( Struct.class );
+		assertThat( development.get( new Key( "adapter" ) ) ).isEqualTo( "postgres" );
+		assertThat( development.get( new Key( "database" ) ) ).isEqualTo( "dev" );
+	}
+
+	@DisplayName( "It can stream a file item by item" )
+	@Test
+	public void testStreamFile() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        keys = []
+		        result = yamlStreamFile( "src/test/resources/test.yml", ( value, key ) => keys.append( key ) )
+		        stopped = yamlStreamFile( "src/test/resources/test.yml", ( value, key ) => key != "jdk" )
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.get( result ) ).isEqualTo( 11L );
+		assertThat( variables.getAsArray( new Key( "keys" ) ).get( 0 ) ).isEqualTo( "language" );
+		assertThat( variables.get( new Key( "stopped" ) ) ).isEqualTo( 3L );
+	}
+
+	@DisplayName( "It streams root merge keys with the precedence of a full load" )
+	@Test
+	public void testStreamFileMergeKeys( @TempDir Path directory ) throws Exception {
+		Path	merged		= directory.resolve( "merged.yml" );
+		Path	duplicated	= directory.resolve( "duplicated.yml" );
+		Files.writeString( merged, "base: &base { a: 1, b: 2 }\nother: &other { a: 9, c: 3 }\na: 3\n<<: [ *base, *other ]\n" );
+		Files.writeString( duplicated, "a: 1\na: 2\n" );
+		variables.put( new Key( "merged" ), merged.toString() );
+		variables.put( new Key( "duplicated" ), duplicated.toString() );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        keys = []
+		        items = {}
+		        count = yamlStreamFile( merged, ( value, key ) => {
+		            keys.append( key )
+		            items[ key ] = value
+		        } )
+		        loaded = yamlDeserializeFile( merged )
+		        try {
+		            yamlStreamFile( duplicated, ( value, key ) => true )
+		        } catch ( any e ) {
+		            duplicateError = e.message
+		        }
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.get( new Key( "count" ) ) ).isEqualTo( 5L );
+		assertThat( variables.getAsArray( new Key( "keys" ) ) ).containsExactly( "base", "other", "a", "b", "c" ).inOrder();
+		IStruct	items	= variables.getAsStruct( new Key( "items" ) );
+		IStruct	loaded	= variables.getAsStruct( new Key( "loaded" ) );
+		for ( String key : List.of( "a", "b", "c" ) ) {
+			assertThat( items.get( new Key( key ) ) ).isEqualTo( loaded.get( new Key( key ) ) );
+		}
+		assertThat( items.get( new Key( "a" ) ) ).isEqualTo( 3 );
+		assertThat( variables.getAsString( new Key( "duplicateError" ) ) ).contains( "duplicate key" );
+	}
+
+	@DisplayName( "It can serialize and lazily deserialize multiple documents" )
+	@Test
+	public void testMultiDocument() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        result = yamlSerialize( content = [ { id = 1 }, { id = 2 }, { id = 3 } ], multiDocument = true )
+		        ids = []
+		        count = yamlDeserializeAll( result, ( doc, index ) => ids.append( doc.id ) )
+		        docs = yamlDeserializeAll( result )
+		        first = docs.next()
+		        docs.close()
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.getAsString( result ) ).contains( "---" );
+		assertThat( variables.get( new Key( "count" ) ) ).isEqualTo( 3L );
+		assertThat( variables.getAsArray( new Key( "ids" ) ).size() ).isEqualTo( 3 );
+		assertThat( variables.getAsStruct( new Key( "first" ) ).get( new Key( "id" ) ) ).isEqualTo( 1 );
+	}
+
+	@DisplayName( "It replaces files atomically when serializing to a file" )
+	@Test
+	public void testSerializeToFileAtomically( @TempDir Path directory ) throws Exception {
+		YamlParser	parser	= YamlParser.getInstance();
+		Path		file	= directory.resolve( "out.yml" );
+		IStruct		data	= Struct.of( "name", "Luis", "age", 42 );
+
+		parser.serializeToFile( context, Struct.of( "name", "old" ), file.toString(), "UTF-8" );
+		parser.serializeToFile( context, data, file.toString(), "UTF-8" );
+
+		IStruct reloaded = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+		assertThat( reloaded.get( new Key( "name" ) ) ).isEqualTo( "Luis" );
+		assertThat( reloaded.get( new Key( "age" ) ) ).isEqualTo( 42 );
+		try ( Stream<Path> files = Files.list( directory ) ) {
+			assertThat( files.count() ).isEqualTo( 1 );
+		}
+	}
+
+	@DisplayName( "It caches parsed files until they change" )
+	@Test
+	public void testFileCache( @TempDir Path directory ) throws Exception {
+		YamlParser	parser	= YamlParser.getInstance();
+		Path		file	= directory.resolve( "cached.yml" );
+		Files.writeString( file, "name: Luis\n" );
+
+		parser.configure( Struct.of( KeyDictionary.fileCache, Struct.of( Key.enabled, true ) ) );
+		try {
+			IStruct first = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			first.put( new Key( "name" ), "mutated" );
+			IStruct second = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			assertThat( second.get( new Key( "name" ) ) ).isEqualTo( "Luis" );
+
+			Files.writeString( file, "name: Jorge\n" );
+			IStruct third = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			assertThat( third.get( new Key( "name" ) ) ).isEqualTo( "Jorge" );
+
+			IStruct stats = parser.getCacheStats().getAsStruct( KeyDictionary.fileCache );
+			assertThat( stats.get( KeyDictionary.hits ) ).isEqualTo( 1L );
+			assertThat( stats.get( KeyDictionary.misses ) ).isEqualTo( 2L );
+		} finally {
+			parser.configure( new Struct() );
+		}
+	}
+
+	@DisplayName( "It caches parsed strings by content" )
+	@Test
+	public void testContentCache() {
+		YamlParser	parser	= YamlParser.getInstance();
+		String		yaml	= "flags:\n  beta: true\n";
+
+		parser.configure( Struct.of( KeyDictionary.contentCache, Struct.of( Key.enabled, true ) ) );
+		try {
+			IStruct first = ( IStruct ) parser.deserialize( context, yaml );
+			first.getAsStruct( new Key( "flags" ) ).put( new Key( "beta" ), false );
+			IStruct second = ( IStruct ) parser.deserialize( context, new String( yaml ) );
+			assertThat( second.getAsStruct( new Key( "flags" ) ).get( new Key( "beta" ) ) ).isEqualTo( true );
+
+			IStruct stats = parser.getCacheStats().getAsStruct( KeyDictionary.contentCache );
+			assertThat( stats.get( KeyDictionary.hits ) ).isEqualTo( 1L );
+			assertThat( stats.get( KeyDictionary.misses ) ).isEqualTo( 1L );
+		} finally {
+			parser.configure( new Struct() );
+		}
+	}
+
+	@DisplayName( "It can serialize a query in rows or columns format" )
+	@Test
+	public void testSerializeQueryFormats() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        data = queryNew( "id,name", "integer,varchar", [ [ 1, "brad" ], [ 2, "wood" ] ] )
+		        result = yamlSerialize( data )
+		        rows = yamlDeserialize( result )
+		        columnar = yamlSerialize( content = data, queryFormat = "columns" )
+		        parsed = yamlDeserialize( columnar )
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.getAsString( result ) ).contains( "name: brad" );
+		assertThat( variables.getAsArray( new Key( "rows" ) ).size() ).isEqualTo( 2 );
+		assertThat( variables.getAsString( new Key( "columnar" ) ) ).contains( "columns: [id, name]" );
+		IStruct parsed = variables.getAsStruct( new Key( "parsed" ) );
+		assertThat( parsed.getAsArray( new Key( "data" ) ).size() ).isEqualTo( 2 );
+		assertThat( parsed.getAsArray( new Key( "data" ) ).get( 1 ) ).isInstanceOf( Array.class );
+	}
+
+	@DisplayName( "It writes shared values once with an anchor and aliases" )
+	@Test
+	public void testSerializeSharedValues() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        tags = [ "a", "b" ]
+		        result = yamlSerialize( [ { tags = tags }, { tags = tags } ] )
+		        parsed = yamlDeserialize( result )
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.getAsString( result ) ).contains( "&id" );
+		assertThat( variables.getAsString( result ) ).contains( "*id" );
+		Array parsed = variables.getAsArray( new Key( "parsed" ) );
+		assertThat( ( ( IStruct ) parsed.get( 1 ) ).getAsArray( new Key( "tags" ) ) ).containsExactly( "a", "b" );
+	}
+
+	@DisplayName( "It serializes classes by their serializable properties" )
+	@Test
+	public void testSerializeClasses() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        result = yamlSerialize( [ new src.test.bx.Person( 1 ), new src.test.bx.Person( 2 ) ] )
+		        println( result )
+		        parsed = yamlDeserialize( result )
+		    """,
+		    context );
+		// @formatter:on
+		Array	parsed	= variables.getAsArray( new Key( "parsed" ) );
+		IStruct	person	= ( IStruct ) parsed.get( 1 );
+		assertThat( parsed.size() ).isEqualTo( 2 );
+		assertThat( person.get( new Key( "firstName" ) ) ).isEqualTo( "First 2" );
+		assertThat( person.get( new Key( "nickName" ) ) ).isEqualTo( "" );
+		assertThat( person.containsKey( new Key( "email" ) ) ).isFalse();
+		assertThat( person.containsKey( new Key( "password" ) ) ).isFalse();
+		assertThat( person.containsKey( new Key( "token" ) ) ).isFalse();
+	}
+
+	@DisplayName( "It hands the context and the representer to toYaml()" )
+	@Test
+	public void testSerializeClassWithToYaml() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        parsed = yamlDeserialize( yamlSerialize( new src.test.bx.Badge( "gold" ) ) )
+		    """,
+		    context );
+		// @formatter:on
+		IStruct parsed = variables.getAsStruct( new Key( "parsed" ) );
+		assertThat( parsed.get( new Key( "label" ) ) ).isEqualTo( "gold" );
+		assertThat( parsed.get( new Key( "hasContext" ) ) ).isEqualTo( true );
+		assertThat( parsed.get( new Key( "hasRepresent" ) ) ).isEqualTo( true );
+	}
+
+	@DisplayName( "It can write shared values in full and limits the depth" )
+	@Test
+	public void testSerializeWithoutAnchors() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        tags = [ "a", "b" ]
+		        result = yamlSerialize( content = { first = tags, second = tags }, anchors = false )
+		        recursive = { name = "loop" }
+		        recursive.self = recursive
+		        try {
+		            yamlSerialize( content = recursive, anchors = false )
+		        } catch ( any e ) {
+		            recursionError = e.message
+		        }
+		        try {
+		            yamlSerialize( content = [ [ [ 1 ] ] ], maxDepth = 2 )
+		        } catch ( any e ) {
+		            depthError = e.message
+		        }
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.getAsString( result ) ).doesNotContain( "&id" );
+		assertThat( variables.getAsString( new Key( "recursionError" ) ) ).contains( "recursive reference" );
+		assertThat( variables.getAsString( new Key( "depthError" ) ) ).contains( "max depth of [2]" );
+	}
+
+	@DisplayName( "It can limit documents and share aliased values" )
+	@Test
+	public void testDeserializeLimits() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        a = "a: &a [ x, x, x, x, x, x, x, x, x, x ], "
+		        b = "b: &b [ *a, *a, *a, *a, *a, *a, *a, *a, *a, *a ], "
+		        c = "c: &c [ *b, *b, *b, *b, *b, *b, *b, *b, *b, *b ], "
+		        d = "d: [ *c, *c, *c, *c, *c, *c, *c, *c, *c, *c ]"
+		        bomb = "{ " & a & b & c & d & " }"
+		        try {
+		            yamlDeserialize( content = bomb, limits = { maxValues : 5000 } )
+		        } catch ( any e ) {
+		            valuesError = e.message
+		        }
+		        try {
+		            yamlDeserialize( content = bomb, limits = { maxAliases : 10 } )
+		        } catch ( any e ) {
+		            aliasesError = e.message
+		        }
+
+		        config = "{ base: &base { host: localhost }, dev: *base, prod: *base }"
+		        copied = yamlDeserialize( content = config )
+		        copied.dev.host = "dev.local"
+		        shared = yamlDeserialize( content = config, sharedAliases = true )
+		        try {
+		            shared.dev.host = "dev.local"
+		        } catch ( any e ) {
+		            sharedError = e.message
+		        }
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.getAsString( new Key( "valuesError" ) ) ).contains( "max of [5000] values" );
+		assertThat( variables.getAsString( new Key( "aliasesError" ) ) ).contains( "aliases" );
+
+		IStruct copied = variables.getAsStruct( new Key( "copied" ) );
+		assertThat( copied.getAsStruct( new Key( "prod" ) ).getAsString( new Key( "host" ) ) ).isEqualTo( "localhost" );
+
+		IStruct shared = variables.getAsStruct( new Key( "shared" ) );
+		assertThat( shared.get( new Key( "dev" ) ) ).isSameInstanceAs( shared.get( new Key( "prod" ) ) );
+		assertThat( variables.get( new Key( "sharedError" ) ) ).isNotNull();
+	}
+
+	@DisplayName( "It can deserialize only the values selected by a path" )
+	@Test
+	public void testDeserializeFilePath( @TempDir Path directory ) throws Exception {
+		Path file = directory.resolve( "partial.yml" );
+		// The file is broken past the selected values, so it only reads if parsing stops early
+		Files.writeString( file, """
+		    defaults: &defaults
+		      pool: 5
+		    spring:
+		      datasource:
+		        <<: *defaults
+		        url: jdbc:h2:mem
+		    items:
+		      - { id: 1, name: one }
+		      - { id: 2, name: two }
+		    broken: [ unclosed
+		    """ );
+		variables.put( new Key( "file" ), file.toString() );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        datasource = yamlDeserializeFile( filepath = file, path = "spring.datasource" )
+		        pool = yamlDeserializeFile( filepath = file, path = "spring.datasource.pool" )
+		        second = yamlDeserializeFile( filepath = file, path = "items[1].name" )
+		        missing = yamlDeserializeFile( filepath = file, path = "spring.missing" )
+		        ids = yamlDeserialize( content = "items: [ { id: 1 }, { id: 2 }, { name: none } ]", path = "items[*].id" )
+		    """,
+		    context );
+		// @formatter:on
+		IStruct datasource = variables.getAsStruct( new Key( "datasource" ) );
+		assertThat( datasource.get( new Key( "url" ) ) ).isEqualTo( "jdbc:h2:mem" );
+		assertThat( datasource.get( new Key( "pool" ) ) ).isEqualTo( 5 );
+		assertThat( variables.get( new Key( "pool" ) ) ).isEqualTo( 5 );
+		assertThat( variables.get( new Key( "second" ) ) ).isEqualTo( "two" );
+		assertThat( variables.get( new Key( "missing" ) ) ).isNull();
+		assertThat( variables.getAsArray( new Key( "ids" ) ) ).containsExactly( 1, 2 ).inOrder();
+	}
+
+	@DisplayName( "It can build structs lazily" )
+	@Test
+	public void testDeserializeLazy() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        yaml = "{ base: &base { port: 8080 }, app: { <<: *base, name: demo, started: 2024-01-15 }, tags: [ a, b ] }"
+		        data = yamlDeserialize( content = yaml, lazy = true )
+		        port = data.app.port
+		        data.app.name = "changed"
+		        name = data.app.name
+		        lazyYaml = yamlSerialize( yamlDeserialize( content = yaml, lazy = true ) )
+		        eagerYaml = yamlSerialize( yamlDeserialize( content = yaml ) )
+		    """,
+		    context );
+		// @formatter:on
+		// The module classes are loaded by the module class loader
+		assertThat( variables.get( new Key( "data" ) ).getClass().getSimpleName() ).isEqualTo( "LazyStruct" );
+		assertThat( variables.get( new Key( "port" ) ) ).isEqualTo( 8080 );
+		assertThat( variables.get( new Key( "name" ) ) ).isEqualTo( "changed" );
+		assertThat( variables.get( new Key( "lazyYaml" ) ) ).isEqualTo( variables.get( new Key( "eagerYaml" ) ) );
+
+		// Tagged collections built after the call returned still follow the options of their document
+		YamlParser	parser	= YamlParser.getInstance();
+		IStruct		raw		= ( IStruct ) parser.deserialize(
+		    context,
+		    "days: !!omap [ { first: 2024-01-15 } ]",
+		    parser.getDeserializeOptions().copy().setRawTimestamps( true ).setLazy( true )
+		);
+		// Every pooled engine is borrowed in turn, so the one building the value was configured by another call
+		for ( int i = parser.getPool().getIdleCount(); i >= 0; i-- ) {
+			parser.deserialize( context, "day: 2024-01-15\ncount: " + i );
+		}
+		assertThat( ( ( Map<?, ?> ) raw.get( new Key( "days" ) ) ).get( "first" ) ).isInstanceOf( String.class );
+	}
+
+	@DisplayName( "It parses YAML timestamps, or keeps them raw" )
+	@Test
+	public void testDeserializeTimestamps() {
+		YamlParser	parser	= YamlParser.getInstance();
+		String		yaml	= "{ day: 2024-01-15, spaced: 2001-12-14 21:59:43.10 -5, canonical: 2001-12-14t21:59:43.10-05:00 }";
+
+		IStruct		parsed	= ( IStruct ) parser.deserialize( context, yaml );
+		assertThat( parsed.get( new Key( "day" ) ) ).isInstanceOf( DateTime.class );
+		assertThat( ( ( DateTime ) parsed.get( new Key( "spaced" ) ) ).toISOString() ).isEqualTo( "2001-12-14T21:59:43.1-05:00" );
+		assertThat( parsed.get( new Key( "spaced" ) ) ).isEqualTo( parsed.get( new Key( "canonical" ) ) );
+
+		parser.configure( Struct.of( KeyDictionary.rawTimestamps, true ) );
+		try {
+			IStruct raw = ( IStruct ) parser.deserialize( context, yaml );
+			assertThat( raw.get( new Key( "day" ) ) ).isEqualTo( "2024-01-15" );
+		} finally {
+			parser.configure( new Struct() );
+		}
+	}
+
+	@DisplayName( "It resolves plain words and shares the keys of sibling mappings" )
+	@Test
+	public void testDeserializeWordsAndKeys() {
+		String	yaml	= "[ { name: yes, type: Null, note: yesterday }, { name: OFF, type: nulls, note: No } ]";
+		Array	parsed	= ( Array ) YamlParser.getInstance().deserialize( context, yaml );
+		IStruct	first	= ( IStruct ) parsed.get( 0 );
+		IStruct	second	= ( IStruct ) parsed.get( 1 );
+
+		assertThat( first.get( new Key( "name" ) ) ).isEqualTo( true );
+		assertThat( first.get( new Key( "type" ) ) ).isNull();
+		assertThat( first.get( new Key( "note" ) ) ).isEqualTo( "yesterday" );
+		assertThat( second.get( new Key( "name" ) ) ).isEqualTo( false );
+		assertThat( second.get( new Key( "type" ) ) ).isEqualTo( "nulls" );
+		assertThat( second.get( new Key( "note" ) ) ).isEqualTo( false );
+
+		// Both mappings hold the very same key instances
+		assertThat( second.keySet().iterator().next() ).isSameInstanceAs( first.keySet().iterator().next() );
+	}
+
+	@DisplayName( "It can deserialize and serialize files asynchronously" )
+	@Test
+	public void testAsyncFiles( @TempDir Path directory ) throws Exception {
+		Path	first	= directory.resolve( "first.yml" );
+		Path	second	= directory.resolve( "second.yml" );
+		Files.writeString( first, "name: first" );
+		Files.writeString( second, "name: second" );
+		variables.put( new Key( "first" ), first.toString() );
+		variables.put( new Key( "second" ), second.toString() );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        files = yamlDeserializeFiles( [ second, first ] )
+		        try {
+		            yamlDeserializeFiles( [ first, uCase( first ) ] )
+		        } catch ( any e ) {
+		            caseError = e.message
+		        }
+		        single = yamlDeserializeFileAsync( filepath = first ).get()
+		        yaml = yamlSerializeAsync( content = { name : "async" }, executor = "cpu-tasks" ).get()
+		    """,
+		    context );
+		// @formatter:on
+		IStruct files = variables.getAsStruct( new Key( "files" ) );
+		assertThat( files.keySet() ).containsExactly( Key.of( second.toString() ), Key.of( first.toString() ) ).inOrder();
+		assertThat( ( ( IStruct ) files.get( Key.of( first.toString() ) ) ).get( new Key( "name" ) ) ).isEqualTo( "first" );
+		assertThat( variables.getAsString( new Key( "caseError" ) ) ).contains( "only differ by case" );
+		assertThat( variables.getAsStruct( new Key( "single" ) ).get( new Key( "name" ) ) ).isEqualTo( "first" );
+		assertThat( variables.getAsString( new Key( "yaml" ) ).trim() ).isEqualTo( "name: async" );
+	}
+
+	@DisplayName( "It can deserialize the documents of a stream in parallel" )
+	@Test
+	public void testDeserializeAllParallel() {
+		StringBuilder stream = new StringBuilder( "%YAML 1.1\n" );
+		for ( int i = 1; i <= 200; i++ ) {
+			stream.append( "--- # record " ).append( i ).append( "\nid: " ).append( i ).append( "\nnote: |\n  ---\n  not a marker\n" );
+		}
+		variables.put( new Key( "stream" ), stream.toString() );
+		variables.put( new Key( "stamps" ), "---\nat: 2024-01-15 10:30:00\n".repeat( 64 ) );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        setTimezone( "Asia/Tokyo" )
+		        stamped = yamlDeserializeAll( content = stamps, parallel = true )
+		        documents = yamlDeserializeAll( content = stream, parallel = true )
+		        ids = []
+		        count = yamlDeserializeAll( content = stream, parallel = true, callback = ( document ) => { ids.append( document.id ); return ids.len() < 3; } )
+		    """,
+		    context );
+		// @formatter:on
+		Array documents = variables.getAsArray( new Key( "documents" ) );
+		assertThat( documents ).hasSize( 200 );
+		for ( int i = 0; i < 200; i++ ) {
+			assertThat( ( ( IStruct ) documents.get( i ) ).get( new Key( "id" ) ) ).isEqualTo( i + 1 );
+		}
+		assertThat( ( ( IStruct ) documents.get( 0 ) ).get( new Key( "note" ) ) ).isEqualTo( "---\nnot a marker\n" );
+		assertThat( variables.getAsArray( new Key( "ids" ) ) ).containsExactly( 1, 2, 3 ).inOrder();
+		assertThat( variables.get( new Key( "count" ) ) ).isEqualTo( 3L );
+
+		// Timestamps without a zone get the request timezone, whatever the thread parsing them
+		Array stamped = variables.getAsArray( new Key( "stamped" ) );
+		assertThat( stamped ).hasSize( 64 );
+		for ( Object document : stamped ) {
+			DateTime at = ( DateTime ) ( ( IStruct ) document ).get( new Key( "at" ) );
+			assertThat( at.getWrapped().getZone() ).isEqualTo( ZoneId.of( "Asia/Tokyo" ) );
+		}
+	}
+
+	@DisplayName( "It records metrics and announces parse calls" )
+	@Test
+	public void testMetrics() {
+		YamlParser			parser		= YamlParser.getInstance();
+		List<IStruct>		announced	= new ArrayList<>();
+		IInterceptorLambda	listener	= data -> announced.add( data );
+		runtime.getInterceptorService().register( listener, Key.of( "onYamlParse" ) );
+		parser.configure( Struct.of( KeyDictionary.metrics, true ) );
+		try {
+			parser.getMetrics().reset();
+			// Sizes are in UTF-8 bytes: the accented character counts twice
+			parser.deserialize( context, "{ a: 1, b: [ 2, 3 ], c: caf\u00e9 }" );
+			parser.serialize( context, Struct.of( "a", 1 ) );
+
+			IStruct stats = parser.getStats();
+			assertThat( stats.getAsStruct( Key.of( "deserialize" ) ).get( Key.of( "calls" ) ) ).isEqualTo( 1L );
+			assertThat( stats.getAsStruct( Key.of( "deserialize" ) ).get( Key.of( "bytes" ) ) ).isEqualTo( 31L );
+			assertThat( stats.getAsStruct( Key.of( "serialize" ) ).get( Key.of( "calls" ) ) ).isEqualTo( 1L );
+			assertThat( stats.get( Key.of( "documents" ) ) ).isEqualTo( 1L );
+			assertThat( ( Long ) stats.get( Key.of( "values" ) ) ).isAtLeast( 7L );
+			assertThat( stats.getAsStruct( Key.of( "caches" ) ) ).containsKey( Key.of( "fileCache" ) );
+
+			assertThat( announced ).hasSize( 1 );
+			assertThat( announced.get( 0 ).get( Key.of( "operation" ) ) ).isEqualTo( "deserialize" );
+			assertThat( announced.get( 0 ).getAsStruct( Key.result ).get( Key.of( "a" ) ) ).isEqualTo( 1 );
+		} finally {
+			runtime.getInterceptorService().unregister( listener );
+			parser.configure( new Struct() );
+		}
+
+		runtime.executeSource( "stats = yamlStats()", context );
+		assertThat( variables.getAsStruct( new Key( "stats" ) ) ).containsKey( Key.of( "deserializeFile" ) );
+	}
+
+	@DisplayName( "It binds documents straight onto class instances" )
+	@Test
+	public void testDeserializeToClass() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        people = yamlDeserialize( content = "
+		        - id: 1
+		          FIRSTNAME: Luis
+		          email: luis@boxlang.io
+		          password: secret
+		          extra: { a: 1 }
+		        - id: 2
+		          firstName: Jorge
+		        ", class = "src.test.bx.Person" )
+		        firstName = people[ 1 ].getFirstName()
+		        hasEmail = !isNull( people[ 1 ].getEmail() )
+		        hasPassword = !isNull( people[ 1 ].getPassword() )
+		        person = yamlDeserialize( content = "{ id: 3, lastName: Majano }", class = "src.test.bx.Person" )
+		        lastName = person.getLastName()
+		    """,
+		    context );
+		// @formatter:on
+		Array people = variables.getAsArray( new Key( "people" ) );
+		assertThat( people ).hasSize( 2 );
+		assertThat( people.get( 1 ) ).isInstanceOf( IClassRunnable.class );
+		assertThat( ( ( IClassRunnable ) people.get( 1 ) ).getVariablesScope().get( new Key( "id" ) ) ).isEqualTo( 2 );
+		assertThat( variables.get( new Key( "firstName" ) ) ).isEqualTo( "Luis" );
+		assertThat( variables.get( new Key( "hasEmail" ) ) ).isEqualTo( false );
+		assertThat( variables.get( new Key( "hasPassword" ) ) ).isEqualTo( false );
+		assertThat( variables.get( new Key( "lastName" ) ) ).isEqualTo( "Majano" );
+	}
+
+	@DisplayName( "It transcodes YAML to JSON and back without building values" )
+	@Test
+	public void testTranscodeJson( @TempDir Path directory ) throws Exception {
+		Path	yamlFile	= directory.resolve( "source.yml" );
+		Path	jsonFile	= directory.resolve( "target.json" );
+		Files.writeString(
+		    yamlFile,
+		    "base: &base { host: localhost, port: 5432 }\ndev:\n  <<: *base\n  enabled: yes\n  ratio: 0.5\n  none: ~\n  when: 2024-01-01\n  tags: [ a, 'true' ]\n---\nsecond: 1\n"
+		);
+		variables.put( new Key( "yamlFile" ), yamlFile.toString() );
+		variables.put( new Key( "jsonFile" ), jsonFile.toString() );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		        json = yamlFileToJson( filepath = yamlFile )
+		        yamlFileToJson( filepath = yamlFile, destination = jsonFile )
+		        yaml = jsonFileToYaml( filepath = jsonFile )
+		        documents = yamlDeserializeAll( content = yaml, parallel = true )
+		        roundTrip = jsonToYaml( yamlToJson( "{ a: [ 1, '2' ], b: null }" ) )
+		        overridden = yamlToJson( "b: &b { a: 1, b: 2 }\nx: { a: 3, <<: *b }" )
+		        sequenced = yamlToJson( "b1: &b1 { a: 1 }\nb2: &b2 { a: 2, c: { <<: *b1, d: 4 } }\nx: { <<: [ *b1, *b2 ] }" )
+		    """,
+		    context );
+		// @formatter:on
+		assertThat( variables.getAsString( new Key( "json" ) ) ).isEqualTo(
+		    "{\"base\":{\"host\":\"localhost\",\"port\":5432},"
+		        + "\"dev\":{\"enabled\":true,\"ratio\":0.5,\"none\":null,\"when\":\"2024-01-01\",\"tags\":[\"a\",\"true\"],\"host\":\"localhost\",\"port\":5432}}"
+		        + "\n{\"second\":1}"
+		);
+		assertThat( Files.readString( jsonFile ) ).isEqualTo( variables.getAsString( new Key( "json" ) ) );
+		Array documents = variables.getAsArray( new Key( "documents" ) );
+		assertThat( documents ).hasSize( 2 );
+		assertThat( ( ( IStruct ) documents.get( 0 ) ).getAsStruct( new Key( "dev" ) ).getAsArray( new Key( "tags" ) ) ).containsExactly( "a", "true" );
+		assertThat( ( ( IStruct ) documents.get( 1 ) ).get( new Key( "second" ) ) ).isEqualTo( 1 );
+		assertThat( variables.getAsString( new Key( "roundTrip" ) ) ).isEqualTo( "a:\n- 1\n- '2'\nb: null\n" );
+		// Explicit keys override merged ones, and earlier merge sources later ones, without duplicate JSON keys
+		assertThat( variables.getAsString( new Key( "overridden" ) ) ).isEqualTo( "{\"b\":{\"a\":1,\"b\":2},\"x\":{\"a\":3,\"b\":2}}" );
+		assertThat( variables.getAsString( new Key( "sequenced" ) ) )
+		    .isEqualTo( "{\"b1\":{\"a\":1},\"b2\":{\"a\":2,\"c\":{\"d\":4,\"a\":1}},\"x\":{\"a\":1,\"c\":{\"d\":4,\"a\":1}}}" );
+
+		// Documents larger than the maxInputSize limit are converted too
+		StringBuilder large = new StringBuilder( "items:\n" );
+		for ( int i = 0; large.length() < 4 * 1024 * 1024; i++ ) {
+			large.append( "  - { id: " ).append( i ).append( ", name: item number " ).append( i ).append( " }\n" );
+		}
+		Files.writeString( yamlFile, large );
+		runtime.executeSource( "largeJson = yamlFileToJson( filepath = yamlFile )", context );
+		assertThat( variables.getAsString( new Key( "largeJson" ) ) ).startsWith( "{\"items\":[{\"id\":0,\"name\":\"item number 0\"}," );
+		assertThat( variables.getAsString( new Key( "largeJson" ) ) ).endsWith( "}]}" );
+	}
+
+	@DisplayName( "It keeps watched files in memory and reloads them on change" )
+	@Test
+	public void testWatchFile( @TempDir Path directory ) throws Exception {
+		Path file = directory.resolve( "watched.yml" );
+		Files.writeString( file, "name: first" );
+		variables.put( new Key( "file" ), file.toString() );
+
+		CountDownLatch		changed		= new CountDownLatch( 1 );
+		List<IStruct>		announced	= new ArrayList<>();
+		IInterceptorLambda	listener	= data -> {
+			announced.add( data );
+			changed.countDown();
+			return null;
+		};
+		runtime.getInterceptorService().register( listener, Key.of( "onYamlFileChange" ) );
+		try {
+			runtime.executeSource( "before = yamlWatchFile( file )", context );
+			assertThat( variables.getAsStruct( new Key( "before" ) ).get( new Key( "name" ) ) ).isEqualTo( "first" );
+
+			Files.writeString( file, "name: second" );
+			assertThat( changed.await( 30, TimeUnit.SECONDS ) ).isTrue();
+			assertThat( announced.get( 0 ).get( Key.path ) ).isEqualTo( file.toAbsolutePath().normalize().toString() );
+
+			variables.put( new Key( "sameFile" ), file.getParent().resolve( "." ).resolve( file.getFileName() ).toString() );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+			        try {
+			            yamlWatchFile( filepath = sameFile, sharedAliases = true )
+			        } catch ( any e ) {
+			            optionsError = e.message
+			        }
+			        after = yamlWatchFile( file )
+			        unwatched = yamlUnwatchFile( sameFile )
+			        unwatchedAgain = yamlUnwatchFile( file )
+			    """,
+			    context );
+			// @formatter:on
+			assertThat( variables.getAsString( new Key( "optionsError" ) ) ).contains( "already watched" );
+			assertThat( variables.getAsStruct( new Key( "after" ) ).get( new Key( "name" ) ) ).isEqualTo( "second" );
+			assertThat( variables.get( new Key( "unwatched" ) ) ).isEqualTo( true );
+			assertThat( variables.get( new Key( "unwatchedAgain" ) ) ).isEqualTo( false );
+		} finally {
+			runtime.getInterceptorService().unregister( listener );
+		}
+	}
+
+	@DisplayName( "It deep merges layered files and only parses the changed ones again" )
+	@Test
+	public void testMergeFiles( @TempDir Path directory ) throws Exception {
+		Path	base	= directory.resolve( "base.yml" );
+		Path	env		= directory.resolve( "env.yml" );
+		Path	tenant	= directory.resolve( "tenant.yml" );
+		Files.writeString( base, "db:\n  host: localhost\n  port: 5432\nplugins: [ cache ]\n" );
+		Files.writeString( env, "db:\n  host: db.prod\nplugins: [ metrics ]\n" );
+		Files.writeString( tenant, "name: acme\n" );
+		List<String> paths = List.of( base.toString(), env.toString(), tenant.toString() );
+		variables.put( new Key( "files" ), new Array( paths ) );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		    replaced = yamlMergeFiles( files )
+		    appended = yamlMergeFiles( files, "append" )
+		    """,
+		    context );
+		// @formatter:on
+		IStruct replaced = variables.getAsStruct( new Key( "replaced" ) );
+		assertThat( replaced.getAsStruct( new Key( "db" ) ).get( new Key( "host" ) ) ).isEqualTo( "db.prod" );
+		assertThat( replaced.getAsStruct( new Key( "db" ) ).get( new Key( "port" ) ) ).isEqualTo( 5432 );
+		assertThat( replaced.get( new Key( "name" ) ) ).isEqualTo( "acme" );
+		assertThat( replaced.getAsArray( new Key( "plugins" ) ) ).containsExactly( "metrics" );
+		assertThat( variables.getAsStruct( new Key( "appended" ) ).getAsArray( new Key( "plugins" ) ) ).containsExactly( "cache", "metrics" ).inOrder();
+
+		YamlParser parser = YamlParser.getInstance();
+		parser.configure( Struct.of( KeyDictionary.mergeCache, Struct.of( Key.enabled, true ), KeyDictionary.metrics, true ) );
+		parser.getMetrics().reset();
+		try {
+			IStruct first = ( IStruct ) parser.mergeFiles( context, paths, Strategy.REPLACE, "UTF-8", parser.getDeserializeOptions() );
+			first.put( new Key( "name" ), "mutated" );
+			Files.writeString( tenant, "name: globex\n" );
+			IStruct second = ( IStruct ) parser.mergeFiles( context, paths, Strategy.REPLACE, "UTF-8", parser.getDeserializeOptions() );
+			assertThat( second.get( new Key( "name" ) ) ).isEqualTo( "globex" );
+			assertThat( second.getAsStruct( new Key( "db" ) ).get( new Key( "host" ) ) ).isEqualTo( "db.prod" );
+			IStruct third = ( IStruct ) parser.mergeFiles( context, paths, Strategy.REPLACE, "UTF-8", parser.getDeserializeOptions() );
+			assertThat( third.get( new Key( "name" ) ) ).isEqualTo( "globex" );
+
+			// Three files parsed by the first merge, only the tenant file by the second, none by the third
+			assertThat( parser.getStats().get( KeyDictionary.documents ) ).isEqualTo( 4L );
+			assertThat( parser.getCacheStats().getAsStruct( KeyDictionary.mergeCache ).get( KeyDictionary.hits ) ).isEqualTo( 1L );
+		} finally {
+			parser.configure( new Struct() );
+		}
+	}
+
+	@DisplayName( "It loads files from their binary snapshot until they change" )
+	@Test
+	public void testSnapshots( @TempDir Path directory ) throws Exception {
+		Path file = directory.resolve( "snapshot.yml" );
+		Files.writeString( file, """
+		    name: Zo\u00eb
+		    count: 42
+		    big: 12345678901234
+		    huge: 123456789012345678901234567890
+		    ratio: 0.75
+		    enabled: true
+		    missing: ~
+		    released: 2024-01-15T10:30:00Z
+		    logo: !!binary aGVsbG8=
+		    42: numeric key
+		    servers:
+		      - host: a.example.com
+		        ports: [ 80, 443 ]
+		      - host: b.example.com
+		        ports: [ 8080 ]
+		    """ );
+		Path snapshot = file.resolveSibling( file.getFileName() + ".bxyb" );
+
+		variables.put( new Key( "file" ), file.toString() );
+		runtime.executeSource( "compiled = yamlCompileFile( file, 'UTF-8' )", context );
+		assertThat( variables.getAsString( new Key( "compiled" ) ) ).isEqualTo( snapshot.toString() );
+		assertThat( Files.exists( snapshot ) ).isTrue();
+
+		YamlParser	parser		= YamlParser.getInstance();
+		IStruct		expected	= ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+		parser.configure( Struct.of( KeyDictionary.snapshots, true, KeyDictionary.metrics, true ) );
+		parser.getMetrics().reset();
+		try {
+			IStruct loaded = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			assertThat( parser.getStats().get( KeyDictionary.documents ) ).isEqualTo( 0L );
+			assertThat( loaded.getKeys() ).containsExactlyElementsIn( expected.getKeys() ).inOrder();
+			for ( Key key : expected.getKeys() ) {
+				if ( expected.get( key ) instanceof byte[] bytes ) {
+					assertThat( ( byte[] ) loaded.get( key ) ).isEqualTo( bytes );
+				} else {
+					assertThat( String.valueOf( loaded.get( key ) ) ).isEqualTo( String.valueOf( expected.get( key ) ) );
+					assertThat( loaded.get( key ) == null ? null : loaded.get( key ).getClass() )
+					    .isEqualTo( expected.get( key ) == null ? null : expected.get( key ).getClass() );
+				}
+			}
+			assertThat( loaded.get( new Key( "name" ) ) ).isEqualTo( "Zo\u00eb" );
+
+			Files.writeString( file, "name: changed\n" );
+			IStruct changed = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			assertThat( changed.get( new Key( "name" ) ) ).isEqualTo( "changed" );
+			assertThat( parser.getStats().get( KeyDictionary.documents ) ).isEqualTo( 1L );
+			IStruct reloaded = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			assertThat( reloaded.get( new Key( "name" ) ) ).isEqualTo( "changed" );
+			assertThat( parser.getStats().get( KeyDictionary.documents ) ).isEqualTo( 1L );
+
+			// A corrupted snapshot, here its last string index, falls back to parsing
+			byte[] corrupted = Files.readAllBytes( snapshot );
+			corrupted[ corrupted.length - 1 ] = 0x7F;
+			Files.write( snapshot, corrupted );
+			IStruct reparsed = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			assertThat( reparsed.get( new Key( "name" ) ) ).isEqualTo( "changed" );
+			assertThat( parser.getStats().get( KeyDictionary.documents ) ).isEqualTo( 2L );
+
+			// A recursive document is parsed, but gets no snapshot
+			Files.delete( snapshot );
+			Files.writeString( file, "a: &a\n  self: *a\n" );
+			IStruct recursive = ( IStruct ) parser.deserializeFromFile( context, file.toString(), "UTF-8" );
+			assertThat( recursive.getAsStruct( new Key( "a" ) ).get( new Key( "self" ) ) ).isSameInstanceAs( recursive.get( new Key( "a" ) ) );
+			assertThat( Files.exists( snapshot ) ).isFalse();
+		} finally {
+			parser.configure( new Struct() );
+		}
+	}
+
 }